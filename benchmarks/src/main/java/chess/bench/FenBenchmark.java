@@ -0,0 +1,82 @@
+package chess.bench;
+
+import chess.Position;
+import chess.gameUtils.Fen;
+import java.nio.ByteBuffer;
+import java.nio.charset.StandardCharsets;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks of the FEN codec.
+ *
+ * The suite mixes the starting position, middlegame positions with castling
+ * and en passant fields, and sparse endgames, and is parsed both from
+ * strings and from a byte buffer holding one record per line.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class FenBenchmark {
+
+    private static final String[] SUITE = {
+        Fen.START,
+        "r3k2r/p1ppqpb1/bn2pnp1/3PN3/1p2P3/2N2Q1p/PPPBBPPP/R3K2R w KQkq - 0 1",
+        "8/2p5/3p4/KP5r/1R3p1k/8/4P1P1/8 w - - 0 1",
+        "rnbqkb1r/pp1p1ppp/4pn2/2pP4/8/5N2/PPP1PPPP/RNBQKB1R w KQkq c6 0 4",
+        "rnbq1k1r/pp1Pbppp/2p5/8/2B5/8/PPP1NnPP/RNBQK2R w KQ - 1 8",
+        "4k3/8/8/3Q4/8/8/8/4K3 w - - 0 1"
+    };
+
+    private final Position position = new Position();
+    private ByteBuffer buffer;
+
+    @Setup
+    public void setup() {
+        buffer = ByteBuffer.wrap((String.join("\n", SUITE) + "\n").getBytes(StandardCharsets.US_ASCII));
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(6)
+    public void parseString(Blackhole blackhole) {
+        for (String fen : SUITE) {
+            Fen.parse(fen, position);
+            blackhole.consume(position.hashKey());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(6)
+    public void parseBuffer(Blackhole blackhole) {
+        buffer.rewind();
+        while (Fen.parse(buffer, position)) {
+            blackhole.consume(position.hashKey());
+        }
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(6)
+    public void write(Blackhole blackhole) {
+        StringBuilder out = new StringBuilder(90);
+        for (String fen : SUITE) {
+            Fen.parse(fen, position);
+            out.setLength(0);
+            Fen.write(position, out);
+            blackhole.consume(out);
+        }
+    }
+}
@@ -0,0 +1,85 @@
+package chess.bench;
+
+import chess.Board;
+import chess.Position;
+import chess.pieces.Piece;
+import java.util.Arrays;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks of {@link Piece#validMovement} for each piece type.
+ *
+ * Every invocation asks whether the piece can move from its square to each
+ * of the 64 squares, so valid and invalid targets are mixed as they are
+ * when a player's input is checked. The piece is the first one of its type
+ * found on the scenario board; when the scenario has none, a white piece
+ * of that type is placed on the empty e4 square for the run.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class PieceMovementBenchmark {
+
+    private static final String[] TYPES = {"pawn", "knight", "bishop", "rook", "queen", "king"};
+
+    @Param({"pawn", "knight", "bishop", "rook", "queen", "king"})
+    public String piece;
+
+    @Param({"start", "challenge1", "challenge2", "challenge3"})
+    public String scenario;
+
+    private Board board;
+    private Piece subject;
+    private int line, column;
+
+    @Setup
+    public void setup() {
+        board = Scenarios.create(scenario);
+        int type = Arrays.asList(TYPES).indexOf(piece);
+        if (type < 0) {
+            throw new IllegalArgumentException("Unknown piece: " + piece);
+        }
+
+        Position position = board.getPosition();
+        for (int square = 0; square < 64; square++) {
+            if (position.typeAt(square) == type) {
+                subject = board.getPiece(square >>> 3, square & 7);
+                line = square >>> 3;
+                column = square & 7;
+                return;
+            }
+        }
+
+        line = 4;
+        column = 4;
+        if (board.isOccupied(line, column)) {
+            throw new IllegalStateException("e4 is occupied in scenario " + scenario);
+        }
+        subject = Piece.of(Position.WHITE, type);
+        board.setPiece(line, column, subject);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(64)
+    public void validMovement(Blackhole blackhole) {
+        for (int square = 0; square < 64; square++) {
+            blackhole.consume(subject.validMovement(board, line, column, square >>> 3, square & 7));
+        }
+    }
+}
@@ -0,0 +1,145 @@
+package chess.bench;
+
+import chess.Board;
+import chess.Game;
+import chess.GamePort;
+import chess.Position;
+import chess.gameUtils.Move;
+import chess.gameUtils.MoveGenerator;
+import chess.gameUtils.MoveValidator;
+import java.util.concurrent.TimeUnit;
+import org.openjdk.jmh.annotations.Benchmark;
+import org.openjdk.jmh.annotations.BenchmarkMode;
+import org.openjdk.jmh.annotations.Fork;
+import org.openjdk.jmh.annotations.Measurement;
+import org.openjdk.jmh.annotations.Mode;
+import org.openjdk.jmh.annotations.OperationsPerInvocation;
+import org.openjdk.jmh.annotations.OutputTimeUnit;
+import org.openjdk.jmh.annotations.Param;
+import org.openjdk.jmh.annotations.Scope;
+import org.openjdk.jmh.annotations.Setup;
+import org.openjdk.jmh.annotations.State;
+import org.openjdk.jmh.annotations.Warmup;
+import org.openjdk.jmh.infra.Blackhole;
+
+/**
+ * Benchmarks of the rule checks used on every move of a game: check
+ * detection, legality of a move, checkmate and stalemate tests, full move
+ * processing, path obstacles and the material evaluation.
+ *
+ * Each scenario is searched for a quiet, reversible move of a non-pawn
+ * piece, so {@link #processMove(Blackhole)} can play it and take it back on
+ * every invocation without changing the board. The messages processMove
+ * prints go to a port that discards them, so that the terminal does not
+ * dominate the measurement.
+ */
+@BenchmarkMode(Mode.AverageTime)
+@OutputTimeUnit(TimeUnit.NANOSECONDS)
+@Warmup(iterations = 5, time = 1)
+@Measurement(iterations = 5, time = 1)
+@Fork(2)
+@State(Scope.Thread)
+public class RulesBenchmark {
+
+    /**
+     * Port that ignores every message and has no input.
+     */
+    private static final GamePort SILENT = new GamePort() {
+        @Override
+        public String readLine() {
+            return null;
+        }
+
+        @Override
+        public void print(String text) {
+        }
+    };
+
+    @Param({"start", "challenge1", "challenge2", "challenge3"})
+    public String scenario;
+
+    private Board board;
+    private Game game;
+    private MoveValidator validator;
+
+    private int color;
+    private boolean white;
+    private int fromRow, fromCol, toRow, toCol;
+    private String forward, back;
+
+    @Setup
+    public void setup() {
+        board = Scenarios.create(scenario);
+        game = new Game(board, SILENT);
+        validator = new MoveValidator(board, SILENT);
+
+        int move = findReversibleMove();
+        if (move == Move.NONE) {
+            throw new IllegalStateException("No reversible move in scenario " + scenario);
+        }
+        color = board.getPosition().colorAt(Move.from(move));
+        white = color == Position.WHITE;
+        fromRow = Move.from(move) >>> 3;
+        fromCol = Move.from(move) & 7;
+        toRow = Move.to(move) >>> 3;
+        toCol = Move.to(move) & 7;
+        String from = Move.squareName(Move.from(move));
+        String to = Move.squareName(Move.to(move));
+        forward = from + " " + to;
+        back = to + " " + from;
+
+        if (!validator.processMove(forward, white) || !validator.processMove(back, white)) {
+            throw new IllegalStateException("Move " + forward + " cannot be played and taken back");
+        }
+    }
+
+    private int findReversibleMove() {
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        for (int side = Position.WHITE; side <= Position.BLACK; side++) {
+            if (validator.isKingInCheck(side)) {
+                continue;
+            }
+            int count = MoveGenerator.generateLegal(board.getPosition(), side, moves, 0);
+            for (int i = 0; i < count; i++) {
+                int move = moves[i];
+                if (Move.piece(move) != Position.PAWN && !Move.isCapture(move) && (move & Move.CASTLING) == 0) {
+                    return move;
+                }
+            }
+        }
+        return Move.NONE;
+    }
+
+    @Benchmark
+    public boolean isKingInCheck() {
+        return validator.isKingInCheck(color);
+    }
+
+    @Benchmark
+    public boolean moveLeavesKingInCheck() {
+        return validator.moveLeavesKingInCheck(fromRow, fromCol, toRow, toCol);
+    }
+
+    @Benchmark
+    public boolean canEscapeCheck() {
+        return validator.canEscapeCheck(color);
+    }
+
+    @Benchmark
+    @OperationsPerInvocation(2)
+    public void processMove(Blackhole blackhole) {
+        blackhole.consume(validator.processMove(forward, white));
+        blackhole.consume(validator.processMove(back, white));
+    }
+
+    @Benchmark
+    public boolean hasObstacle() {
+        // Longest diagonal of the board, a1 to h8
+        return board.hasObstacle(7, 0, 0, 7);
+    }
+
+    @Benchmark
+    public int evaluate() {
+        return game.evaluate(board);
+    }
+}
@@ -0,0 +1,30 @@
+package chess.bench;
+
+import chess.Board;
+import chess.ChallengeManager;
+
+/**
+ * Boards the benchmarks run on: the starting position and the positions
+ * of the {@link ChallengeManager} scenarios.
+ */
+final class Scenarios {
+
+    private Scenarios() {
+    }
+
+    /**
+     * Creates the board of a named scenario.
+     *
+     * @param name "start", or "challenge" followed by the challenge number.
+     * @return A new board set up for the scenario.
+     */
+    static Board create(String name) {
+        if (name.equals("start")) {
+            return new Board();
+        }
+        if (name.startsWith("challenge")) {
+            return ChallengeManager.createChallenge(Integer.parseInt(name.substring("challenge".length())));
+        }
+        throw new IllegalArgumentException("Unknown scenario: " + name);
+    }
+}
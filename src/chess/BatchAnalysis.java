@@ -0,0 +1,241 @@
+package chess;
+
+import chess.engine.GameAnalyzer;
+import chess.gameUtils.PgnGame;
+import chess.gameUtils.PgnReader;
+import chess.gameUtils.PgnWriter;
+import java.io.IOException;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Locale;
+import java.util.Map;
+import java.util.concurrent.BlockingQueue;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.ForkJoinWorkerThread;
+import java.util.concurrent.LinkedBlockingQueue;
+import java.util.concurrent.Semaphore;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Entry point for headless batch analysis, which annotates every game of a
+ * PGN archive with the engine's evaluation of each move.
+ *
+ * The work runs in three stages. The calling thread reads games and hands
+ * each one to a work-stealing pool; every worker thread of the pool owns
+ * its own {@link GameAnalyzer}, so workers never share a search or a
+ * transposition table; and a writer thread puts the annotated games back
+ * in their original order before writing them. Only a bounded number of
+ * games is in flight at any time, so memory use does not depend on the
+ * size of the archive. Progress, including the number of games waiting in
+ * each stage, is reported every few seconds.
+ *
+ * Usage: {@code java chess.BatchAnalysis <in.pgn> <out.pgn> [--depth <n>] [--threads <n>] [--hash <MB>]}
+ */
+public class BatchAnalysis {
+
+    private static final int GAMES_IN_FLIGHT_PER_THREAD = 4;
+    private static final long REPORT_INTERVAL_MILLIS = 5000;
+
+    private final int depth;
+    private final int hashMegabytes;
+    private final ForkJoinPool pool;
+    private final Semaphore inFlight;
+    private final BlockingQueue<Result> finished = new LinkedBlockingQueue<>();
+    private final AtomicInteger running = new AtomicInteger();
+
+    private volatile long gamesRead;
+    private volatile boolean readingDone;
+    private long gamesWritten;
+    private long invalidGames;
+    private long failedGames;
+    private int reorderDepth;
+
+    /**
+     * Constructs a batch analysis.
+     *
+     * @param threads Number of worker threads, each with its own engine.
+     * @param depth Search depth in plies for every position.
+     * @param hashMegabytes Size of each worker's transposition table in MB.
+     */
+    public BatchAnalysis(int threads, int depth, int hashMegabytes) {
+        this.depth = depth;
+        this.hashMegabytes = hashMegabytes;
+        this.pool = new ForkJoinPool(threads, AnalysisWorker::new, null, false);
+        this.inFlight = new Semaphore(threads * GAMES_IN_FLIGHT_PER_THREAD);
+    }
+
+    /**
+     * Analyzes every game of the input and writes the annotated games to the
+     * output in the order they were read. Games that cannot be read are
+     * reported and skipped; games whose analysis fails are written as read.
+     *
+     * @param in The games to analyze.
+     * @param out Receives the annotated games.
+     * @return The number of games written.
+     * @throws IOException If reading or writing fails.
+     * @throws InterruptedException If the calling thread is interrupted.
+     */
+    public long run(PgnReader in, PgnWriter out) throws IOException, InterruptedException {
+        long start = System.nanoTime();
+        IOException[] writeFailure = new IOException[1];
+        Thread writer = new Thread(() -> {
+            try {
+                writeInOrder(out, start);
+            } catch (IOException e) {
+                writeFailure[0] = e;
+            } catch (InterruptedException e) {
+                Thread.currentThread().interrupt();
+            }
+        }, "analysis-writer");
+        writer.start();
+
+        try {
+            reading:
+            while (true) {
+                PgnGame game;
+                try {
+                    game = in.next();
+                } catch (IllegalArgumentException e) {
+                    System.out.println("Skipped: " + e.getMessage());
+                    invalidGames++;
+                    continue;
+                }
+                if (game == null) {
+                    break;
+                }
+                while (!inFlight.tryAcquire(100, TimeUnit.MILLISECONDS)) {
+                    if (!writer.isAlive()) {
+                        break reading;
+                    }
+                }
+                pool.execute(new AnalysisTask(game, gamesRead++));
+            }
+        } finally {
+            readingDone = true;
+            writer.join();
+            pool.shutdown();
+        }
+        if (writeFailure[0] != null) {
+            throw writeFailure[0];
+        }
+        report(start, true);
+        return gamesWritten;
+    }
+
+    /**
+     * Runs on the writer thread: collects finished games, holds back those
+     * that overtook an earlier game, and writes them in sequence.
+     */
+    private void writeInOrder(PgnWriter out, long start) throws IOException, InterruptedException {
+        Map<Long, PgnGame> waiting = new HashMap<>();
+        long lastReport = System.nanoTime();
+        while (!readingDone || gamesWritten < gamesRead) {
+            Result result = finished.poll(100, TimeUnit.MILLISECONDS);
+            if (result != null) {
+                waiting.put(result.sequence, result.game);
+                for (PgnGame next; (next = waiting.remove(gamesWritten)) != null; ) {
+                    out.write(next);
+                    gamesWritten++;
+                    inFlight.release();
+                }
+                reorderDepth = waiting.size();
+            }
+            if (System.nanoTime() - lastReport > REPORT_INTERVAL_MILLIS * 1000000) {
+                lastReport = System.nanoTime();
+                report(start, false);
+            }
+        }
+        out.flush();
+    }
+
+    private void report(long start, boolean last) {
+        double seconds = Math.max(1, System.nanoTime() - start) / 1e9;
+        System.out.println(String.format(Locale.ROOT, "%s%d games written, %.1f games/second | queued %d, analyzing %d, reordering %d, to write %d",
+                last ? "Done: " : "", gamesWritten, gamesWritten / seconds,
+                pool.getQueuedSubmissionCount() + pool.getQueuedTaskCount(), running.get(), reorderDepth, finished.size()));
+        if (last) {
+            System.out.println("Skipped games: " + invalidGames + ", failed analyses: " + failedGames);
+        }
+    }
+
+    /**
+     * Pool thread that owns one engine for the lifetime of the pool.
+     */
+    private final class AnalysisWorker extends ForkJoinWorkerThread {
+        private final GameAnalyzer analyzer = new GameAnalyzer(depth, hashMegabytes);
+
+        AnalysisWorker(ForkJoinPool pool) {
+            super(pool);
+        }
+    }
+
+    /**
+     * Annotates one game with the engine of the worker running it.
+     */
+    private final class AnalysisTask implements Runnable {
+        private final PgnGame game;
+        private final long sequence;
+
+        AnalysisTask(PgnGame game, long sequence) {
+            this.game = game;
+            this.sequence = sequence;
+        }
+
+        @Override
+        public void run() {
+            running.incrementAndGet();
+            try {
+                ((AnalysisWorker) Thread.currentThread()).analyzer.annotate(game);
+            } catch (RuntimeException e) {
+                System.out.println("Analysis of game " + (sequence + 1) + " failed: " + e.getMessage());
+                synchronized (BatchAnalysis.this) {
+                    failedGames++;
+                }
+            } finally {
+                running.decrementAndGet();
+                finished.add(new Result(game, sequence));
+            }
+        }
+    }
+
+    private static final class Result {
+        final PgnGame game;
+        final long sequence;
+
+        Result(PgnGame game, long sequence) {
+            this.game = game;
+            this.sequence = sequence;
+        }
+    }
+
+    /**
+     * Runs a batch analysis from the command line.
+     *
+     * @param args Input and output files, then options.
+     * @throws Exception If the files cannot be read or written.
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length < 2) {
+            System.out.println("Usage: java chess.BatchAnalysis <in.pgn> <out.pgn> [--depth <n>] [--threads <n>] [--hash <MB>]");
+            return;
+        }
+
+        int depth = 6;
+        int threads = Runtime.getRuntime().availableProcessors();
+        int hash = 16;
+        for (int i = 2; i < args.length; i++) {
+            switch (args[i]) {
+                case "--depth": depth = Integer.parseInt(args[++i]); break;
+                case "--threads": threads = Integer.parseInt(args[++i]); break;
+                case "--hash": hash = Integer.parseInt(args[++i]); break;
+                default: throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+
+        try (PgnReader in = new PgnReader(Paths.get(args[0]));
+             PgnWriter out = new PgnWriter(Paths.get(args[1]), false)) {
+            new BatchAnalysis(threads, depth, hash).run(in, out);
+        }
+    }
+}
@@ -1,5 +1,8 @@
 package chess;
 
+import chess.gameUtils.Fen;
+import chess.gameUtils.Move;
+import chess.gameUtils.SlidingAttacks;
 import chess.pieces.*;
 
 /**
@@ -8,48 +11,102 @@ import chess.pieces.*;
  *
  * This class supports board setup, move logic, obstacle detection,
  * and board visualization. It acts as the central reference for all
- * piece interactions during gameplay.
+ * piece interactions during gameplay. The board itself is a bitboard
+ * {@link Position} holding one byte code per square; the {@link Piece}
+ * objects handed out are shared, stateless flyweights, so moving pieces
+ * around or copying a board never touches piece objects.
  */
 public class Board {
     final String RESET = "\u001B[0m";
 
-    private Piece[][] board;
+    private final Position position;
     private int size = 8;
 
     public Board() {
-        board = new Piece[size][size];
+        position = new Position();
         initializeBoard();
     }
 
+    /**
+     * Constructs an independent copy of another board.
+     *
+     * @param other The board to copy.
+     */
+    public Board(Board other) {
+        position = new Position(other.position);
+    }
+
+    /**
+     * Constructs a board holding the position described by a FEN record.
+     *
+     * @param fen The FEN text.
+     * @return The new board.
+     * @throws IllegalArgumentException If the text is not a valid FEN record.
+     */
+    public static Board fromFen(CharSequence fen) {
+        Board board = new Board();
+        board.setFen(fen);
+        return board;
+    }
+
+    /**
+     * Replaces the pieces and game state of this board with a FEN record,
+     * including side to move, castling rights, en passant square and move
+     * counters. An invalid record leaves the board unchanged.
+     *
+     * @param fen The FEN text.
+     * @throws IllegalArgumentException If the text is not a valid FEN record.
+     */
+    public void setFen(CharSequence fen) {
+        Fen.parse(fen, position);
+    }
+
+    /**
+     * Returns the FEN record of the current position.
+     *
+     * @return The FEN text.
+     */
+    public String toFen() {
+        return Fen.toString(position);
+    }
+
+    /**
+     * Returns the Zobrist key identifying the current position.
+     *
+     * @return The 64-bit hash key of the position.
+     */
+    public long hashKey() {
+        return position.hashKey();
+    }
+
+    /**
+     * Returns the bitboard representation backing this board.
+     *
+     * @return The position holding the pieces of this board.
+     */
+    public Position getPosition() {
+        return position;
+    }
+
     /**
      * Initializes the board to the standard chess starting position.
      */
     public void initializeBoard() {
-        // Pecas brancas
-        board[0][0] = new Rook("black", 0, 0,this);
-        board[0][1] = new Knight("black", 0, 1,this);
-        board[0][2] = new Bishop("black", 0, 2,this);
-        board[0][3] = new Queen("black", 0, 3,this);
-        board[0][4] = new King("black", 0, 4,this);
-        board[0][5] = new Bishop("black", 0, 5,this);
-        board[0][6] = new Knight("black", 0, 6,this);
-        board[0][7] = new Rook("black", 0, 7,this);
+        int[] backRank = {Position.ROOK, Position.KNIGHT, Position.BISHOP, Position.QUEEN,
+                Position.KING, Position.BISHOP, Position.KNIGHT, Position.ROOK};
+
+        // Pecas pretas
         for (int i = 0; i < size; i++) {
-            board[1][i] = new Pawn("black", 1, i,this);
+            setPiece(0, i, Piece.of(Position.BLACK, backRank[i]));
+            setPiece(1, i, Piece.of(Position.BLACK, Position.PAWN));
         }
 
-        // Pecas pretas
-        board[7][0] = new Rook("white", 7, 0,this);
-        board[7][1] = new Knight("white", 7, 1,this);
-        board[7][2] = new Bishop("white", 7, 2,this);
-        board[7][3] = new Queen("white", 7, 3,this);
-        board[7][4] = new King("white", 7, 4,this);
-        board[7][5] = new Bishop("white", 7, 5,this);
-        board[7][6] = new Knight("white", 7, 6,this);
-        board[7][7] = new Rook("white", 7, 7,this);
+        // Pecas brancas
         for (int i = 0; i < size; i++) {
-            board[6][i] = new Pawn("white", 6, i,this);
+            setPiece(7, i, Piece.of(Position.WHITE, backRank[i]));
+            setPiece(6, i, Piece.of(Position.WHITE, Position.PAWN));
         }
+        position.setCastlingRights(Position.ALL_CASTLING);
     }
 
     /**
@@ -63,7 +120,7 @@ public class Board {
         if (line < 0 || column < 0 || line >= size || column >= size) {
             return null;
         }
-        return board[line][column];
+        return Piece.fromCode(position.pieceAt(Position.square(line, column)));
     }
 
     /**
@@ -74,7 +131,10 @@ public class Board {
      * @return True if the position is occupied, false otherwise.
      */
     public boolean isOccupied(int line, int column) {
-        return getPiece(line, column) != null;
+        if (line < 0 || column < 0 || line >= size || column >= size) {
+            return false;
+        }
+        return position.isOccupied(Position.square(line, column));
     }
 
     /**
@@ -82,17 +142,20 @@ public class Board {
      *
      * @param line Row index.
      * @param column Column index.
-     * @param color The current player's color.
+     * @param color The current player's color index.
      * @return True if the piece is an opponent's, false otherwise.
      */
-    public boolean isOpponent(int line, int column, String color) {
-        Piece piece = getPiece(line, column);
-        return piece != null && piece.getColor() != color;
+    public boolean isOpponent(int line, int column, int color) {
+        if (line < 0 || column < 0 || line >= size || column >= size) {
+            return false;
+        }
+        return position.isOpponent(Position.square(line, column), color);
     }
 
     /**
      * Moves a piece from one position to another, if the move is valid.
-     * Checks movement rules and captures if applicable.
+     * Checks movement rules and captures if applicable. A pawn reaching the
+     * last row is promoted to a queen.
      *
      * @param startLine Starting row.
      * @param startColumn Starting column.
@@ -103,7 +166,7 @@ public class Board {
     public boolean movePiece(int startLine, int startColumn, int endLine, int endColumn) {
         Piece piece = getPiece(startLine, startColumn);
 
-        if (piece == null || !piece.validMovement(endLine, endColumn)) {
+        if (piece == null || !piece.validMovement(this, startLine, startColumn, endLine, endColumn)) {
             return false;
         }
 
@@ -111,14 +174,48 @@ public class Board {
             return false;
         }
 
-        board[startLine][startColumn] = null;
-        board[endLine][endColumn] = piece;
-        piece.setPosition(endLine, endColumn);
+        int from = Position.square(startLine, startColumn);
+        int to = Position.square(endLine, endColumn);
+        boolean resetsClock = piece.getType() == Position.PAWN || isOccupied(endLine, endColumn);
+        position.move(from, to);
+        if (piece.getType() == Position.PAWN && (endLine == 0 || endLine == size - 1)) {
+            position.remove(to);
+            position.put(to, piece.getColor(), Position.QUEEN);
+        }
+        position.updateCastlingRights(from, to);
+        position.setSideToMove(piece.getColor() ^ 1);
+        position.setEnPassantSquare(Position.EMPTY);
+        position.setMoveCounters(resetsClock ? 0 : position.halfmoveClock() + 1,
+                position.fullmoveNumber() + (piece.isWhite() ? 0 : 1));
         return true;
     }
 
+    /**
+     * Plays a packed move (see {@link Move}) so that it can be taken back
+     * with {@link #unmakeMove()}. Unlike {@link #movePiece(int, int, int, int)}
+     * the move is not validated, so it should come from the move generator.
+     * A pawn's double step leaves its en passant square behind, so that the
+     * reply can capture en passant.
+     *
+     * @param move The packed move to play.
+     */
+    public void makeMove(int move) {
+        position.setSideToMove(position.colorAt(Move.from(move)));
+        position.makeMove(move);
+    }
+
+    /**
+     * Takes back the last move played with {@link #makeMove(int)}, including
+     * any capture.
+     */
+    public void unmakeMove() {
+        position.unmakeMove();
+    }
+
     /**
      * Checks for obstacles in a straight or diagonal path between two positions.
+     * Positions that do not share a rank, file or diagonal have no path and
+     * therefore no obstacles.
      *
      * @param startLine Starting row.
      * @param startColumn Starting column.
@@ -127,57 +224,42 @@ public class Board {
      * @return True if any pieces block the path, false otherwise.
      */
     public boolean hasObstacle(int startLine, int startColumn, int endLine, int endColumn) {
-        int lineStep;
-        if (endLine > startLine) {
-            lineStep = 1;  // Para baixo
-        } else if (endLine < startLine) {
-            lineStep = -1; // para cima
-        } else {
-            lineStep = 0;  // sem movimento
-        }
-
-        int columnStep;
-        if (endColumn > startColumn) {
-            columnStep = 1;  // para direita
-        } else if (endColumn < startColumn) {
-            columnStep = -1; // para esquerda
-        } else {
-            columnStep = 0;  // sem movimento
-        }
-
-        int currentLine = startLine + lineStep;
-        int currentColumn = startColumn + columnStep;
-
-        while (currentLine != endLine || currentColumn != endColumn) {
-            if (isOccupied(currentLine, currentColumn)) {
-                return true;
-            }
-            currentLine += lineStep;
-            currentColumn += columnStep;
-        }
-        return false;
+        long path = SlidingAttacks.between(Position.square(startLine, startColumn), Position.square(endLine, endColumn));
+        return (path & position.occupied()) != 0;
     }
 
     /**
      * Prints the current board state to the console using ASCII formatting.
      */
     public void printBoard() {
-        System.out.println("\n" + RESET + "      a     b     c     d     e     f     g     h  ");
-        System.out.println("    +-----+-----+-----+-----+-----+-----+-----+-----+");
+        printBoard(GamePort.console());
+    }
+
+    /**
+     * Shows the current board state to a player using ASCII formatting. The
+     * drawing is built first and sent in one piece.
+     *
+     * @param port The player's port.
+     */
+    public void printBoard(GamePort port) {
+        StringBuilder text = new StringBuilder(1600);
+        text.append("\n" + RESET + "      a     b     c     d     e     f     g     h  \n");
+        text.append("    +-----+-----+-----+-----+-----+-----+-----+-----+\n");
 
         for (int i = 0; i < 8; i++) {
-            System.out.print(" " + (8 - i) + "  |");
+            text.append(" ").append(8 - i).append("  |");
 
             for (int j = 0; j < 8; j++) {
-                Piece piece = board[i][j];
-                System.out.print("  " + (piece != null ? piece.toString() : " ") + RESET + "  |");
+                Piece piece = getPiece(i, j);
+                text.append("  ").append(piece != null ? piece.toString() : " ").append(RESET).append("  |");
             }
 
-            System.out.println(RESET + "  " + (8 - i));
-            System.out.println("    +-----+-----+-----+-----+-----+-----+-----+-----+");
+            text.append(RESET + "  ").append(8 - i).append('\n');
+            text.append("    +-----+-----+-----+-----+-----+-----+-----+-----+\n");
         }
 
-        System.out.println("      a     b     c     d     e     f     g     h  ");
+        text.append("      a     b     c     d     e     f     g     h  \n");
+        port.print(text.toString());
     }
 
     /**
@@ -185,13 +267,13 @@ public class Board {
      *
      * @param newRow Target row.
      * @param newCol Target column.
-     * @param capturedPiece The piece to place (can be null to clear the square).
+     * @param piece The piece to place (can be null to clear the square).
      */
-    public void setPiece(int newRow, int newCol, Piece capturedPiece) {
-        board[newRow][newCol] = capturedPiece;
-
-        if (capturedPiece != null) {
-            capturedPiece.setPosition(newRow, newCol);
+    public void setPiece(int newRow, int newCol, Piece piece) {
+        int square = Position.square(newRow, newCol);
+        position.remove(square);
+        if (piece != null) {
+            position.put(square, piece.getColor(), piece.getType());
         }
     }
 
@@ -199,6 +281,6 @@ public class Board {
      * Clears all pieces from the board, resetting it to an empty state.
      */
     public void clearBoard() {
-        this.board = new Piece[size][size];
+        position.clear();
     }
-}
+}
\ No newline at end of file
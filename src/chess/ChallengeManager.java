@@ -1,6 +1,5 @@
 package chess;
 
-import chess.pieces.*;
 import java.util.Scanner;
 
 /**
@@ -40,38 +39,39 @@ public class ChallengeManager {
 
         String choice = scanner.nextLine().trim();
 
+        if (choice.equals("0")) {
+            return null;
+        }
+        if (!choice.matches("[1-9]|10")) {
+            System.out.println("\nInvalid option! Please try again.");
+            return challengeMenu();
+        }
+
+        return createChallenge(Integer.parseInt(choice));
+    }
+
+    /**
+     * Creates the board of a challenge scenario without going through the menu.
+     *
+     * @param number The challenge number, from 1 to 10.
+     * @return A Board configured for the challenge.
+     */
+    public static Board createChallenge(int number) {
         Board board = new Board();
         board.clearBoard();
 
-        switch (choice) {
-            case "1":
+        switch (number) {
+            case 1:
                 initializeCheckmateScenario(board);
                 break;
-            case "2":
+            case 2:
                 initializeEndgameScenario(board);
                 break;
-            case "3":
+            case 3:
                 initializePuzzle1(board);
                 break;
-            case "4":
-                break;
-            case "5":
-                break;
-            case "6":
-                break;
-            case "7":
-                break;
-            case "8":
-                break;
-            case "9":
-                break;
-            case "10":
-                break;
-            case "0":
-                return null;
             default:
-                System.out.println("\nInvalid option! Please try again.");
-                return challengeMenu();
+                break;
         }
 
         return board;
@@ -83,11 +83,7 @@ public class ChallengeManager {
      * @param board The board to be configured for this scenario.
      */
     private static void initializeCheckmateScenario(Board board) {
-        board.setPiece(7, 0, new King("white", 7, 0, board));
-        board.setPiece(4, 2, new Queen("black", 4, 2, board));
-        board.setPiece(6, 2, new Rook("black", 6, 2, board));
-        board.setPiece(5, 2, new Rook("black", 5, 2, board));
-
+        board.setFen("7k/8/8/8/2q5/2r5/2r5/K7 w - - 0 1");
     }
 
     /**
@@ -96,10 +92,7 @@ public class ChallengeManager {
      * @param board The board to be configured for this scenario.
      */
     private static void initializeEndgameScenario(Board board) {
-        board.setPiece(7, 4, new King("white", 7, 4, board));
-        board.setPiece(0, 4, new King("black", 0, 4, board));
-        board.setPiece(3, 3, new Queen("white", 3, 3, board));
-
+        board.setFen("4k3/8/8/3Q4/8/8/8/4K3 w - - 0 1");
     }
 
     /**
@@ -108,10 +101,6 @@ public class ChallengeManager {
      * @param board The board to be configured for this scenario.
      */
     private static void initializePuzzle1(Board board) {
-        board.setPiece(7, 4, new King("white", 7, 4, board));
-        board.setPiece(0, 4, new King("black", 0, 4, board));
-        board.setPiece(5, 5, new Rook("white", 5, 5, board));
-        board.setPiece(1, 3, new Pawn("black", 1, 3, board));
-
+        board.setFen("4k3/3p4/8/8/8/5R2/8/4K3 w - - 0 1");
     }
 }
\ No newline at end of file
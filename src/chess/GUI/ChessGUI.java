@@ -2,28 +2,38 @@ package chess.GUI;
 
 import chess.Board;
 import chess.Game;
-import chess.gameUtils.MoveValidator;
+import chess.engine.ComputerPlayer;
+import chess.engine.OpeningBook;
+import chess.engine.Tablebases;
+import chess.gameUtils.Move;
 import chess.pieces.Piece;
 import javax.swing.*;
 import java.awt.*;
 import java.awt.event.ActionEvent;
 import java.awt.event.ActionListener;
+import java.io.File;
+import java.io.IOException;
+import java.util.concurrent.ExecutionException;
 
 /**
  * Graphical User Interface for the Chess game using Java Swing.
  *
  * This class displays the chess board, handles player interactions,
  * processes move validation, updates game state, and provides visual
- * feedback for moves and game results.
+ * feedback for moves and game results. Either color can be handed to the
+ * computer opponent when the window opens, and the game can be saved as PGN.
  */
 public class ChessGUI extends JFrame {
+    private static final long serialVersionUID = 1L;
+
     private Board board;
     private JButton[][] buttons;
     private Game game;
     private int selectedRow = -1, selectedCol = -1;
     private JLabel statusLabel;
     private JTextArea consoleOutput;
-    private MoveValidator moveValidator;
+    private Tablebases tablebases;
+    private boolean computerThinking;
 
 
     /**
@@ -32,8 +42,10 @@ public class ChessGUI extends JFrame {
      */
     public ChessGUI() {
         game = new Game();
+        tablebases = Tablebases.fromSystemProperties();
+        game.setTablebases(tablebases);
         board = game.getBoard();
-        this.moveValidator = new MoveValidator(board);
+        chooseOpponent();
 
         setTitle("Chess Game");
         setSize(600, 800);
@@ -44,6 +56,9 @@ public class ChessGUI extends JFrame {
         statusLabel = new JLabel("Current turn: White");
         statusLabel.setFont(new Font("Arial", Font.BOLD, 16));
         statusPanel.add(statusLabel);
+        JButton saveButton = new JButton("Save PGN");
+        saveButton.addActionListener(e -> saveGame());
+        statusPanel.add(saveButton);
         add(statusPanel, BorderLayout.NORTH);
 
         JPanel boardPanel = new JPanel(new GridLayout(8, 8));
@@ -70,6 +85,91 @@ public class ChessGUI extends JFrame {
 
         updateBoard();
         setVisible(true);
+        SwingUtilities.invokeLater(this::playComputerMoveIfNeeded);
+    }
+
+    /**
+     * Asks whether to play against another person or against the computer,
+     * and with which color.
+     */
+    private void chooseOpponent() {
+        String[] options = {"Human vs Human", "Play White vs Computer", "Play Black vs Computer"};
+        int choice = JOptionPane.showOptionDialog(null, "Choose your opponent:", "Chess Game",
+                JOptionPane.DEFAULT_OPTION, JOptionPane.QUESTION_MESSAGE, null, options, options[0]);
+        if (choice == 1 || choice == 2) {
+            ComputerPlayer computer = new ComputerPlayer();
+            computer.setOpeningBook(OpeningBook.fromSystemProperties());
+            computer.setTablebases(tablebases);
+            game.setComputerOpponent(computer, choice == 2);
+        }
+    }
+
+    /**
+     * Lets the computer play its move when it is the computer's turn and
+     * the game is not over. The search runs in the background so that the
+     * window stays responsive, and the move is played once it is found.
+     * Clicks on the board are ignored in the meantime.
+     */
+    private void playComputerMoveIfNeeded() {
+        if (computerThinking || !game.isComputerTurn() || reportGameEnd()) {
+            return;
+        }
+        computerThinking = true;
+        statusLabel.setText("Computer is thinking...");
+        new SwingWorker<Integer, Void>() {
+            @Override
+            protected Integer doInBackground() {
+                return game.chooseComputerMove();
+            }
+
+            @Override
+            protected void done() {
+                computerThinking = false;
+                int move;
+                try {
+                    move = get();
+                } catch (InterruptedException | ExecutionException e) {
+                    logMessage("The computer could not choose a move: " + e.getCause());
+                    updateStatusLabel();
+                    return;
+                }
+                if (move != Move.NONE) {
+                    game.playMove(move);
+                    logMessage("Computer played: " + Move.toNotation(move));
+                    updateBoard();
+                    if (!reportGameEnd()) {
+                        reportEndgame();
+                    }
+                }
+                updateStatusLabel();
+            }
+        }.execute();
+    }
+
+    /**
+     * Logs the result if the side to move is checkmated or stalemated.
+     *
+     * @return True if the game is over.
+     */
+    private boolean reportGameEnd() {
+        if (game.isCheckmate()) {
+            logMessage("Checkmate! " + (game.isWhiteTurn() ? "Black" : "White") + " wins!");
+            return true;
+        } else if (game.isStalemate()) {
+            logMessage("Draw by Stalemate!");
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Logs the tablebase outcome of the position, if it is a covered endgame.
+     */
+    private void reportEndgame() {
+        String verdict = game.getEndgameVerdict();
+        if (verdict != null) {
+            logMessage("Tablebase: " + verdict);
+        }
     }
 
     /**
@@ -80,31 +180,13 @@ public class ChessGUI extends JFrame {
         for (int row = 0; row < 8; row++) {
             for (int col = 0; col < 8; col++) {
                 Piece piece = board.getPiece(row, col);
-                buttons[row][col].setText(piece != null ? getPieceSymbol(piece) : "");
+                buttons[row][col].setText(piece != null ? String.valueOf(piece.getSymbol()) : "");
             }
         }
         repaint();
         revalidate();
     }
 
-    /**
-     * Returns the Unicode character representing a chess piece.
-     *
-     * @param piece The piece to convert to a symbol.
-     * @return A string with the appropriate Unicode character for the piece.
-     */
-    private String getPieceSymbol(Piece piece) {
-        switch (piece.getClass().getSimpleName()) {
-            case "Pawn": return piece.getColor().equals("white") ? "\u2659" : "\u265F";
-            case "Rook": return piece.getColor().equals("white") ? "\u2656" : "\u265C";
-            case "Knight": return piece.getColor().equals("white") ? "\u2658" : "\u265E";
-            case "Bishop": return piece.getColor().equals("white") ? "\u2657" : "\u265D";
-            case "Queen": return piece.getColor().equals("white") ? "\u2655" : "\u265B";
-            case "King": return piece.getColor().equals("white") ? "\u2654" : "\u265A";
-            default: return "";
-        }
-    }
-
     private class ButtonClickListener implements ActionListener {
         private int row, col;
 
@@ -116,6 +198,9 @@ public class ChessGUI extends JFrame {
 
         @Override
         public void actionPerformed(ActionEvent e) {
+            if (computerThinking) {
+                return;
+            }
             if (selectedRow == -1 && selectedCol == -1) {
                 Piece piece = board.getPiece(row, col);
                 if (piece != null) {
@@ -125,8 +210,8 @@ public class ChessGUI extends JFrame {
                 }
             } else {
                 String move = convertToChessNotation(selectedRow, selectedCol) + " " + convertToChessNotation(row, col);
-                if (moveValidator.processMove(move, game.isWhiteTurn)) {
-                    game.switchTurn();
+                boolean moved = !game.isComputerTurn() && game.processMove(move);
+                if (moved) {
                     updateStatusLabel();
                     logMessage("Move completed: " + move);
                 } else {
@@ -137,15 +222,32 @@ public class ChessGUI extends JFrame {
                 resetButtonColors();
                 updateBoard();
 
-                if (game.isCheckmate()) {
-                    logMessage("Checkmate! " + (game.isWhiteTurn() ? "Black" : "White") + " wins!");
-                } else if (game.isStalemate()) {
-                    logMessage("Draw by Stalemate!");
+                if (!reportGameEnd() && moved) {
+                    reportEndgame();
+                    SwingUtilities.invokeLater(ChessGUI.this::playComputerMoveIfNeeded);
                 }
             }
         }
     }
 
+    /**
+     * Asks for a file and saves the game played so far to it as PGN.
+     */
+    private void saveGame() {
+        JFileChooser chooser = new JFileChooser();
+        chooser.setSelectedFile(new File("game.pgn"));
+        if (chooser.showSaveDialog(this) != JFileChooser.APPROVE_OPTION) {
+            return;
+        }
+        File file = chooser.getSelectedFile();
+        try {
+            game.savePgn(file.toPath());
+            logMessage("Game saved to " + file);
+        } catch (IOException e) {
+            logMessage("Could not save the game: " + e.getMessage());
+        }
+    }
+
     /**
      * Updates the status label at the top of the GUI to reflect the current player's turn.
      */
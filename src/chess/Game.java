@@ -1,24 +1,51 @@
 package chess;
 
-import chess.pieces.*;
+import chess.engine.ComputerPlayer;
+import chess.engine.Evaluator;
+import chess.engine.MateSolver;
+import chess.engine.Search;
+import chess.engine.Tablebases;
+import chess.gameUtils.Move;
+import chess.gameUtils.MoveGenerator;
 import chess.gameUtils.MoveValidator;
-import java.util.Scanner;
-import static chess.MainMenu.clearConsole;
+import chess.gameUtils.PgnGame;
+import chess.gameUtils.PgnWriter;
+import java.io.IOException;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.text.SimpleDateFormat;
+import java.util.Date;
 
 /**
  * Represents a chess game session, managing game flow, player turns,
  * and validation of moves.
  *
  * This class handles the main game loop, including checkmate and stalemate
- * conditions, and allows evaluation of board state for advantage.
+ * conditions, and allows evaluation of board state for advantage. One side
+ * can optionally be played by a {@link ComputerPlayer}. The moves played
+ * are recorded so the game can be saved as PGN. With {@link Tablebases},
+ * the exact outcome of small endgames is shown as soon as one is reached.
+ *
+ * The player is reached through a {@link GamePort}, the terminal unless
+ * another port is given, so that a {@link GameHost} can run many games side
+ * by side.
  */
 public class Game {
 
+    private static final int HINT_MAX_MOVES = 5;
+    private static final long HINT_NODE_LIMIT = 2000000;
+
     private Board board;
     private MoveValidator moveValidator;
-    private Scanner scanner;
+    private final GamePort port;
+    private final int[] moveBuffer = new int[MoveGenerator.MAX_MOVES];
     public boolean isWhiteTurn;
     private boolean gameOver;
+    private ComputerPlayer computer;
+    private boolean computerPlaysWhite;
+    private PgnGame record;
+    private Tablebases tablebases;
+    private MateSolver mateSolver;
 
     /**
      * Constructs a Game instance with a specified board.
@@ -26,62 +53,303 @@ public class Game {
      * @param board The board to use in the game session.
      */
     public Game(Board board) {
+        this(board, GamePort.console());
+    }
+
+    /**
+     * Constructs a Game instance with a specified board, played through a
+     * given port.
+     *
+     * @param board The board to use in the game session.
+     * @param port The player's input and output.
+     */
+    public Game(Board board, GamePort port) {
         this.board = board;
-        this.moveValidator = new MoveValidator(board);
-        scanner = new Scanner(System.in);
-        isWhiteTurn = true;
+        this.port = port;
+        this.moveValidator = new MoveValidator(board, port);
+        isWhiteTurn = board.getPosition().sideToMove() == Position.WHITE;
         gameOver = false;
+        startRecord();
     }
 
     /**
      * Constructs a Game instance with a new board.
      */
     public Game() {
-        board = new Board();
-        moveValidator = new MoveValidator(board);
-        scanner = new Scanner(System.in);
-        isWhiteTurn = true;
-        gameOver = false;
+        this(new Board());
     }
 
     /**
-     * Starts the game loop, handling user input and executing turns until the game ends.
+     * Starts recording the game from the current board.
+     */
+    private void startRecord() {
+        record = new PgnGame(board.toFen());
+        record.setTag("Event", "Casual game");
+        record.setTag("Date", new SimpleDateFormat("yyyy.MM.dd").format(new Date()));
+        record.setTag("White", "Player");
+        record.setTag("Black", "Player");
+    }
+
+    /**
+     * Starts the game loop, handling user input and executing turns until
+     * the game ends or the player leaves.
      */
     public void start() {
         while (!gameOver) {
             String currentPlayer = isWhiteTurn ? "White" : "Black";
 
             if (isCheckmate()) {
-                System.out.println("Checkmate! " + currentPlayer + " wins!");
+                port.println("Checkmate! " + currentPlayer + " wins!");
                 gameOver = true;
                 break;
             }
 
             else if (isStalemate()) {
-                System.out.println("Stalemate!");
+                port.println("Stalemate!");
                 gameOver = true;
                 break;
             }
 
-            board.printBoard();
-            System.out.println("Material advantage: " + evaluate(board));
+            if (isComputerTurn()) {
+                port.println("\nComputer is thinking...");
+                int move = playComputerMove();
+                port.clearScreen();
+                port.println("Computer played: " + Move.toNotation(move));
+                continue;
+            }
 
-            System.out.println("\n" + currentPlayer + "'s turn.");
-            System.out.print("Enter your move (e.g., e2 e4): ");
-            String input = scanner.nextLine().trim().toLowerCase();
-            clearConsole();
+            board.printBoard(port);
+            port.println("Material advantage: " + evaluate(board));
+            String verdict = getEndgameVerdict();
+            if (verdict != null) {
+                port.println("Tablebase: " + verdict);
+            }
+
+            port.println("\n" + currentPlayer + "'s turn.");
+            port.print("Enter your move (e.g., e2 e4), 'hint', 'save <file>' or 'exit': ");
+            String line = port.readLine();
+            if (line == null) {
+                gameOver = true;
+                break;
+            }
+            line = line.trim();
+            String input = line.toLowerCase();
+            port.clearScreen();
 
             if (input.equals("exit")) {
                 gameOver = true;
                 break;
             }
 
-            if (!moveValidator.processMove(input, isWhiteTurn)) {
+            if (input.equals("hint")) {
+                port.println(getHint());
                 continue;
             }
 
-            isWhiteTurn = !isWhiteTurn;
+            if (input.startsWith("save ")) {
+                Path path = Paths.get(line.substring(5).trim());
+                try {
+                    savePgn(path);
+                    port.println("Game saved to " + path);
+                } catch (IOException e) {
+                    port.println("Could not save the game: " + e.getMessage());
+                }
+                continue;
+            }
+
+            processMove(input);
+        }
+    }
+
+    /**
+     * Validates a move entered by the player to move, then plays it like
+     * any other move with {@link #playMove(int)}, so that it is recorded,
+     * can be taken back and leaves its en passant square behind.
+     *
+     * @param input The move in the form "e2 e4".
+     * @return True if the move was played, false otherwise.
+     */
+    public boolean processMove(String input) {
+        if (!moveValidator.validateMove(input, isWhiteTurn)) {
+            return false;
+        }
+        playMove(findLegalMove(input));
+        moveValidator.reportCheck(isWhiteTurn ? Position.WHITE : Position.BLACK);
+        return true;
+    }
+
+    /**
+     * Looks up the legal move that a player's input stands for. A pawn
+     * reaching the last row is promoted to a queen.
+     *
+     * @param input The move in the form "e2 e4".
+     * @return The packed move, or {@link Move#NONE} if the input is not a legal move.
+     */
+    private int findLegalMove(String input) {
+        if (!MoveValidator.MOVE_INPUT.matcher(input).matches()) {
+            return Move.NONE;
+        }
+        int from = Position.square('8' - input.charAt(1), input.charAt(0) - 'a');
+        int to = Position.square('8' - input.charAt(4), input.charAt(3) - 'a');
+        Position position = board.getPosition();
+        int count = MoveGenerator.generateLegal(position, isWhiteTurn ? Position.WHITE : Position.BLACK, moveBuffer, 0);
+
+        int found = Move.NONE;
+        for (int i = 0; i < count; i++) {
+            int move = moveBuffer[i];
+            if (Move.from(move) == from && Move.to(move) == to
+                    && (found == Move.NONE || Move.promotion(move) == Position.QUEEN)) {
+                found = move;
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Returns the record of this game, with the result set if the game
+     * has ended in checkmate or stalemate.
+     *
+     * @return The moves and tags of the game.
+     */
+    public PgnGame getRecord() {
+        if (isCheckmate()) {
+            record.setResult(isWhiteTurn ? PgnGame.BLACK_WINS : PgnGame.WHITE_WINS);
+        } else if (isStalemate()) {
+            record.setResult(PgnGame.DRAW);
+        } else {
+            record.setResult(PgnGame.UNFINISHED);
         }
+        return record;
+    }
+
+    /**
+     * Saves this game to a PGN file, replacing its contents.
+     *
+     * @param path The file to write.
+     * @throws IOException If the file cannot be written.
+     */
+    public void savePgn(Path path) throws IOException {
+        try (PgnWriter writer = new PgnWriter(path, false)) {
+            writer.write(getRecord());
+        }
+    }
+
+    /**
+     * Lets the computer play one side of this game.
+     *
+     * @param computer The computer player.
+     * @param playsWhite True if the computer plays white, false for black.
+     */
+    public void setComputerOpponent(ComputerPlayer computer, boolean playsWhite) {
+        this.computer = computer;
+        this.computerPlaysWhite = playsWhite;
+        record.setTag(playsWhite ? "White" : "Black", "Computer");
+    }
+
+    /**
+     * Looks for a forced mate by the side to move with the {@link MateSolver}.
+     *
+     * @return The mate and its line, e.g. "Mate in 2: 1. Qxh6+ Rxh6 2. Rg8#",
+     *         or a message saying that no short mate was found.
+     */
+    public String getHint() {
+        if (mateSolver == null) {
+            mateSolver = new MateSolver(16);
+            mateSolver.setNodeLimit(HINT_NODE_LIMIT);
+        }
+        Position position = new Position(board.getPosition());
+        position.setSideToMove(isWhiteTurn ? Position.WHITE : Position.BLACK);
+        int moves = mateSolver.solve(position, HINT_MAX_MOVES);
+        if (moves > 0) {
+            return "Mate in " + moves + ": " + MateSolver.formatLine(position, mateSolver.getMateLine());
+        }
+        return moves == MateSolver.NO_MATE
+                ? "No forced mate in " + HINT_MAX_MOVES + " moves."
+                : "No forced mate found quickly.";
+    }
+
+    /**
+     * Lets the game report the exact outcome of the endgames the tablebases cover.
+     *
+     * @param tablebases The tablebases, or null for none.
+     */
+    public void setTablebases(Tablebases tablebases) {
+        this.tablebases = tablebases;
+    }
+
+    /**
+     * Describes the outcome of the current position with best play from
+     * both sides, when the tablebases cover it.
+     *
+     * @return E.g. "White mates in 7" or "Draw with best play", or null if
+     *         the position is not covered or the game is already over.
+     */
+    public String getEndgameVerdict() {
+        if (tablebases == null) {
+            return null;
+        }
+        Position position = new Position(board.getPosition());
+        position.setSideToMove(isWhiteTurn ? Position.WHITE : Position.BLACK);
+        int score = tablebases.probe(position);
+        if (score == Tablebases.UNKNOWN || score == -Search.MATE) {
+            return null;
+        }
+        if (score == 0) {
+            return "Draw with best play";
+        }
+        boolean whiteWins = (score > 0) == isWhiteTurn;
+        int moves = (Search.MATE - Math.abs(score) + 1) / 2;
+        return (whiteWins ? "White" : "Black") + " mates in " + moves;
+    }
+
+    /**
+     * Indicates whether the side to move is played by the computer.
+     *
+     * @return True if the computer should make the next move.
+     */
+    public boolean isComputerTurn() {
+        return computer != null && isWhiteTurn == computerPlaysWhite;
+    }
+
+    /**
+     * Lets the computer choose a move for the side to move without playing
+     * it. The board is only read, so it can be shown while the computer
+     * thinks on another thread.
+     *
+     * @return The chosen move, or 0 if the computer has no legal move.
+     */
+    public int chooseComputerMove() {
+        return computer.chooseMove(board, isWhiteTurn);
+    }
+
+    /**
+     * Lets the computer choose and play a move for the side to move,
+     * then passes the turn.
+     *
+     * @return The move played, or 0 if the computer had no legal move.
+     */
+    public int playComputerMove() {
+        int move = chooseComputerMove();
+        if (move != Move.NONE) {
+            playMove(move);
+        }
+        return move;
+    }
+
+    /**
+     * Plays a move for the side to move, records it and passes the turn.
+     * Very long games drop the board's undo stack, so that it never fills up
+     * and the computer's search always has room on it.
+     *
+     * @param move A legal packed move of the side to move.
+     */
+    public void playMove(int move) {
+        if (board.getPosition().historySize() >= Position.MAX_HISTORY - 2 * Search.MAX_PLY) {
+            board.setFen(board.toFen());
+        }
+        board.makeMove(move);
+        record.addMove(move);
+        switchTurn();
     }
 
     /**
@@ -99,7 +367,7 @@ public class Game {
      * @return True if stalemate conditions are met, false otherwise.
      */
     public boolean isStalemate() {
-        String currentColor = isWhiteTurn ? "white" : "black";
+        int currentColor = isWhiteTurn ? Position.WHITE : Position.BLACK;
 
         if (!moveValidator.isKingInCheck(currentColor) && !moveValidator.canEscapeCheck(currentColor)) {
             return true;
@@ -113,7 +381,7 @@ public class Game {
      * @return True if checkmate conditions are met, false otherwise.
      */
     public boolean isCheckmate() {
-        String currentColor = isWhiteTurn ? "white" : "black";
+        int currentColor = isWhiteTurn ? Position.WHITE : Position.BLACK;
         if (!moveValidator.isKingInCheck(currentColor)) {
             return false;
         }
@@ -124,43 +392,19 @@ public class Game {
         return true;
     }
 
-    private int getPieceValue(Piece piece) {
-        switch (piece.getClass().getSimpleName()) {
-            case "Pawn": return 100;
-            case "Knight": return 320;
-            case "Bishop": return 330;
-            case "Rook": return 500;
-            case "Queen": return 900;
-            case "King": return 20000;
-            default: return 0;
-        }
-    }
-
     /**
      * Evaluates the current board and returns a score indicating material advantage.
      * Positive scores favor white; negative scores favor black.
      *
-     * This method is currently used to display material advantage to the player,
-     * but will later be used as part of the decision-making logic for a computer opponent.
-     * Currently, the game only supports human vs. human play.
+     * This method is used to display material advantage to the player. It
+     * reads the material totals the board's position keeps up to date, which
+     * the {@link Evaluator} used by the computer opponent also builds on.
      *
      * @param board The current board state to evaluate.
      * @return Integer score of the board position.
      */
     public int evaluate(Board board) {
-        int score = 0;
-
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                Piece piece = board.getPiece(row, col);
-                if (piece != null) {
-                    int pieceValue = getPieceValue(piece);
-                    score += piece.getColor().equals("white") ? pieceValue : -pieceValue;
-                }
-            }
-        }
-
-        return score;
+        return Evaluator.materialBalance(board.getPosition());
     }
 
     /**
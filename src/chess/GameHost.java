@@ -0,0 +1,310 @@
+package chess;
+
+import chess.engine.Tablebases;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.OutputStream;
+import java.io.PrintStream;
+import java.net.ServerSocket;
+import java.net.Socket;
+import java.nio.charset.StandardCharsets;
+import java.util.Locale;
+import java.util.concurrent.CountDownLatch;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+import java.util.concurrent.atomic.AtomicLongArray;
+
+/**
+ * Entry point that hosts many independent games in one program, for
+ * example for players connecting over the network.
+ *
+ * Every session is a {@link Game} of its own, with its own board and
+ * {@link GamePort}, running the same loop as a game in the terminal on a
+ * thread of its own. On Java 21 and later the sessions run on virtual
+ * threads, which cost a few hundred bytes while they wait for a player's
+ * move, so thousands of games can be open at once; Java 17 to 20 fall back
+ * to platform threads with small stacks. Everything read-only (attack
+ * tables, hashing keys, evaluation tables and the endgame tablebases) is
+ * static or shared, so a session only holds its own board and game record.
+ *
+ * The host either accepts players on a TCP port, each connection playing
+ * one game, or simulates a number of scripted players to measure the heap
+ * used per session and the time taken to answer each move.
+ *
+ * Usage: {@code java chess.GameHost <port>} or
+ * {@code java chess.GameHost --simulate <sessions>}
+ */
+public class GameHost implements AutoCloseable {
+
+    /**
+     * Stack size of platform session threads, when virtual threads are not available.
+     */
+    private static final long PLATFORM_STACK_SIZE = 256 * 1024;
+
+    /**
+     * A short game typed by every simulated player, with two rejected moves.
+     */
+    private static final String[] SCRIPT = {
+            "e2 e4", "e7 e5", "g1 f3", "b8 c6", "f1 c4", "f8 c5", "d2 d3", "g8 f6",
+            "c2 c3", "d7 d6", "e2 e5", "b1 d2", "a7 a6", "a2 a4", "c8 e6", "c4 e6",
+            "f7 e6", "e1 e2", "d1 b3", "d8 c8",
+    };
+
+    private static final int LATENCY_BUCKETS = 100000;
+
+    private final ExecutorService sessions;
+    private final boolean virtualThreads;
+    private final Tablebases tablebases;
+    private final AtomicInteger active = new AtomicInteger();
+    private final AtomicInteger started = new AtomicInteger();
+
+    /**
+     * Constructs a host with no sessions.
+     *
+     * @param tablebases Tablebases shared by all sessions, or null for none.
+     */
+    public GameHost(Tablebases tablebases) {
+        this.tablebases = tablebases;
+        ExecutorService virtual = newVirtualThreadExecutor();
+        this.virtualThreads = virtual != null;
+        this.sessions = virtual != null ? virtual : Executors.newCachedThreadPool(runnable -> {
+            Thread thread = new Thread(null, runnable, "game-session", PLATFORM_STACK_SIZE);
+            thread.setDaemon(true);
+            return thread;
+        });
+    }
+
+    /**
+     * Creates an executor starting a virtual thread per task, when the Java
+     * version has them. It is looked up by reflection so that the host also
+     * compiles and runs on Java 17, the oldest version the game supports.
+     */
+    private static ExecutorService newVirtualThreadExecutor() {
+        try {
+            return (ExecutorService) Executors.class.getMethod("newVirtualThreadPerTaskExecutor").invoke(null);
+        } catch (ReflectiveOperationException | RuntimeException e) {
+            return null;
+        }
+    }
+
+    /**
+     * Starts a game session that runs until the game ends or the player leaves.
+     *
+     * @param board The board to play on.
+     * @param port The player's input and output.
+     * @return The running session.
+     */
+    public Future<?> startSession(Board board, GamePort port) {
+        return startSession(board, port, null);
+    }
+
+    private Future<?> startSession(Board board, GamePort port, AutoCloseable connection) {
+        active.incrementAndGet();
+        started.incrementAndGet();
+        return sessions.submit(() -> {
+            try {
+                Game game = new Game(board, port);
+                game.setTablebases(tablebases);
+                game.start();
+            } finally {
+                active.decrementAndGet();
+                if (connection != null) {
+                    try {
+                        connection.close();
+                    } catch (Exception e) {
+                        // The player is gone either way
+                    }
+                }
+            }
+        });
+    }
+
+    /**
+     * Accepts players on a server socket, starting a new game for each
+     * connection, until the socket is closed.
+     *
+     * @param server The listening socket.
+     * @throws IOException If accepting a connection fails.
+     */
+    public void serve(ServerSocket server) throws IOException {
+        while (!server.isClosed()) {
+            Socket socket = server.accept();
+            GamePort port = GamePort.of(
+                    new BufferedReader(new InputStreamReader(socket.getInputStream(), StandardCharsets.UTF_8)),
+                    new PrintStream(socket.getOutputStream(), false, StandardCharsets.UTF_8));
+            startSession(new Board(), port, socket);
+        }
+    }
+
+    /**
+     * Returns the number of sessions still running.
+     *
+     * @return Running sessions.
+     */
+    public int getActiveSessions() {
+        return active.get();
+    }
+
+    /**
+     * Returns the number of sessions started since the host was created.
+     *
+     * @return Started sessions.
+     */
+    public int getStartedSessions() {
+        return started.get();
+    }
+
+    /**
+     * Indicates whether the sessions run on virtual threads.
+     *
+     * @return True for virtual threads, false for platform threads.
+     */
+    public boolean usesVirtualThreads() {
+        return virtualThreads;
+    }
+
+    /**
+     * Stops accepting sessions and interrupts the running ones.
+     */
+    @Override
+    public void close() {
+        sessions.shutdownNow();
+    }
+
+    /**
+     * Runs simulated players that all play the same short game at once. Every
+     * player types the moves of {@link #SCRIPT}, then waits until all players
+     * are in the middle of their game, when the heap is measured, before
+     * leaving.
+     *
+     * @param count Number of sessions.
+     * @throws InterruptedException If interrupted while waiting for the sessions.
+     */
+    private void simulate(int count) throws InterruptedException {
+        AtomicLongArray latencies = new AtomicLongArray(LATENCY_BUCKETS);
+        CountDownLatch waiting = new CountDownLatch(count);
+        CountDownLatch release = new CountDownLatch(1);
+        long heapBefore = usedHeap();
+
+        long start = System.nanoTime();
+        for (int i = 0; i < count; i++) {
+            startSession(new Board(), new ScriptedPort(latencies, waiting, release));
+        }
+        waiting.await();
+        long elapsed = System.nanoTime() - start;
+        long heapDuring = usedHeap();
+        release.countDown();
+        while (active.get() > 0) {
+            Thread.sleep(10);
+        }
+
+        long moves = 0;
+        for (int i = 0; i < LATENCY_BUCKETS; i++) {
+            moves += latencies.get(i);
+        }
+        System.out.println("Threads: " + (virtualThreads ? "virtual" : "platform"));
+        System.out.println("Sessions: " + count);
+        System.out.println("Moves: " + moves + " in " + elapsed / 1000000 + " ms");
+        System.out.println("Heap per session: " + (heapDuring - heapBefore) / count + " bytes");
+        System.out.println(String.format(Locale.ROOT, "Move latency: p50 %d us, p99 %d us, p99.9 %d us",
+                percentile(latencies, moves, 0.5), percentile(latencies, moves, 0.99), percentile(latencies, moves, 0.999)));
+    }
+
+    private static long usedHeap() {
+        Runtime runtime = Runtime.getRuntime();
+        for (int i = 0; i < 3; i++) {
+            System.gc();
+        }
+        return runtime.totalMemory() - runtime.freeMemory();
+    }
+
+    /**
+     * Returns the latency in microseconds below which a share of the moves
+     * were answered.
+     */
+    private static long percentile(AtomicLongArray latencies, long total, double share) {
+        long target = (long) Math.ceil(total * share);
+        long seen = 0;
+        for (int i = 0; i < LATENCY_BUCKETS; i++) {
+            seen += latencies.get(i);
+            if (seen >= target) {
+                return i;
+            }
+        }
+        return LATENCY_BUCKETS;
+    }
+
+    /**
+     * A simulated player typing the moves of {@link #SCRIPT}. The time from
+     * each move being typed to the game asking for the next one is counted
+     * in microsecond buckets; output is discarded.
+     */
+    private static final class ScriptedPort implements GamePort {
+        private final AtomicLongArray latencies;
+        private final CountDownLatch waiting;
+        private final CountDownLatch release;
+        private int next;
+        private long typedAt;
+
+        ScriptedPort(AtomicLongArray latencies, CountDownLatch waiting, CountDownLatch release) {
+            this.latencies = latencies;
+            this.waiting = waiting;
+            this.release = release;
+        }
+
+        @Override
+        public String readLine() {
+            if (next > 0) {
+                long micros = (System.nanoTime() - typedAt) / 1000;
+                latencies.incrementAndGet((int) Math.min(micros, LATENCY_BUCKETS - 1));
+            }
+            if (next == SCRIPT.length) {
+                waiting.countDown();
+                try {
+                    release.await();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                }
+                return null;
+            }
+            typedAt = System.nanoTime();
+            return SCRIPT[next++];
+        }
+
+        @Override
+        public void print(String text) {
+        }
+
+        @Override
+        public void clearScreen() {
+        }
+    }
+
+    /**
+     * Starts the host from the command line.
+     *
+     * @param args The TCP port, or {@code --simulate} and a number of sessions.
+     * @throws Exception If the socket cannot be opened or the simulation is interrupted.
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length < 1) {
+            System.out.println("Usage: java chess.GameHost <port> | --simulate <sessions>");
+            return;
+        }
+        try (GameHost host = new GameHost(Tablebases.fromSystemProperties())) {
+            if (args[0].equals("--simulate")) {
+                host.simulate(Integer.parseInt(args[1]));
+                return;
+            }
+            try (ServerSocket server = new ServerSocket(Integer.parseInt(args[0]))) {
+                System.out.println("Hosting games on port " + server.getLocalPort()
+                        + " (" + (host.usesVirtualThreads() ? "virtual" : "platform") + " threads)");
+                host.serve(server);
+            }
+        }
+    }
+}
@@ -0,0 +1,111 @@
+package chess;
+
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.Charset;
+
+/**
+ * Connects a game session to its player: the lines the player types and
+ * the text shown back to them.
+ *
+ * The terminal is one port, shared by every game played in the console;
+ * {@link GameHost} gives each of its sessions a port of its own, so that
+ * many games can run in one program without sharing any input or output.
+ */
+public interface GamePort {
+
+    /**
+     * Waits for the next line typed by the player.
+     *
+     * @return The line without its line terminator, or null if the player
+     *         has left and no more input will come.
+     */
+    String readLine();
+
+    /**
+     * Shows text to the player as it is, without adding a new line.
+     *
+     * @param text The text to show.
+     */
+    void print(String text);
+
+    /**
+     * Shows a line of text to the player.
+     *
+     * @param text The text to show.
+     */
+    default void println(String text) {
+        print(text + "\n");
+    }
+
+    /**
+     * Clears the player's screen. The default prints several new lines,
+     * a simple workaround to simulate a clear screen in a terminal.
+     */
+    default void clearScreen() {
+        print("\n".repeat(50));
+    }
+
+    /**
+     * Returns the port of the terminal the program was started from.
+     *
+     * @return The console port.
+     */
+    static GamePort console() {
+        return ConsolePort.INSTANCE;
+    }
+
+    /**
+     * Creates a port over a pair of streams, e.g. those of a network connection.
+     *
+     * @param in Where the player's lines are read from.
+     * @param out Where the text for the player is written to.
+     * @return The port.
+     */
+    static GamePort of(BufferedReader in, PrintStream out) {
+        return new StreamPort(in, out);
+    }
+
+    /**
+     * A port reading lines from a reader and writing to a print stream. A
+     * read error counts as the player leaving.
+     */
+    class StreamPort implements GamePort {
+        private final BufferedReader in;
+        private final PrintStream out;
+
+        StreamPort(BufferedReader in, PrintStream out) {
+            this.in = in;
+            this.out = out;
+        }
+
+        @Override
+        public String readLine() {
+            out.flush();
+            try {
+                return in.readLine();
+            } catch (IOException e) {
+                return null;
+            }
+        }
+
+        @Override
+        public void print(String text) {
+            out.print(text);
+        }
+    }
+
+    /**
+     * Holds the console port, created the first time it is used so that
+     * standard input is only wrapped once.
+     */
+    final class ConsolePort {
+        static final GamePort INSTANCE = new StreamPort(
+                new BufferedReader(new InputStreamReader(System.in, Charset.defaultCharset())), System.out);
+
+        private ConsolePort() {
+        }
+    }
+}
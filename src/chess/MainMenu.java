@@ -1,24 +1,30 @@
 package chess;
+import chess.engine.ComputerPlayer;
+import chess.engine.OpeningBook;
+import chess.engine.Tablebases;
 import java.util.Scanner;
 
 /**
  * Main menu interface for the Chess game application.
  *
  * This class handles user interaction through a text-based menu,
- * allowing the player to start a new game, access challenges,
- * or exit the application.
+ * allowing the player to start a new game, play against the computer,
+ * access challenges, or exit the application.
  */
 
 public class MainMenu {
     private Scanner scanner;
     private ChallengeManager challengeManager;
+    private Tablebases tablebases;
 
     /**
-     * Constructs the MainMenu and initializes the scanner and challenge manager.
+     * Constructs the MainMenu and initializes the scanner and challenge manager,
+     * and opens the endgame tablebases if they are configured.
      */
     public MainMenu() {
         scanner = new Scanner(System.in);
         challengeManager = new ChallengeManager();
+        tablebases = Tablebases.fromSystemProperties();
     }
 
     /**
@@ -43,8 +49,9 @@ public class MainMenu {
                 System.out.println("            MAIN MENU ");
                 System.out.println("======================================");
                 System.out.println(" 1️⃣  Start New Game");
-                System.out.println(" 2️⃣  Challenges");
-                System.out.println(" 3️⃣  Exit");
+                System.out.println(" 2️⃣  Play vs Computer");
+                System.out.println(" 3️⃣  Challenges");
+                System.out.println(" 4️⃣  Exit");
                 System.out.println("======================================");
                 System.out.print(" ▶ Select an option: ");
             }
@@ -58,6 +65,11 @@ public class MainMenu {
                     showMenu = true;
                     break;
                 case "2":
+                    clearConsole();
+                    startComputerGame(new Board());
+                    showMenu = true;
+                    break;
+                case "3":
                     clearConsole();
                     Board challengeBoard = challengeManager.challengeMenu();
                     if (challengeBoard == null) {
@@ -66,8 +78,6 @@ public class MainMenu {
                     startGame(challengeBoard);
                     showMenu = true;
                     break;
-                case "3":
-                    break;
                 case "4":
                     System.out.println("See you next time!");
                     return;
@@ -84,6 +94,26 @@ public class MainMenu {
      */
     private void startGame(Board board) {
         Game game = new Game(board);
+        game.setTablebases(tablebases);
+        game.start();
+    }
+
+    /**
+     * Asks the player for a color and starts a game against the computer.
+     *
+     * @param board The game board to use for the session.
+     */
+    private void startComputerGame(Board board) {
+        System.out.print(" ▶ Play as (w)hite or (b)lack? ");
+        boolean playerIsWhite = !scanner.nextLine().trim().toLowerCase().startsWith("b");
+        clearConsole();
+
+        Game game = new Game(board);
+        game.setTablebases(tablebases);
+        ComputerPlayer computer = new ComputerPlayer();
+        computer.setOpeningBook(OpeningBook.fromSystemProperties());
+        computer.setTablebases(tablebases);
+        game.setComputerOpponent(computer, !playerIsWhite);
         game.start();
     }
 
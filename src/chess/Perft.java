@@ -0,0 +1,245 @@
+package chess;
+
+import chess.gameUtils.Fen;
+import chess.gameUtils.Move;
+import chess.gameUtils.MoveGenerator;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Entry point for the perft tool, which counts the leaf nodes of the legal
+ * move tree to a given depth.
+ *
+ * Comparing the counts with published values verifies the move generator,
+ * castling, en passant, promotion and make/unmake rules, and the nodes per
+ * second measure raw generator throughput. Root moves are searched as
+ * separate tasks on a fork-join pool, each on its own copy of the position;
+ * subtree counts can optionally be cached by Zobrist key.
+ *
+ * Usage: {@code java chess.Perft <depth> [fen] [--divide] [--hash <MB>] [--threads <n>]}
+ */
+public class Perft {
+
+    private final Cache cache;
+    private final ForkJoinPool pool;
+
+    /**
+     * Constructs a perft counter.
+     *
+     * @param hashMegabytes Size of the subtree count cache in MB, or 0 for no cache.
+     * @param threads Number of worker threads for the root moves.
+     */
+    public Perft(int hashMegabytes, int threads) {
+        this.cache = hashMegabytes > 0 ? new Cache(hashMegabytes) : null;
+        this.pool = new ForkJoinPool(threads);
+    }
+
+    /**
+     * Counts the leaf nodes below each root move.
+     *
+     * @param position The root position; it is not modified.
+     * @param depth Depth in plies, at least 1.
+     * @param moves Receives the root moves.
+     * @param counts Receives the leaf count below each root move.
+     * @return The number of root moves.
+     */
+    public int divide(Position position, int depth, int[] moves, long[] counts) {
+        int count = MoveGenerator.generateLegal(position, position.sideToMove(), moves, 0);
+        SubtreeTask[] tasks = new SubtreeTask[count];
+        for (int i = 0; i < count; i++) {
+            tasks[i] = new SubtreeTask(position, moves[i], depth - 1);
+        }
+        pool.invoke(new RecursiveTask<Void>() {
+            @Override
+            protected Void compute() {
+                invokeAll(tasks);
+                return null;
+            }
+        });
+        for (int i = 0; i < count; i++) {
+            counts[i] = tasks[i].join();
+        }
+        return count;
+    }
+
+    /**
+     * Counts the leaf nodes of the legal move tree.
+     *
+     * @param position The root position; it is not modified.
+     * @param depth Depth in plies.
+     * @return The number of leaf nodes.
+     */
+    public long count(Position position, int depth) {
+        if (depth == 0) {
+            return 1;
+        }
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        long[] counts = new long[MoveGenerator.MAX_MOVES];
+        int count = divide(position, depth, moves, counts);
+        long total = 0;
+        for (int i = 0; i < count; i++) {
+            total += counts[i];
+        }
+        return total;
+    }
+
+    /**
+     * Releases the worker threads.
+     */
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    private long perft(Position position, int depth, int[][] buffers) {
+        int[] moves = buffers[depth];
+        int count = MoveGenerator.generateLegal(position, position.sideToMove(), moves, 0);
+        if (depth == 1) {
+            return count;
+        }
+
+        long key = position.hashKey();
+        if (cache != null) {
+            long cached = cache.probe(key, depth);
+            if (cached >= 0) {
+                return cached;
+            }
+        }
+
+        long nodes = 0;
+        for (int i = 0; i < count; i++) {
+            position.makeMove(moves[i]);
+            nodes += perft(position, depth - 1, buffers);
+            position.unmakeMove();
+        }
+
+        if (cache != null) {
+            cache.store(key, depth, nodes);
+        }
+        return nodes;
+    }
+
+    /**
+     * Counts the subtree below one root move on a private copy of the position.
+     */
+    private class SubtreeTask extends RecursiveTask<Long> {
+        private static final long serialVersionUID = 1L;
+
+        private final Position position;
+        private final int move;
+        private final int depth;
+
+        SubtreeTask(Position root, int move, int depth) {
+            this.position = new Position(root);
+            this.move = move;
+            this.depth = depth;
+        }
+
+        @Override
+        protected Long compute() {
+            if (depth == 0) {
+                return 1L;
+            }
+            position.makeMove(move);
+            return perft(position, depth, new int[depth + 1][MoveGenerator.MAX_MOVES]);
+        }
+    }
+
+    /**
+     * Lock-free table of subtree counts. As in the transposition table, the
+     * key word holds the key XORed with the count, so entries torn by
+     * concurrent writers fail the check and count as misses.
+     */
+    private static final class Cache {
+        private static final long[] DEPTH_KEYS = new long[64];
+
+        static {
+            long seed = 0x2545F4914F6CDD1DL;
+            for (int i = 0; i < DEPTH_KEYS.length; i++) {
+                seed ^= seed << 13;
+                seed ^= seed >>> 7;
+                seed ^= seed << 17;
+                DEPTH_KEYS[i] = seed;
+            }
+        }
+
+        private final long[] keys;
+        private final long[] counts;
+        private final int mask;
+
+        Cache(int megabytes) {
+            int entries = Integer.highestOneBit((int) Math.min((long) megabytes * 1024 * 1024 / 16, 1 << 28));
+            keys = new long[entries];
+            counts = new long[entries];
+            mask = entries - 1;
+        }
+
+        long probe(long key, int depth) {
+            key ^= DEPTH_KEYS[depth];
+            int slot = (int) key & mask;
+            long count = counts[slot];
+            return (keys[slot] ^ count) == key ? count : -1;
+        }
+
+        void store(long key, int depth, long count) {
+            key ^= DEPTH_KEYS[depth];
+            int slot = (int) key & mask;
+            counts[slot] = count;
+            keys[slot] = key ^ count;
+        }
+    }
+
+    /**
+     * Runs perft from the command line and prints the counts and speed.
+     *
+     * @param args Depth, then an optional FEN and options.
+     */
+    public static void main(String[] args) {
+        if (args.length == 0) {
+            System.out.println("Usage: java chess.Perft <depth> [fen] [--divide] [--hash <MB>] [--threads <n>]");
+            return;
+        }
+
+        int depth = Integer.parseInt(args[0]);
+        StringBuilder fen = new StringBuilder();
+        boolean divide = false;
+        int hash = 0;
+        int threads = Runtime.getRuntime().availableProcessors();
+        for (int i = 1; i < args.length; i++) {
+            switch (args[i]) {
+                case "--divide": divide = true; break;
+                case "--hash": hash = Integer.parseInt(args[++i]); break;
+                case "--threads": threads = Integer.parseInt(args[++i]); break;
+                default: fen.append(fen.length() > 0 ? " " : "").append(args[i]);
+            }
+        }
+
+        Position position = new Position();
+        Fen.parse(fen.length() > 0 ? fen : Fen.START, position);
+        Perft perft = new Perft(hash, threads);
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        long[] counts = new long[MoveGenerator.MAX_MOVES];
+
+        long start = System.nanoTime();
+        long total = 0;
+        if (depth == 0) {
+            total = 1;
+        } else {
+            int count = perft.divide(position, depth, moves, counts);
+            for (int i = 0; i < count; i++) {
+                total += counts[i];
+                if (divide) {
+                    System.out.println(Move.toNotation(moves[i]) + ": " + counts[i]);
+                }
+            }
+            if (divide) {
+                System.out.println("\nMoves: " + count);
+            }
+        }
+        long elapsed = Math.max(1, System.nanoTime() - start);
+        perft.shutdown();
+
+        System.out.println("Nodes: " + total);
+        System.out.println("Time: " + elapsed / 1000000 + " ms");
+        System.out.println("Nodes/second: " + total * 1000000000L / elapsed);
+    }
+}
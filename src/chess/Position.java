@@ -0,0 +1,694 @@
+package chess;
+
+import chess.gameUtils.AttackTables;
+import chess.gameUtils.Move;
+import chess.gameUtils.PieceSquareTables;
+import chess.gameUtils.SlidingAttacks;
+import chess.gameUtils.Zobrist;
+import java.util.Arrays;
+
+/**
+ * Bitboard representation of a chess position.
+ *
+ * Every piece type and color is stored as a 64-bit mask where bit
+ * {@code line * 8 + column} stands for the square at that row and column of
+ * the {@link Board} (so bit 0 is a8 and bit 63 is h1). Occupancy masks per
+ * color and for the whole board are kept in sync with the piece masks, which
+ * turns occupancy and opponent queries into single mask operations.
+ *
+ * King squares and a list of occupied squares per color are updated
+ * incrementally as pieces are placed and removed, so callers can visit only
+ * the pieces that exist instead of scanning the whole board.
+ *
+ * Besides the pieces, a position knows the side to move, castling rights,
+ * the en passant square and the move counters. Moves packed as integers can
+ * be played and taken back with {@link #makeMove(int)} and
+ * {@link #unmakeMove()}, which save the irreversible state on a primitive
+ * stack. The stack starts small and doubles when a game outgrows it, so
+ * walking a search tree allocates nothing once it has reached its depth.
+ *
+ * A 64-bit Zobrist key of the position (see {@link Zobrist}) is kept up to
+ * date by every change, so positions can be identified without rehashing
+ * the board. In the same way, each color's material and piece-square score
+ * (see {@link PieceSquareTables}) are kept as running sums, so reading the
+ * evaluation of a position costs nothing.
+ */
+public class Position {
+
+    public static final int WHITE = 0;
+    public static final int BLACK = 1;
+
+    public static final int PAWN = 0;
+    public static final int KNIGHT = 1;
+    public static final int BISHOP = 2;
+    public static final int ROOK = 3;
+    public static final int QUEEN = 4;
+    public static final int KING = 5;
+
+    public static final int EMPTY = -1;
+
+    public static final int WHITE_KINGSIDE = 1;
+    public static final int WHITE_QUEENSIDE = 2;
+    public static final int BLACK_KINGSIDE = 4;
+    public static final int BLACK_QUEENSIDE = 8;
+    public static final int ALL_CASTLING = 15;
+
+    /**
+     * Maximum number of moves that can be played on a position before they
+     * have to be taken back again.
+     */
+    public static final int MAX_HISTORY = 2048;
+
+    /**
+     * Initial size of the undo stack, which grows as more moves are played
+     * so that positions of short games stay small.
+     */
+    private static final int INITIAL_HISTORY = 128;
+
+    private static final int[] CASTLING_MASKS = new int[64];
+
+    static {
+        Arrays.fill(CASTLING_MASKS, ALL_CASTLING);
+        CASTLING_MASKS[square(7, 4)] &= ~(WHITE_KINGSIDE | WHITE_QUEENSIDE);
+        CASTLING_MASKS[square(7, 7)] &= ~WHITE_KINGSIDE;
+        CASTLING_MASKS[square(7, 0)] &= ~WHITE_QUEENSIDE;
+        CASTLING_MASKS[square(0, 4)] &= ~(BLACK_KINGSIDE | BLACK_QUEENSIDE);
+        CASTLING_MASKS[square(0, 7)] &= ~BLACK_KINGSIDE;
+        CASTLING_MASKS[square(0, 0)] &= ~BLACK_QUEENSIDE;
+    }
+
+    private final long[] pieces = new long[12];
+    private final long[] colors = new long[2];
+    private long occupied;
+    private final byte[] squares = new byte[64];
+
+    private final int[] kingSquares = new int[2];
+    private final int[][] pieceLists = new int[2][64];
+    private final int[] pieceCounts = new int[2];
+    private final int[] listIndex = new int[64];
+
+    private final int[] material = new int[2];
+    private final int[] placement = new int[2];
+
+    private int sideToMove;
+    private int castlingRights;
+    private int enPassantSquare;
+    private int halfmoveClock;
+    private int fullmoveNumber;
+    private long hash;
+
+    private int[] moveHistory = new int[INITIAL_HISTORY];
+    private int[] stateHistory = new int[INITIAL_HISTORY];
+    private long[] hashHistory = new long[INITIAL_HISTORY];
+    private int historySize;
+
+    /**
+     * Constructs an empty position.
+     */
+    public Position() {
+        clear();
+    }
+
+    /**
+     * Constructs an independent copy of another position, including its
+     * undo stack, so that it can be searched without touching the original.
+     *
+     * @param other The position to copy.
+     */
+    public Position(Position other) {
+        copyFrom(other);
+    }
+
+    /**
+     * Replaces the contents of this position with those of another,
+     * including its undo stack.
+     *
+     * @param other The position to copy.
+     */
+    public void copyFrom(Position other) {
+        System.arraycopy(other.pieces, 0, pieces, 0, pieces.length);
+        System.arraycopy(other.colors, 0, colors, 0, colors.length);
+        occupied = other.occupied;
+        System.arraycopy(other.squares, 0, squares, 0, squares.length);
+
+        System.arraycopy(other.kingSquares, 0, kingSquares, 0, kingSquares.length);
+        for (int color = WHITE; color <= BLACK; color++) {
+            System.arraycopy(other.pieceLists[color], 0, pieceLists[color], 0, pieceLists[color].length);
+        }
+        System.arraycopy(other.pieceCounts, 0, pieceCounts, 0, pieceCounts.length);
+        System.arraycopy(other.listIndex, 0, listIndex, 0, listIndex.length);
+
+        System.arraycopy(other.material, 0, material, 0, material.length);
+        System.arraycopy(other.placement, 0, placement, 0, placement.length);
+
+        sideToMove = other.sideToMove;
+        castlingRights = other.castlingRights;
+        enPassantSquare = other.enPassantSquare;
+        halfmoveClock = other.halfmoveClock;
+        fullmoveNumber = other.fullmoveNumber;
+        hash = other.hash;
+
+        historySize = other.historySize;
+        if (historySize > moveHistory.length) {
+            growHistory(other.moveHistory.length);
+        }
+        System.arraycopy(other.moveHistory, 0, moveHistory, 0, historySize);
+        System.arraycopy(other.stateHistory, 0, stateHistory, 0, historySize);
+        System.arraycopy(other.hashHistory, 0, hashHistory, 0, historySize);
+    }
+
+    /**
+     * Creates a position holding the standard starting setup, with white to
+     * move and all castling rights.
+     *
+     * @return The starting position.
+     */
+    public static Position startPosition() {
+        Position position = new Position();
+        int[] backRank = {ROOK, KNIGHT, BISHOP, QUEEN, KING, BISHOP, KNIGHT, ROOK};
+        for (int column = 0; column < 8; column++) {
+            position.put(square(0, column), BLACK, backRank[column]);
+            position.put(square(1, column), BLACK, PAWN);
+            position.put(square(6, column), WHITE, PAWN);
+            position.put(square(7, column), WHITE, backRank[column]);
+        }
+        position.setCastlingRights(ALL_CASTLING);
+        return position;
+    }
+
+    /**
+     * Converts board coordinates into a square index.
+     *
+     * @param line Row index (0 is the eighth rank).
+     * @param column Column index (0 is the a-file).
+     * @return The square index between 0 and 63.
+     */
+    public static int square(int line, int column) {
+        return (line << 3) | column;
+    }
+
+    /**
+     * Returns the mask with only the bit of the given square set.
+     *
+     * @param square The square index.
+     * @return The single-bit mask.
+     */
+    public static long bit(int square) {
+        return 1L << square;
+    }
+
+    /**
+     * Places a piece on an empty square.
+     *
+     * @param square Target square.
+     * @param color Color index of the piece.
+     * @param type Type index of the piece.
+     */
+    public void put(int square, int color, int type) {
+        long mask = bit(square);
+        pieces[color * 6 + type] |= mask;
+        colors[color] |= mask;
+        occupied |= mask;
+        squares[square] = (byte) (color * 6 + type);
+        hash ^= Zobrist.piece(color, type, square);
+        material[color] += PieceSquareTables.material(type);
+        placement[color] += PieceSquareTables.placement(color, type, square);
+
+        listIndex[square] = pieceCounts[color];
+        pieceLists[color][pieceCounts[color]++] = square;
+        if (type == KING) {
+            kingSquares[color] = square;
+        }
+    }
+
+    /**
+     * Removes whatever piece stands on the given square.
+     *
+     * @param square The square to clear.
+     */
+    public void remove(int square) {
+        int code = squares[square];
+        if (code == EMPTY) {
+            return;
+        }
+        long mask = ~bit(square);
+        pieces[code] &= mask;
+        colors[code / 6] &= mask;
+        occupied &= mask;
+        squares[square] = EMPTY;
+        hash ^= Zobrist.piece(code / 6, code % 6, square);
+
+        int color = code / 6;
+        material[color] -= PieceSquareTables.material(code % 6);
+        placement[color] -= PieceSquareTables.placement(color, code % 6, square);
+
+        // Fill the gap in the piece list with its last entry
+        int last = pieceLists[color][--pieceCounts[color]];
+        pieceLists[color][listIndex[square]] = last;
+        listIndex[last] = listIndex[square];
+        if (code % 6 == KING && kingSquares[color] == square) {
+            kingSquares[color] = EMPTY;
+        }
+    }
+
+    /**
+     * Moves the piece on one square to another, removing any piece on the target.
+     *
+     * @param from Origin square.
+     * @param to Destination square.
+     */
+    public void move(int from, int to) {
+        int code = squares[from];
+        remove(to);
+        remove(from);
+        put(to, code / 6, code % 6);
+    }
+
+    /**
+     * Removes every piece from the position.
+     */
+    public void clear() {
+        Arrays.fill(pieces, 0L);
+        colors[WHITE] = 0L;
+        colors[BLACK] = 0L;
+        occupied = 0L;
+        Arrays.fill(squares, (byte) EMPTY);
+        pieceCounts[WHITE] = 0;
+        pieceCounts[BLACK] = 0;
+        kingSquares[WHITE] = EMPTY;
+        kingSquares[BLACK] = EMPTY;
+        Arrays.fill(material, 0);
+        Arrays.fill(placement, 0);
+
+        sideToMove = WHITE;
+        castlingRights = 0;
+        enPassantSquare = EMPTY;
+        halfmoveClock = 0;
+        fullmoveNumber = 1;
+        historySize = 0;
+        hash = Zobrist.castling(0);
+    }
+
+    /**
+     * Plays a move produced by the move generator for the side to move.
+     * Captures, castling, en passant, promotions and all state updates are
+     * handled here, and the previous state is saved for {@link #unmakeMove()}.
+     *
+     * @param move The packed move.
+     * @throws IllegalStateException If {@link #MAX_HISTORY} moves are already on the undo stack.
+     */
+    public void makeMove(int move) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int color = sideToMove;
+        int capturedSquare = (move & Move.EN_PASSANT) != 0 ? to + (color == WHITE ? 8 : -8) : to;
+        int capturedCode = squares[capturedSquare];
+
+        if (historySize == moveHistory.length) {
+            if (historySize == MAX_HISTORY) {
+                throw new IllegalStateException("Undo stack is full after " + MAX_HISTORY + " moves");
+            }
+            growHistory(Math.min(MAX_HISTORY, historySize * 2));
+        }
+        moveHistory[historySize] = move;
+        stateHistory[historySize] = castlingRights | ((enPassantSquare + 1) << 4)
+                | ((capturedCode + 1) << 11) | (halfmoveClock << 15);
+        hashHistory[historySize] = hash;
+        historySize++;
+
+        if (capturedCode != EMPTY) {
+            remove(capturedSquare);
+        }
+        remove(from);
+        put(to, color, Move.isPromotion(move) ? Move.promotion(move) : Move.piece(move));
+
+        if ((move & Move.CASTLING) != 0) {
+            if (to > from) {
+                move(from + 3, from + 1);
+            } else {
+                move(from - 4, from - 1);
+            }
+        }
+
+        updateCastlingRights(from, to);
+        setEnPassantSquare((move & Move.DOUBLE_PUSH) != 0 ? (from + to) >>> 1 : EMPTY);
+        halfmoveClock = (Move.piece(move) == PAWN || capturedCode != EMPTY) ? 0 : halfmoveClock + 1;
+        if (color == BLACK) {
+            fullmoveNumber++;
+        }
+        sideToMove = color ^ 1;
+        hash ^= Zobrist.side();
+    }
+
+    /**
+     * Takes back the last move played with {@link #makeMove(int)}.
+     */
+    public void unmakeMove() {
+        historySize--;
+        int move = moveHistory[historySize];
+        int state = stateHistory[historySize];
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int color = sideToMove ^ 1;
+
+        remove(to);
+        put(from, color, Move.piece(move));
+
+        if ((move & Move.CASTLING) != 0) {
+            if (to > from) {
+                move(from + 1, from + 3);
+            } else {
+                move(from - 1, from - 4);
+            }
+        }
+
+        int capturedCode = ((state >>> 11) & 15) - 1;
+        if (capturedCode != EMPTY) {
+            int capturedSquare = (move & Move.EN_PASSANT) != 0 ? to + (color == WHITE ? 8 : -8) : to;
+            put(capturedSquare, capturedCode / 6, capturedCode % 6);
+        }
+
+        castlingRights = state & 15;
+        enPassantSquare = ((state >>> 4) & 127) - 1;
+        halfmoveClock = state >>> 15;
+        if (color == BLACK) {
+            fullmoveNumber--;
+        }
+        sideToMove = color;
+        hash = hashHistory[historySize];
+    }
+
+    /**
+     * Enlarges the undo stack, keeping its contents.
+     *
+     * @param capacity The new size, at most {@link #MAX_HISTORY}.
+     */
+    private void growHistory(int capacity) {
+        moveHistory = Arrays.copyOf(moveHistory, capacity);
+        stateHistory = Arrays.copyOf(stateHistory, capacity);
+        hashHistory = Arrays.copyOf(hashHistory, capacity);
+    }
+
+    /**
+     * Returns the number of moves played with {@link #makeMove(int)} that have
+     * not been taken back.
+     *
+     * @return The depth of the undo stack.
+     */
+    public int historySize() {
+        return historySize;
+    }
+
+    /**
+     * Returns a move from the undo stack.
+     *
+     * @param index Position in the stack, 0 being the oldest move.
+     * @return The packed move.
+     */
+    public int historyMove(int index) {
+        return moveHistory[index];
+    }
+
+    public int sideToMove() {
+        return sideToMove;
+    }
+
+    public void setSideToMove(int color) {
+        if (color != sideToMove) {
+            hash ^= Zobrist.side();
+        }
+        sideToMove = color;
+    }
+
+    public int castlingRights() {
+        return castlingRights;
+    }
+
+    public void setCastlingRights(int rights) {
+        hash ^= Zobrist.castling(castlingRights) ^ Zobrist.castling(rights);
+        castlingRights = rights;
+    }
+
+    /**
+     * Removes the castling rights lost when a piece moves between two
+     * squares, i.e. when a king or rook leaves or a rook is captured on its
+     * original square.
+     *
+     * @param from Origin square of the move.
+     * @param to Destination square of the move.
+     */
+    public void updateCastlingRights(int from, int to) {
+        setCastlingRights(castlingRights & CASTLING_MASKS[from] & CASTLING_MASKS[to]);
+    }
+
+    public int enPassantSquare() {
+        return enPassantSquare;
+    }
+
+    public void setEnPassantSquare(int square) {
+        if (enPassantSquare != EMPTY) {
+            hash ^= Zobrist.enPassant(enPassantSquare);
+        }
+        if (square != EMPTY) {
+            hash ^= Zobrist.enPassant(square);
+        }
+        enPassantSquare = square;
+    }
+
+    public int halfmoveClock() {
+        return halfmoveClock;
+    }
+
+    public int fullmoveNumber() {
+        return fullmoveNumber;
+    }
+
+    /**
+     * Sets the half-move clock and full-move number.
+     *
+     * @param halfmoves Half-moves since the last capture or pawn move.
+     * @param fullmoves Number of the current full move, starting at 1.
+     */
+    public void setMoveCounters(int halfmoves, int fullmoves) {
+        halfmoveClock = halfmoves;
+        fullmoveNumber = fullmoves;
+    }
+
+    /**
+     * Returns the Zobrist key of the position, covering pieces, side to move,
+     * castling rights and en passant file.
+     *
+     * @return The 64-bit hash key.
+     */
+    public long hashKey() {
+        return hash;
+    }
+
+    /**
+     * Returns the total material value of one side's pieces.
+     *
+     * @param color Color index.
+     * @return Material in centipawns.
+     */
+    public int material(int color) {
+        return material[color];
+    }
+
+    /**
+     * Returns the sum of the piece-square scores of one side's pieces.
+     *
+     * @param color Color index.
+     * @return Placement score in centipawns, from that side's point of view.
+     */
+    public int placement(int color) {
+        return placement[color];
+    }
+
+    /**
+     * Checks whether the current position already occurred among the moves
+     * on the undo stack since the last capture or pawn move.
+     *
+     * @return True if the position is a repetition.
+     */
+    public boolean isRepetition() {
+        int oldest = Math.max(0, historySize - halfmoveClock);
+        for (int i = historySize - 2; i >= oldest; i -= 2) {
+            if (hashHistory[i] == hash) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    /**
+     * Counts the earlier occurrences of the current position among the
+     * moves on the undo stack since the last capture or pawn move.
+     *
+     * @return 0 for a new position, 2 once it stands on the board for the third time.
+     */
+    public int repetitionCount() {
+        int oldest = Math.max(0, historySize - halfmoveClock);
+        int count = 0;
+        for (int i = historySize - 2; i >= oldest; i -= 2) {
+            if (hashHistory[i] == hash) {
+                count++;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Checks whether the side to move is in check.
+     *
+     * @return True if the king of the side to move is attacked.
+     */
+    public boolean inCheck() {
+        int king = kingSquares[sideToMove];
+        return king != EMPTY && isAttacked(king, sideToMove ^ 1);
+    }
+
+    /**
+     * Returns the mask of all pieces of one type and color.
+     *
+     * @param color Color index.
+     * @param type Type index.
+     * @return The piece mask.
+     */
+    public long pieces(int color, int type) {
+        return pieces[color * 6 + type];
+    }
+
+    /**
+     * Returns the mask of all pieces of one color.
+     *
+     * @param color Color index.
+     * @return The occupancy mask of that color.
+     */
+    public long colorMask(int color) {
+        return colors[color];
+    }
+
+    /**
+     * Returns the mask of all occupied squares.
+     *
+     * @return The occupancy mask.
+     */
+    public long occupied() {
+        return occupied;
+    }
+
+    /**
+     * Returns the square of a side's king.
+     *
+     * @param color Color index of the king.
+     * @return The king's square, or {@link #EMPTY} if that side has no king.
+     */
+    public int kingSquare(int color) {
+        return kingSquares[color];
+    }
+
+    /**
+     * Returns how many pieces one side has on the board.
+     *
+     * @param color Color index.
+     * @return The number of pieces of that color.
+     */
+    public int pieceCount(int color) {
+        return pieceCounts[color];
+    }
+
+    /**
+     * Returns the square of one entry of a side's piece list. Entries are in
+     * no particular order and are reshuffled when pieces are removed.
+     *
+     * @param color Color index.
+     * @param index Position in the list, below {@link #pieceCount(int)}.
+     * @return The square holding that piece.
+     */
+    public int pieceSquare(int color, int index) {
+        return pieceLists[color][index];
+    }
+
+    /**
+     * Checks whether a square holds a piece.
+     *
+     * @param square The square index.
+     * @return True if the square is occupied.
+     */
+    public boolean isOccupied(int square) {
+        return (occupied & bit(square)) != 0;
+    }
+
+    /**
+     * Checks whether a square holds a piece of the color opposing {@code color}.
+     *
+     * @param square The square index.
+     * @param color Color index of the current player.
+     * @return True if an opponent piece stands on the square.
+     */
+    public boolean isOpponent(int square, int color) {
+        return (colors[color ^ 1] & bit(square)) != 0;
+    }
+
+    /**
+     * Returns the pieces of one color that attack a square.
+     *
+     * @param square The attacked square.
+     * @param byColor Color index of the attacking side.
+     * @param occupied Occupancy used to block sliding pieces.
+     * @return Mask of the attacking pieces.
+     */
+    public long attackersTo(int square, int byColor, long occupied) {
+        long diagonal = pieces(byColor, BISHOP) | pieces(byColor, QUEEN);
+        long straight = pieces(byColor, ROOK) | pieces(byColor, QUEEN);
+
+        return (AttackTables.pawnAttacks(byColor ^ 1, square) & pieces(byColor, PAWN))
+                | (AttackTables.knightAttacks(square) & pieces(byColor, KNIGHT))
+                | (AttackTables.kingAttacks(square) & pieces(byColor, KING))
+                | (SlidingAttacks.bishopAttacks(square, occupied) & diagonal)
+                | (SlidingAttacks.rookAttacks(square, occupied) & straight);
+    }
+
+    /**
+     * Checks whether any piece of the given color attacks a square.
+     *
+     * @param square The square to test.
+     * @param byColor Color index of the attacking side.
+     * @return True if the square is attacked.
+     */
+    public boolean isAttacked(int square, int byColor) {
+        return attackersTo(square, byColor, occupied) != 0;
+    }
+
+    /**
+     * Returns the byte code of the piece on a square, {@code color * 6 + type}.
+     *
+     * @param square The square index.
+     * @return The piece code, or {@link #EMPTY} if the square is empty.
+     */
+    public byte pieceAt(int square) {
+        return squares[square];
+    }
+
+    /**
+     * Returns the type of the piece on a square.
+     *
+     * @param square The square index.
+     * @return The type index, or {@link #EMPTY} if the square is empty.
+     */
+    public int typeAt(int square) {
+        int code = squares[square];
+        return code == EMPTY ? EMPTY : code % 6;
+    }
+
+    /**
+     * Returns the color of the piece on a square.
+     *
+     * @param square The square index.
+     * @return The color index, or {@link #EMPTY} if the square is empty.
+     */
+    public int colorAt(int square) {
+        int code = squares[square];
+        return code == EMPTY ? EMPTY : code / 6;
+    }
+}
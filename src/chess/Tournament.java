@@ -0,0 +1,651 @@
+package chess;
+
+import chess.gameUtils.Fen;
+import chess.gameUtils.Move;
+import chess.gameUtils.MoveGenerator;
+import chess.gameUtils.PgnGame;
+import chess.gameUtils.PgnWriter;
+import chess.gameUtils.San;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Paths;
+import java.util.ArrayList;
+import java.util.Arrays;
+import java.util.List;
+import java.util.Locale;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+import java.util.concurrent.atomic.AtomicInteger;
+
+/**
+ * Entry point for headless engine matches, which tell whether a change to
+ * the engine makes it stronger.
+ *
+ * Two engines, each started as a separate program speaking UCI (e.g. two
+ * builds of {@link Uci}), play each other from the positions of an opening
+ * suite, every opening twice with the colors swapped. Several games run at
+ * once, one per processor by default, and every worker keeps its own pair of
+ * engine processes for all of its games. The engines only choose moves: a
+ * {@link Game} holds the board and decides when a game is over through its
+ * checkmate and stalemate checks, together with the fifty-move rule,
+ * threefold repetition, insufficient material and a length limit. An engine
+ * that sends an illegal move, runs out of time or stops answering loses.
+ *
+ * After every game a sequential probability ratio test (SPRT) weighs the
+ * score so far between the hypotheses that the first engine is {@code elo0}
+ * or {@code elo1} Elo stronger, and the match stops as soon as either is
+ * accepted, so clear differences are settled in far fewer games than a fixed
+ * match length. Each game is reported with its result and duration, and a
+ * summary with the Elo difference, its 95% error bars and the games played
+ * per hour follows at regular intervals and at the end.
+ *
+ * Usage: {@code java chess.Tournament --engine <command> --engine <command> [options]}
+ */
+public class Tournament {
+
+    /**
+     * Openings played when no suite is given, as moves from the starting position.
+     */
+    private static final String[] DEFAULT_OPENINGS = {
+            "e4 e5 Nf3 Nc6 Bb5 a6",
+            "e4 e5 Nf3 Nc6 Bc4 Bc5 c3 Nf6",
+            "e4 c5 Nf3 d6 d4 cxd4 Nxd4 Nf6 Nc3",
+            "e4 e6 d4 d5 Nc3 Nf6",
+            "e4 c6 d4 d5 e5 Bf5",
+            "e4 d5 exd5 Qxd5 Nc3 Qa5",
+            "d4 d5 c4 e6 Nc3 Nf6",
+            "d4 d5 c4 c6 Nf3 Nf6 Nc3 dxc4",
+            "d4 Nf6 c4 g6 Nc3 Bg7 e4 d6",
+            "d4 Nf6 c4 e6 Nc3 Bb4",
+            "c4 e5 Nc3 Nf6 Nf3 Nc6",
+            "Nf3 d5 g3 Nf6 Bg2 c6",
+    };
+
+    /**
+     * Extra time an engine may take beyond its clock before it loses on time, in milliseconds.
+     */
+    private static final long TIME_MARGIN_MILLIS = 50;
+
+    /**
+     * Time after which an engine that has not answered is considered hung, in milliseconds.
+     */
+    private static final long HANG_TIMEOUT_MILLIS = 10000;
+
+    private static final int REPORT_INTERVAL_GAMES = 20;
+
+    private static final ScheduledExecutorService WATCHDOG = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "engine-watchdog");
+        thread.setDaemon(true);
+        return thread;
+    });
+
+    private final List<List<String>> engines = new ArrayList<>();
+    private final List<String> openings = new ArrayList<>();
+    private long moveTimeMillis = 100;
+    private long baseMillis;
+    private long incrementMillis;
+    private int concurrency = Runtime.getRuntime().availableProcessors();
+    private int maxGames = 20000;
+    private int maxPlies = 400;
+    private double elo0 = 0;
+    private double elo1 = 5;
+    private double lowerBound = Math.log(0.05 / 0.95);
+    private double upperBound = Math.log(0.95 / 0.05);
+
+    private final AtomicInteger nextGame = new AtomicInteger();
+    private volatile boolean stopped;
+    private PgnWriter pgn;
+    private String[] names = {"Engine 1", "Engine 2"};
+
+    // Results from the first engine's point of view, guarded by this
+    private int wins;
+    private int draws;
+    private int losses;
+    private long totalGameMillis;
+    private long shortestGameMillis = Long.MAX_VALUE;
+    private long longestGameMillis;
+    private long startMillis;
+    private String verdict;
+
+    /**
+     * Constructs a match between two engines, each given as the command that
+     * starts it, e.g. {@code "java -cp build chess.Uci"}.
+     *
+     * @param tested The engine being tested; scores are from its point of view.
+     * @param reference The engine it is compared with.
+     */
+    public Tournament(String tested, String reference) {
+        engines.add(Arrays.asList(tested.trim().split("\\s+")));
+        engines.add(Arrays.asList(reference.trim().split("\\s+")));
+    }
+
+    /**
+     * Adds an opening, either a FEN record or moves in SAN from the
+     * starting position. Without openings, a built-in suite is played.
+     *
+     * @param opening The opening.
+     * @throws IllegalArgumentException If the opening is not valid.
+     */
+    public void addOpening(String opening) {
+        if (opening.indexOf('/') >= 0) {
+            openings.add(Board.fromFen(opening.trim()).toFen());
+            return;
+        }
+        Position position = Position.startPosition();
+        for (String san : opening.trim().split("\\s+")) {
+            position.makeMove(San.parse(position, san));
+        }
+        openings.add(Fen.toString(position));
+    }
+
+    /**
+     * Gives every move a fixed thinking time, 100 ms by default.
+     *
+     * @param millis Time per move in milliseconds.
+     */
+    public void setMoveTime(long millis) {
+        this.moveTimeMillis = millis;
+    }
+
+    /**
+     * Plays with a clock instead of a fixed time per move.
+     *
+     * @param baseMillis Time for the whole game in milliseconds.
+     * @param incrementMillis Time added after each move in milliseconds.
+     */
+    public void setClock(long baseMillis, long incrementMillis) {
+        this.moveTimeMillis = 0;
+        this.baseMillis = baseMillis;
+        this.incrementMillis = incrementMillis;
+    }
+
+    /**
+     * Sets the number of games played at once, one per processor by default.
+     *
+     * @param games Games at once.
+     */
+    public void setConcurrency(int games) {
+        this.concurrency = games;
+    }
+
+    /**
+     * Sets the largest number of games played if the SPRT has not decided earlier.
+     *
+     * @param games Game limit.
+     */
+    public void setMaxGames(int games) {
+        this.maxGames = games;
+    }
+
+    /**
+     * Sets the number of plies after which a game is adjudicated a draw.
+     *
+     * @param plies Ply limit.
+     */
+    public void setMaxPlies(int plies) {
+        this.maxPlies = plies;
+    }
+
+    /**
+     * Sets the hypotheses of the SPRT, by default [0, 5] with 5% error rates.
+     *
+     * @param elo0 Elo difference of the null hypothesis.
+     * @param elo1 Elo difference of the alternative hypothesis.
+     * @param alpha Probability of accepting the alternative when the null hypothesis holds.
+     * @param beta Probability of accepting the null hypothesis when the alternative holds.
+     */
+    public void setSprt(double elo0, double elo1, double alpha, double beta) {
+        this.elo0 = elo0;
+        this.elo1 = elo1;
+        this.lowerBound = Math.log(beta / (1 - alpha));
+        this.upperBound = Math.log((1 - beta) / alpha);
+    }
+
+    /**
+     * Plays games until the SPRT accepts a hypothesis or the game limit is
+     * reached.
+     *
+     * @param pgn Receives every finished game, or null to keep none.
+     * @throws InterruptedException If interrupted while waiting for the games.
+     */
+    public void run(PgnWriter pgn) throws InterruptedException {
+        if (openings.isEmpty()) {
+            for (String opening : DEFAULT_OPENINGS) {
+                addOpening(opening);
+            }
+        }
+        this.pgn = pgn;
+        synchronized (this) {
+            startMillis = System.currentTimeMillis();
+        }
+        ExecutorService workers = Executors.newFixedThreadPool(concurrency, runnable -> new Thread(runnable, "tournament-worker"));
+        for (int i = 0; i < concurrency; i++) {
+            workers.submit(this::work);
+        }
+        workers.shutdown();
+        workers.awaitTermination(Long.MAX_VALUE, TimeUnit.DAYS);
+        report(true);
+    }
+
+    /**
+     * Runs on each worker: starts a pair of engines and plays games with
+     * them until the match is over.
+     */
+    private void work() {
+        try (UciEngine first = new UciEngine(engines.get(0));
+             UciEngine second = new UciEngine(engines.get(1))) {
+            synchronized (this) {
+                names = first.name.equals(second.name)
+                        ? new String[]{first.name + " #1", second.name + " #2"}
+                        : new String[]{first.name, second.name};
+            }
+            for (int index; !stopped && (index = nextGame.getAndIncrement()) < maxGames; ) {
+                finish(index, playGame(index, first, second));
+            }
+        } catch (IOException e) {
+            System.out.println("Could not start an engine: " + e.getMessage());
+            stopped = true;
+        }
+    }
+
+    /**
+     * Plays one game. Even games give the first engine white, and the odd
+     * game that follows replays the same opening with the colors swapped.
+     */
+    private GameResult playGame(int index, UciEngine first, UciEngine second) throws IOException {
+        int opening = index / 2 % openings.size();
+        boolean firstIsWhite = index % 2 == 0;
+        UciEngine white = firstIsWhite ? first : second;
+        UciEngine black = firstIsWhite ? second : first;
+
+        Board board = Board.fromFen(openings.get(opening));
+        Game game = new Game(board);
+        String startFen = board.toFen();
+        white.newGame();
+        black.newGame();
+
+        long start = System.nanoTime();
+        long[] clocks = {baseMillis, baseMillis};
+        StringBuilder moves = new StringBuilder();
+        int[] legal = new int[MoveGenerator.MAX_MOVES];
+        String result = null;
+        String termination = null;
+        for (int plies = 0; result == null; plies++) {
+            Position position = board.getPosition();
+            boolean whiteToMove = game.isWhiteTurn();
+            if (game.isCheckmate()) {
+                result = whiteToMove ? PgnGame.BLACK_WINS : PgnGame.WHITE_WINS;
+                termination = "checkmate";
+            } else if (game.isStalemate()) {
+                result = PgnGame.DRAW;
+                termination = "stalemate";
+            } else if (position.halfmoveClock() >= 100) {
+                result = PgnGame.DRAW;
+                termination = "fifty-move rule";
+            } else if (position.repetitionCount() >= 2) {
+                result = PgnGame.DRAW;
+                termination = "threefold repetition";
+            } else if (isInsufficientMaterial(position)) {
+                result = PgnGame.DRAW;
+                termination = "insufficient material";
+            } else if (plies >= maxPlies) {
+                result = PgnGame.DRAW;
+                termination = "move limit";
+            } else {
+                int side = whiteToMove ? Position.WHITE : Position.BLACK;
+                UciEngine engine = whiteToMove ? white : black;
+                String go = moveTimeMillis > 0 ? "go movetime " + moveTimeMillis
+                        : "go wtime " + clocks[0] + " btime " + clocks[1] + " winc " + incrementMillis + " binc " + incrementMillis;
+                long limit = moveTimeMillis > 0 ? moveTimeMillis : clocks[side];
+
+                long moveStart = System.nanoTime();
+                String answer = engine.bestMove("position fen " + startFen + (moves.length() > 0 ? " moves" + moves : ""), go, limit);
+                long used = (System.nanoTime() - moveStart) / 1000000;
+                int move = answer == null ? Move.NONE : findMove(position, answer, legal);
+                String loser = whiteToMove ? PgnGame.BLACK_WINS : PgnGame.WHITE_WINS;
+                if (answer == null) {
+                    result = loser;
+                    termination = "engine stopped answering";
+                } else if (move == Move.NONE) {
+                    result = loser;
+                    termination = "illegal move " + answer;
+                } else if (moveTimeMillis == 0 && used > clocks[side] + TIME_MARGIN_MILLIS) {
+                    result = loser;
+                    termination = "time forfeit";
+                } else {
+                    clocks[side] += incrementMillis - used;
+                    game.playMove(move);
+                    moves.append(' ').append(answer);
+                }
+            }
+        }
+
+        PgnGame record = game.getRecord();
+        record.setResult(result);
+        record.setTag("Event", "Engine match");
+        record.setTag("Round", String.valueOf(index + 1));
+        record.setTag("White", names[firstIsWhite ? 0 : 1]);
+        record.setTag("Black", names[firstIsWhite ? 1 : 0]);
+        record.setTag("Termination", termination);
+        return new GameResult(record, opening, firstIsWhite, termination, (System.nanoTime() - start) / 1000000);
+    }
+
+    /**
+     * Checks whether neither side has enough material left to mate: bare
+     * kings, or a king and a single minor piece against a king.
+     */
+    private static boolean isInsufficientMaterial(Position position) {
+        int count = Long.bitCount(position.occupied());
+        if (count == 2) {
+            return true;
+        }
+        long minors = 0;
+        for (int color = Position.WHITE; color <= Position.BLACK; color++) {
+            minors |= position.pieces(color, Position.KNIGHT) | position.pieces(color, Position.BISHOP);
+        }
+        return count == 3 && minors != 0;
+    }
+
+    /**
+     * Returns the legal move written in long algebraic notation, e.g. "e7e8q".
+     */
+    private static int findMove(Position position, String text, int[] moves) {
+        int count = MoveGenerator.generateLegal(position, position.sideToMove(), moves, 0);
+        for (int i = 0; i < count; i++) {
+            if (Move.toNotation(moves[i]).equals(text)) {
+                return moves[i];
+            }
+        }
+        return Move.NONE;
+    }
+
+    /**
+     * Adds a finished game to the results, reports it and checks whether
+     * the SPRT has reached a decision.
+     */
+    private synchronized void finish(int index, GameResult game) {
+        String result = game.record.getResult();
+        double whiteScore = result.equals(PgnGame.WHITE_WINS) ? 1 : result.equals(PgnGame.DRAW) ? 0.5 : 0;
+        double score = game.firstIsWhite ? whiteScore : 1 - whiteScore;
+        if (score == 1) wins++; else if (score == 0) losses++; else draws++;
+        totalGameMillis += game.millis;
+        shortestGameMillis = Math.min(shortestGameMillis, game.millis);
+        longestGameMillis = Math.max(longestGameMillis, game.millis);
+
+        System.out.println(String.format(Locale.ROOT, "Game %d (opening %d, %s white): %s %s, %d plies, %.1f s",
+                index + 1, game.opening + 1, names[game.firstIsWhite ? 0 : 1], result, game.termination,
+                game.record.getMoveCount(), game.millis / 1000.0));
+        if (pgn != null) {
+            try {
+                pgn.write(game.record);
+            } catch (IOException e) {
+                System.out.println("Could not save the game: " + e.getMessage());
+            }
+        }
+
+        double llr = logLikelihoodRatio(wins, draws, losses, elo0, elo1);
+        if (verdict == null && llr >= upperBound) {
+            verdict = "H1 accepted: " + names[0] + " is at least " + elo1 + " Elo stronger";
+        } else if (verdict == null && llr <= lowerBound) {
+            verdict = "H0 accepted: " + names[0] + " is not " + elo1 + " Elo stronger";
+        }
+        if (verdict != null) {
+            stopped = true;
+        } else if ((wins + draws + losses) % REPORT_INTERVAL_GAMES == 0) {
+            report(false);
+        }
+    }
+
+    /**
+     * Prints the score, the Elo difference with its 95% confidence
+     * interval, the SPRT state and the game timings.
+     */
+    private synchronized void report(boolean last) {
+        int games = wins + draws + losses;
+        if (games == 0) {
+            System.out.println("No games played.");
+            return;
+        }
+        long elapsed = Math.max(1, System.currentTimeMillis() - startMillis);
+        double score = (wins + draws / 2.0) / games;
+        double deviation = Math.sqrt(variance(wins, draws, losses) / games);
+        double low = elo(score - 1.96 * deviation);
+        double high = elo(score + 1.96 * deviation);
+
+        System.out.println(String.format(Locale.ROOT, "Score of %s vs %s: %d - %d - %d [%.3f] %d",
+                names[0], names[1], wins, losses, draws, score, games));
+        System.out.println(String.format(Locale.ROOT, "Elo difference: %+.1f +/- %.1f (95%%: %+.1f to %+.1f)",
+                elo(score), (high - low) / 2, low, high));
+        System.out.println(String.format(Locale.ROOT, "SPRT [%.1f, %.1f]: LLR %.2f (%.2f, %.2f)%s",
+                elo0, elo1, logLikelihoodRatio(wins, draws, losses, elo0, elo1), lowerBound, upperBound,
+                verdict != null ? " - " + verdict : last ? " - inconclusive" : ""));
+        System.out.println(String.format(Locale.ROOT, "Games/hour: %d, game time: mean %.1f s, min %.1f s, max %.1f s",
+                games * 3600000L / elapsed, totalGameMillis / 1000.0 / games,
+                shortestGameMillis / 1000.0, longestGameMillis / 1000.0));
+    }
+
+    /**
+     * Returns the variance of a single game's score.
+     */
+    private static double variance(int wins, int draws, int losses) {
+        int games = wins + draws + losses;
+        double mean = (wins + draws / 2.0) / games;
+        return (wins * (1 - mean) * (1 - mean) + draws * (0.5 - mean) * (0.5 - mean) + losses * mean * mean) / games;
+    }
+
+    /**
+     * Converts an expected score into an Elo difference. Scores of 0 and 1
+     * are clamped, since they correspond to an infinite difference.
+     */
+    static double elo(double score) {
+        double clamped = Math.max(1e-3, Math.min(1 - 1e-3, score));
+        return -400 * Math.log10(1 / clamped - 1);
+    }
+
+    /**
+     * Converts an Elo difference into the expected score of the stronger side.
+     */
+    static double expectedScore(double elo) {
+        return 1 / (1 + Math.pow(10, -elo / 400));
+    }
+
+    /**
+     * Computes the log-likelihood ratio of the hypotheses that the Elo
+     * difference is {@code elo1} rather than {@code elo0}, using the normal
+     * approximation of the game scores.
+     *
+     * @return The ratio; 0 while the games do not vary yet.
+     */
+    static double logLikelihoodRatio(int wins, int draws, int losses, double elo0, double elo1) {
+        int games = wins + draws + losses;
+        if (games == 0 || wins + losses == 0 || wins + draws == 0 || draws + losses == 0) {
+            return 0;
+        }
+        double mean = (wins + draws / 2.0) / games;
+        double s0 = expectedScore(elo0);
+        double s1 = expectedScore(elo1);
+        return games * (s1 - s0) * (2 * mean - s0 - s1) / (2 * variance(wins, draws, losses));
+    }
+
+    /**
+     * A finished game with what is needed to report it.
+     */
+    private static final class GameResult {
+        final PgnGame record;
+        final int opening;
+        final boolean firstIsWhite;
+        final String termination;
+        final long millis;
+
+        GameResult(PgnGame record, int opening, boolean firstIsWhite, String termination, long millis) {
+            this.record = record;
+            this.opening = opening;
+            this.firstIsWhite = firstIsWhite;
+            this.termination = termination;
+            this.millis = millis;
+        }
+    }
+
+    /**
+     * An engine program driven over UCI. A program that has stopped,
+     * because it crashed or hung, is started again for the next game.
+     */
+    private static final class UciEngine implements AutoCloseable {
+        private final List<String> command;
+        private Process process;
+        private BufferedReader in;
+        private PrintStream out;
+        String name;
+
+        UciEngine(List<String> command) throws IOException {
+            this.command = command;
+            start();
+        }
+
+        private void start() throws IOException {
+            process = new ProcessBuilder(command).redirectError(ProcessBuilder.Redirect.DISCARD).start();
+            in = new BufferedReader(new InputStreamReader(process.getInputStream(), StandardCharsets.UTF_8));
+            out = new PrintStream(process.getOutputStream(), true, StandardCharsets.UTF_8);
+            name = command.get(command.size() - 1);
+            out.println("uci");
+            String line = waitFor("uciok", HANG_TIMEOUT_MILLIS);
+            if (line == null) {
+                process.destroyForcibly();
+                throw new IOException("No UCI answer from " + String.join(" ", command));
+            }
+        }
+
+        /**
+         * Prepares the engine for a new game, restarting it if needed.
+         */
+        void newGame() throws IOException {
+            if (!process.isAlive()) {
+                start();
+            }
+            out.println("ucinewgame");
+            out.println("isready");
+            waitFor("readyok", HANG_TIMEOUT_MILLIS);
+        }
+
+        /**
+         * Asks for a move.
+         *
+         * @return The move in long algebraic notation, or null if the engine
+         *         stopped or did not answer in time.
+         */
+        String bestMove(String position, String go, long limitMillis) {
+            out.println(position);
+            out.println(go);
+            String line = waitFor("bestmove", limitMillis + HANG_TIMEOUT_MILLIS);
+            if (line == null) {
+                return null;
+            }
+            String[] tokens = line.trim().split("\\s+");
+            return tokens.length > 1 ? tokens[1] : null;
+        }
+
+        /**
+         * Reads lines until one starts with a keyword. The engine is killed
+         * if the line has not come within the timeout.
+         *
+         * @return The line, or null if the engine stopped first.
+         */
+        private String waitFor(String keyword, long timeoutMillis) {
+            ScheduledFuture<?> kill = WATCHDOG.schedule(process::destroyForcibly, timeoutMillis, TimeUnit.MILLISECONDS);
+            try {
+                for (String line; (line = in.readLine()) != null; ) {
+                    if (line.startsWith("id name ")) {
+                        name = line.substring(8).trim();
+                    }
+                    if (line.startsWith(keyword)) {
+                        return line;
+                    }
+                }
+            } catch (IOException e) {
+                // Treated like an engine that stopped
+            } finally {
+                kill.cancel(false);
+            }
+            return null;
+        }
+
+        @Override
+        public void close() {
+            out.println("quit");
+            try {
+                if (!process.waitFor(1, TimeUnit.SECONDS)) {
+                    process.destroyForcibly();
+                }
+            } catch (InterruptedException e) {
+                process.destroyForcibly();
+                Thread.currentThread().interrupt();
+            }
+        }
+    }
+
+    /**
+     * Runs a match from the command line.
+     *
+     * @param args The engines and options.
+     * @throws Exception If the opening suite or the PGN file cannot be used.
+     */
+    public static void main(String[] args) throws Exception {
+        if (args.length < 4 || !args[0].equals("--engine") || !args[2].equals("--engine")) {
+            System.out.println("Usage: java chess.Tournament --engine <command> --engine <command> [--openings <file>]"
+                    + " [--movetime <ms> | --tc <seconds>+<increment>] [--concurrency <n>] [--games <n>]"
+                    + " [--max-plies <n>] [--sprt <elo0> <elo1>] [--alpha <p>] [--beta <p>] [--pgn <file>]");
+            return;
+        }
+
+        Tournament tournament = new Tournament(args[1], args[3]);
+        String pgnFile = null;
+        double elo0 = 0;
+        double elo1 = 5;
+        double alpha = 0.05;
+        double beta = 0.05;
+        for (int i = 4; i < args.length; i++) {
+            switch (args[i]) {
+                case "--openings":
+                    for (String line : Files.readAllLines(Paths.get(args[++i]), StandardCharsets.UTF_8)) {
+                        if (!line.isBlank() && !line.startsWith("#")) {
+                            tournament.addOpening(line);
+                        }
+                    }
+                    break;
+                case "--movetime": tournament.setMoveTime(Long.parseLong(args[++i])); break;
+                case "--tc":
+                    String[] parts = args[++i].split("\\+");
+                    tournament.setClock(Math.round(Double.parseDouble(parts[0]) * 1000),
+                            parts.length > 1 ? Math.round(Double.parseDouble(parts[1]) * 1000) : 0);
+                    break;
+                case "--concurrency": tournament.setConcurrency(Integer.parseInt(args[++i])); break;
+                case "--games": tournament.setMaxGames(Integer.parseInt(args[++i])); break;
+                case "--max-plies": tournament.setMaxPlies(Integer.parseInt(args[++i])); break;
+                case "--sprt":
+                    elo0 = Double.parseDouble(args[++i]);
+                    elo1 = Double.parseDouble(args[++i]);
+                    break;
+                case "--alpha": alpha = Double.parseDouble(args[++i]); break;
+                case "--beta": beta = Double.parseDouble(args[++i]); break;
+                case "--pgn": pgnFile = args[++i]; break;
+                default: throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        tournament.setSprt(elo0, elo1, alpha, beta);
+
+        if (pgnFile == null) {
+            tournament.run(null);
+            return;
+        }
+        try (PgnWriter pgn = new PgnWriter(Paths.get(pgnFile), false)) {
+            tournament.run(pgn);
+        }
+    }
+}
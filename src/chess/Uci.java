@@ -0,0 +1,529 @@
+package chess;
+
+import chess.engine.OpeningBook;
+import chess.engine.ParallelSearch;
+import chess.engine.Search;
+import chess.engine.SearchListener;
+import chess.engine.Tablebases;
+import chess.engine.TranspositionTable;
+import chess.gameUtils.Fen;
+import chess.gameUtils.Move;
+import chess.gameUtils.MoveGenerator;
+import java.io.BufferedReader;
+import java.io.IOException;
+import java.io.InputStreamReader;
+import java.io.PrintStream;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Paths;
+import java.util.Random;
+import java.util.concurrent.Executors;
+import java.util.concurrent.ScheduledExecutorService;
+import java.util.concurrent.ScheduledFuture;
+import java.util.concurrent.TimeUnit;
+
+/**
+ * Entry point that runs the engine under the Universal Chess Interface
+ * (UCI), so that chess GUIs and match runners can play against it.
+ *
+ * Commands are read from standard input on the calling thread, while each
+ * search runs on a worker thread and reports every completed depth as an
+ * {@code info} line with the score, node count, speed and principal
+ * variation. A {@code stop} interrupts the search at its next node and the
+ * best move is sent straight away. Searches started with {@code go infinite}
+ * or {@code go ponder} hold back their best move until {@code stop}, or until
+ * {@code ponderhit} turns the ponder search into a timed one.
+ *
+ * Usage: {@code java chess.Uci}
+ */
+public class Uci {
+
+    private static final String NAME = "java-chess-game";
+    private static final String AUTHOR = "Ricardo Santos";
+
+    private static final int DEFAULT_HASH_MB = 16;
+    private static final int MAX_HASH_MB = 4096;
+    private static final int MAX_THREADS = 256;
+
+    /**
+     * Time kept in reserve against communication delays, in milliseconds.
+     */
+    private static final long MOVE_OVERHEAD_MILLIS = 30;
+    private static final int DEFAULT_MOVES_TO_GO = 30;
+    private static final long STOP_POLL_MILLIS = 5;
+
+    private final BufferedReader in;
+    private final PrintStream out;
+    private final Object lock = new Object();
+    private final ScheduledExecutorService timer = Executors.newSingleThreadScheduledExecutor(runnable -> {
+        Thread thread = new Thread(runnable, "uci-timer");
+        thread.setDaemon(true);
+        return thread;
+    });
+    private final Random random = new Random();
+
+    private Position position = Position.startPosition();
+    private int hashMegabytes = DEFAULT_HASH_MB;
+    private int threads = 1;
+    private TranspositionTable table;
+    private ParallelSearch search;
+    private OpeningBook book;
+    private boolean ownBook;
+    private String bookFile = "";
+    private String bookKeys = "";
+    private Tablebases tablebases;
+
+    private Thread worker;
+    private ScheduledFuture<?> pendingStop;
+    private boolean holdBestMove;
+    private boolean pondering;
+    private long ponderLimitMillis;
+
+    /**
+     * Constructs a UCI session over the given streams.
+     *
+     * @param in The commands sent by the GUI.
+     * @param out Receives the engine's replies.
+     */
+    public Uci(BufferedReader in, PrintStream out) {
+        this.in = in;
+        this.out = out;
+        createSearch();
+        // Builds the attack tables now rather than on the first search's clock
+        MoveGenerator.generateLegal(position, position.sideToMove(), new int[MoveGenerator.MAX_MOVES], 0);
+    }
+
+    /**
+     * Reads and executes commands until {@code quit} or the end of input.
+     *
+     * @throws IOException If reading the commands fails.
+     */
+    public void run() throws IOException {
+        try {
+            for (String line; (line = in.readLine()) != null; ) {
+                try {
+                    if (!execute(line.trim())) {
+                        break;
+                    }
+                } catch (RuntimeException e) {
+                    send("info string Invalid command: " + line);
+                }
+            }
+        } finally {
+            stopSearch();
+            search.shutdown();
+            timer.shutdownNow();
+        }
+    }
+
+    /**
+     * Executes one command.
+     *
+     * @param line The command line.
+     * @return False if the session should end.
+     */
+    boolean execute(String line) {
+        String[] tokens = line.split("\\s+");
+        switch (tokens[0]) {
+            case "uci":
+                send("id name " + NAME);
+                send("id author " + AUTHOR);
+                send("option name Hash type spin default " + DEFAULT_HASH_MB + " min 1 max " + MAX_HASH_MB);
+                send("option name Threads type spin default 1 min 1 max " + MAX_THREADS);
+                send("option name Ponder type check default false");
+                send("option name OwnBook type check default false");
+                send("option name BookFile type string default <empty>");
+                send("option name BookKeys type string default <empty>");
+                send("option name TablebasePath type string default <empty>");
+                send("uciok");
+                break;
+            case "isready":
+                send("readyok");
+                break;
+            case "setoption":
+                stopSearch();
+                setOption(line);
+                break;
+            case "ucinewgame":
+                stopSearch();
+                table.clear();
+                break;
+            case "position":
+                stopSearch();
+                setPosition(tokens);
+                break;
+            case "go":
+                stopSearch();
+                go(tokens);
+                break;
+            case "stop":
+                stopSearch();
+                break;
+            case "ponderhit":
+                ponderHit();
+                break;
+            case "quit":
+                return false;
+            default:
+                // Unknown commands are ignored, as the protocol requires
+                break;
+        }
+        return true;
+    }
+
+    /**
+     * Handles {@code setoption name <id> [value <x>]}.
+     */
+    private void setOption(String line) {
+        int nameStart = line.indexOf(" name ");
+        if (nameStart < 0) {
+            return;
+        }
+        int valueStart = line.indexOf(" value ");
+        String name = (valueStart < 0 ? line.substring(nameStart + 6) : line.substring(nameStart + 6, valueStart)).trim();
+        String value = valueStart < 0 ? "" : line.substring(valueStart + 7).trim();
+        if (value.equals("<empty>")) {
+            value = "";
+        }
+
+        switch (name.toLowerCase()) {
+            case "hash":
+                hashMegabytes = Math.max(1, Math.min(MAX_HASH_MB, Integer.parseInt(value)));
+                createSearch();
+                break;
+            case "threads":
+                threads = Math.max(1, Math.min(MAX_THREADS, Integer.parseInt(value)));
+                createSearch();
+                break;
+            case "ownbook":
+                ownBook = Boolean.parseBoolean(value);
+                openBook();
+                break;
+            case "bookfile":
+                bookFile = value;
+                openBook();
+                break;
+            case "bookkeys":
+                bookKeys = value;
+                openBook();
+                break;
+            case "tablebasepath":
+                try {
+                    tablebases = value.isEmpty() ? null : new Tablebases(Paths.get(value));
+                } catch (IOException e) {
+                    send("info string Could not open the tablebases: " + e.getMessage());
+                    tablebases = null;
+                }
+                search.setTablebases(tablebases);
+                break;
+            default:
+                break;
+        }
+    }
+
+    private void openBook() {
+        book = null;
+        if (!ownBook || bookFile.isEmpty() || bookKeys.isEmpty()) {
+            return;
+        }
+        try {
+            book = new OpeningBook(Paths.get(bookFile), Paths.get(bookKeys));
+        } catch (IOException e) {
+            send("info string Could not open the opening book: " + e.getMessage());
+        }
+    }
+
+    /**
+     * Handles {@code position [startpos | fen <fen>] [moves <m1> ...]}.
+     * Moves that are not legal are reported and the rest of the list is skipped.
+     */
+    private void setPosition(String[] tokens) {
+        Position next = new Position();
+        int index = 1;
+        if (tokens.length > 1 && tokens[1].equals("fen")) {
+            StringBuilder fen = new StringBuilder();
+            for (index = 2; index < tokens.length && !tokens[index].equals("moves"); index++) {
+                fen.append(fen.length() > 0 ? " " : "").append(tokens[index]);
+            }
+            try {
+                Fen.parse(fen, next);
+            } catch (IllegalArgumentException e) {
+                send("info string Invalid FEN: " + e.getMessage());
+                return;
+            }
+        } else {
+            next = Position.startPosition();
+            index = 2;
+        }
+
+        if (index < tokens.length && tokens[index].equals("moves")) {
+            int[] moves = new int[MoveGenerator.MAX_MOVES];
+            for (index++; index < tokens.length; index++) {
+                int move = findMove(next, tokens[index], moves);
+                if (move == Move.NONE) {
+                    send("info string Illegal move: " + tokens[index]);
+                    break;
+                }
+                // Very long games drop their undo stack, keeping room for the search
+                if (next.historySize() >= Position.MAX_HISTORY - 2 * Search.MAX_PLY) {
+                    Fen.parse(Fen.toString(next), next);
+                }
+                next.makeMove(move);
+            }
+        }
+        position = next;
+    }
+
+    /**
+     * Handles {@code go} with its time control and limits.
+     */
+    private void go(String[] tokens) {
+        long whiteTime = 0, blackTime = 0, whiteIncrement = 0, blackIncrement = 0, moveTime = 0;
+        int movesToGo = 0;
+        int depth = Search.MAX_PLY - 1;
+        boolean infinite = false;
+        boolean ponder = false;
+        for (int i = 1; i < tokens.length; i++) {
+            switch (tokens[i]) {
+                case "wtime": whiteTime = Long.parseLong(tokens[++i]); break;
+                case "btime": blackTime = Long.parseLong(tokens[++i]); break;
+                case "winc": whiteIncrement = Long.parseLong(tokens[++i]); break;
+                case "binc": blackIncrement = Long.parseLong(tokens[++i]); break;
+                case "movestogo": movesToGo = Integer.parseInt(tokens[++i]); break;
+                case "movetime": moveTime = Long.parseLong(tokens[++i]); break;
+                case "depth": depth = Math.max(1, Math.min(Search.MAX_PLY - 1, Integer.parseInt(tokens[++i]))); break;
+                case "mate": depth = Math.max(1, Math.min(Search.MAX_PLY - 1, 2 * Integer.parseInt(tokens[++i]) - 1)); break;
+                case "infinite": infinite = true; break;
+                case "ponder": ponder = true; break;
+                default: break;
+            }
+        }
+
+        boolean white = position.sideToMove() == Position.WHITE;
+        long limit = moveTime > 0 ? Math.max(1, moveTime - MOVE_OVERHEAD_MILLIS)
+                : allocateTime(white ? whiteTime : blackTime, white ? whiteIncrement : blackIncrement, movesToGo);
+
+        Position root = new Position(position);
+        if (!infinite && !ponder && book != null) {
+            int move = book.chooseMove(root, random);
+            if (move != Move.NONE) {
+                send("info string book move");
+                send("bestmove " + Move.toNotation(move));
+                return;
+            }
+        }
+
+        synchronized (lock) {
+            holdBestMove = infinite || ponder;
+            pondering = ponder;
+            ponderLimitMillis = limit;
+        }
+        int maxDepth = depth;
+        long searchLimit = infinite || ponder ? 0 : limit;
+        table.newSearch();
+        worker = new Thread(() -> runSearch(root, maxDepth, searchLimit), "uci-search");
+        worker.start();
+    }
+
+    /**
+     * Runs on the worker thread: searches, waits for the GUI's go-ahead if
+     * the search must not finish on its own, and sends the best move.
+     */
+    private void runSearch(Position root, int depth, long limitMillis) {
+        long start = System.currentTimeMillis();
+        search.getMainSearch().setListener(new InfoListener(root, start));
+        int best = search.findBestMove(root, depth, limitMillis);
+
+        synchronized (lock) {
+            while (holdBestMove) {
+                try {
+                    lock.wait();
+                } catch (InterruptedException e) {
+                    Thread.currentThread().interrupt();
+                    break;
+                }
+            }
+            if (pendingStop != null) {
+                pendingStop.cancel(false);
+                pendingStop = null;
+            }
+        }
+        if (best == Move.NONE) {
+            send("bestmove 0000");
+            return;
+        }
+        Position after = new Position(root);
+        after.makeMove(best);
+        int ponderMove = hashMove(after);
+        send("bestmove " + Move.toNotation(best) + (ponderMove != Move.NONE ? " ponder " + Move.toNotation(ponderMove) : ""));
+    }
+
+    /**
+     * Handles {@code ponderhit}: the predicted move was played, so the
+     * ponder search continues on the clock it was given.
+     */
+    private void ponderHit() {
+        synchronized (lock) {
+            if (worker == null || !pondering) {
+                return;
+            }
+            pondering = false;
+            holdBestMove = false;
+            lock.notifyAll();
+            if (ponderLimitMillis > 0) {
+                pendingStop = timer.schedule(search::stop, ponderLimitMillis, TimeUnit.MILLISECONDS);
+            }
+        }
+    }
+
+    /**
+     * Stops a running search and waits until its best move has been sent.
+     */
+    private void stopSearch() {
+        if (worker == null) {
+            return;
+        }
+        synchronized (lock) {
+            holdBestMove = false;
+            pondering = false;
+            lock.notifyAll();
+        }
+        try {
+            // Repeated in case the worker had not yet started searching
+            while (worker.isAlive()) {
+                search.stop();
+                worker.join(STOP_POLL_MILLIS);
+            }
+        } catch (InterruptedException e) {
+            Thread.currentThread().interrupt();
+        }
+        worker = null;
+    }
+
+    /**
+     * Decides how long to think from the remaining clock time: an even
+     * share of the time for the moves left, plus most of the increment,
+     * but never more than half of the clock.
+     *
+     * @return The time for this move in milliseconds, or 0 for no limit.
+     */
+    static long allocateTime(long remaining, long increment, int movesToGo) {
+        if (remaining <= 0) {
+            return 0;
+        }
+        long share = remaining / (movesToGo > 0 ? movesToGo + 1 : DEFAULT_MOVES_TO_GO) + increment * 3 / 4;
+        long usable = Math.max(1, remaining - MOVE_OVERHEAD_MILLIS);
+        return Math.max(1, Math.min(share, usable / 2));
+    }
+
+    private void createSearch() {
+        if (search != null) {
+            search.shutdown();
+        }
+        table = new TranspositionTable(hashMegabytes);
+        search = new ParallelSearch(table, threads);
+        search.setTablebases(tablebases);
+    }
+
+    /**
+     * Returns the legal move written in long algebraic notation, e.g. "e7e8q".
+     */
+    private static int findMove(Position position, String text, int[] moves) {
+        int count = MoveGenerator.generateLegal(position, position.sideToMove(), moves, 0);
+        for (int i = 0; i < count; i++) {
+            if (Move.toNotation(moves[i]).equals(text)) {
+                return moves[i];
+            }
+        }
+        return Move.NONE;
+    }
+
+    /**
+     * Returns the transposition table's move for a position if it is legal there.
+     */
+    private int hashMove(Position position) {
+        long entry = table.probe(position.hashKey());
+        if (entry == 0) {
+            return Move.NONE;
+        }
+        int move = TranspositionTable.move(entry);
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        int count = MoveGenerator.generateLegal(position, position.sideToMove(), moves, 0);
+        for (int i = 0; i < count; i++) {
+            if (moves[i] == move) {
+                return move;
+            }
+        }
+        return Move.NONE;
+    }
+
+    /**
+     * Formats a score as UCI "cp x" or "mate n", counting mates in moves.
+     */
+    static String formatScore(int score) {
+        if (score > Search.MATE - Search.MAX_PLY) {
+            return "mate " + (Search.MATE - score + 1) / 2;
+        }
+        if (score < Search.MAX_PLY - Search.MATE) {
+            return "mate -" + (Search.MATE + score) / 2;
+        }
+        return "cp " + score;
+    }
+
+    private void send(String line) {
+        synchronized (out) {
+            out.println(line);
+            out.flush();
+        }
+    }
+
+    /**
+     * Sends an {@code info} line after every completed depth, with the
+     * principal variation read back from the transposition table.
+     */
+    private final class InfoListener implements SearchListener {
+        private final Position root;
+        private final long start;
+
+        InfoListener(Position root, long start) {
+            this.root = root;
+            this.start = start;
+        }
+
+        @Override
+        public void onIteration(int depth, int score, long nodes, long elapsedMillis, int bestMove) {
+            long total = search.getNodes();
+            long millis = Math.max(1, System.currentTimeMillis() - start);
+            StringBuilder text = new StringBuilder(128);
+            text.append("info depth ").append(depth)
+                    .append(" score ").append(formatScore(score))
+                    .append(" nodes ").append(total)
+                    .append(" nps ").append(total * 1000 / millis)
+                    .append(" time ").append(millis)
+                    .append(" hashfull ").append(table.hashfull())
+                    .append(" pv ").append(Move.toNotation(bestMove));
+
+            Position next = new Position(root);
+            next.makeMove(bestMove);
+            for (int i = 1; i < depth; i++) {
+                int move = hashMove(next);
+                if (move == Move.NONE || next.isRepetition()) {
+                    break;
+                }
+                text.append(' ').append(Move.toNotation(move));
+                next.makeMove(move);
+            }
+            send(text.toString());
+        }
+    }
+
+    /**
+     * Runs the engine over standard input and output.
+     *
+     * @param args Not used.
+     * @throws IOException If reading standard input fails.
+     */
+    public static void main(String[] args) throws IOException {
+        BufferedReader in = new BufferedReader(new InputStreamReader(System.in, StandardCharsets.UTF_8));
+        new Uci(in, System.out).run();
+    }
+}
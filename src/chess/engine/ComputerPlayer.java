@@ -0,0 +1,135 @@
+package chess.engine;
+
+import chess.Board;
+import chess.Position;
+import chess.gameUtils.Move;
+import java.util.Random;
+
+/**
+ * Computer opponent that chooses moves for one side of a game.
+ *
+ * Each decision searches a private copy of the board's position, so the
+ * board shown to the player is never modified while the computer thinks.
+ * The search deepens until its time budget or maximum depth is reached, and
+ * can run on several threads at once. With an {@link OpeningBook}, book
+ * moves are played instantly while the game is still in the book, and with
+ * {@link Tablebases}, endgames they cover are played perfectly.
+ */
+public class ComputerPlayer {
+
+    private static final int DEFAULT_MAX_DEPTH = 64;
+    private static final long DEFAULT_TIME_LIMIT_MILLIS = 1000;
+    private static final int TABLE_SIZE_MB = 16;
+
+    private final TranspositionTable table;
+    private final ParallelSearch search;
+    private final int maxDepth;
+    private final long timeLimitMillis;
+    private final Random random = new Random();
+    private OpeningBook book;
+    private Tablebases tablebases;
+
+    /**
+     * Constructs a computer player thinking for the default time per move.
+     */
+    public ComputerPlayer() {
+        this(DEFAULT_MAX_DEPTH, DEFAULT_TIME_LIMIT_MILLIS);
+    }
+
+    /**
+     * Constructs a computer player searching to a given depth without a time limit.
+     *
+     * @param depth Search depth in plies.
+     */
+    public ComputerPlayer(int depth) {
+        this(depth, 0);
+    }
+
+    /**
+     * Constructs a computer player with a depth and time limit.
+     *
+     * @param maxDepth Maximum search depth in plies.
+     * @param timeLimitMillis Time per move in milliseconds, or 0 for no limit.
+     */
+    public ComputerPlayer(int maxDepth, long timeLimitMillis) {
+        this(maxDepth, timeLimitMillis, 1);
+    }
+
+    /**
+     * Constructs a computer player with a depth and time limit that searches
+     * on several threads.
+     *
+     * @param maxDepth Maximum search depth in plies.
+     * @param timeLimitMillis Time per move in milliseconds, or 0 for no limit.
+     * @param threads Number of search threads.
+     */
+    public ComputerPlayer(int maxDepth, long timeLimitMillis, int threads) {
+        this.table = new TranspositionTable(TABLE_SIZE_MB);
+        this.search = new ParallelSearch(table, threads);
+        this.maxDepth = maxDepth;
+        this.timeLimitMillis = timeLimitMillis;
+    }
+
+    /**
+     * Chooses a move for one side in the current board position.
+     *
+     * @param board The game board.
+     * @param white True to move for white, false to move for black.
+     * @return The chosen packed move, or 0 if that side has no legal move.
+     */
+    public int chooseMove(Board board, boolean white) {
+        Position position = new Position(board.getPosition());
+        position.setSideToMove(white ? Position.WHITE : Position.BLACK);
+        if (book != null) {
+            int move = book.chooseMove(position, random);
+            if (move != Move.NONE) {
+                return move;
+            }
+        }
+        if (tablebases != null) {
+            int move = tablebases.bestMove(position);
+            if (move != Move.NONE) {
+                return move;
+            }
+        }
+        table.newSearch();
+        return search.findBestMove(position, maxDepth, timeLimitMillis);
+    }
+
+    /**
+     * Lets the player take its moves from an opening book when the position
+     * is in the book, choosing among the book moves by their weights.
+     *
+     * @param book The book, or null to always search.
+     */
+    public void setOpeningBook(OpeningBook book) {
+        this.book = book;
+    }
+
+    /**
+     * Lets the player play covered endgames from tablebases, and score them
+     * exactly when they appear in its search.
+     *
+     * @param tablebases The tablebases, or null to always search.
+     */
+    public void setTablebases(Tablebases tablebases) {
+        this.tablebases = tablebases;
+        search.setTablebases(tablebases);
+    }
+
+    /**
+     * Returns the main-thread search used by this player, e.g. to attach a listener.
+     *
+     * @return The search.
+     */
+    public Search getSearch() {
+        return search.getMainSearch();
+    }
+
+    /**
+     * Releases the player's helper threads.
+     */
+    public void shutdown() {
+        search.shutdown();
+    }
+}
@@ -0,0 +1,177 @@
+package chess.engine;
+
+import chess.Position;
+
+/**
+ * Describes one endgame covered by the tablebases and numbers its positions.
+ *
+ * Every endgame is stored with the stronger side as white and the lone king
+ * as black; positions with the colors the other way round are mirrored
+ * before they are looked up. The squares of a position are listed as the
+ * strong king, the lone king, then the strong side's other pieces in the
+ * order of {@link #types}, and the index of the position packs them six bits
+ * each after the side to move.
+ *
+ * Board symmetry keeps the tables small: without pawns, the board is
+ * mirrored and rotated until the strong king stands in the a1-d1-d4
+ * triangle (10 squares instead of 64), and with pawns, which only move one
+ * way, it is mirrored left to right until the strong king stands on files
+ * a to d. When a position still has two equivalent forms, the one with the
+ * lower index is used, so every position has exactly one index.
+ */
+final class Endgame {
+
+    static final int STRONG = 0;
+    static final int WEAK = 1;
+
+    /**
+     * Square mappings of the eight board symmetries: bit 0 mirrors the
+     * columns, bit 1 mirrors the lines and bit 2 swaps lines and columns.
+     */
+    private static final int[][] TRANSFORMS = new int[8][64];
+    private static final int[][] PAWNLESS_TRANSFORMS = new int[64][];
+    private static final int[][] PAWN_TRANSFORMS = new int[64][];
+    private static final int[] PAWNLESS_SLOTS = new int[64];
+    private static final int[] PAWN_SLOTS = new int[64];
+    private static final int[] PAWNLESS_KING_SQUARES = new int[10];
+    private static final int[] PAWN_KING_SQUARES = new int[32];
+
+    static {
+        for (int t = 0; t < 8; t++) {
+            for (int square = 0; square < 64; square++) {
+                int line = square >>> 3;
+                int column = square & 7;
+                if ((t & 1) != 0) column = 7 - column;
+                if ((t & 2) != 0) line = 7 - line;
+                TRANSFORMS[t][square] = (t & 4) != 0 ? Position.square(column, line) : Position.square(line, column);
+            }
+        }
+
+        int pawnless = 0;
+        int pawn = 0;
+        for (int square = 0; square < 64; square++) {
+            int rank = 7 - (square >>> 3);
+            int file = square & 7;
+            PAWNLESS_SLOTS[square] = -1;
+            PAWN_SLOTS[square] = -1;
+            if (file < 4 && rank <= file) {
+                PAWNLESS_SLOTS[square] = pawnless;
+                PAWNLESS_KING_SQUARES[pawnless++] = square;
+            }
+            if (file < 4) {
+                PAWN_SLOTS[square] = pawn;
+                PAWN_KING_SQUARES[pawn++] = square;
+            }
+        }
+
+        for (int square = 0; square < 64; square++) {
+            PAWNLESS_TRANSFORMS[square] = transformsInto(square, PAWNLESS_SLOTS, 8);
+            PAWN_TRANSFORMS[square] = transformsInto(square, PAWN_SLOTS, 2);
+        }
+    }
+
+    // Created after the static tables above, which their constructor reads
+    static final Endgame KQK = new Endgame("KQK", Position.QUEEN);
+    static final Endgame KRK = new Endgame("KRK", Position.ROOK);
+    static final Endgame KPK = new Endgame("KPK", Position.PAWN);
+    static final Endgame KBNK = new Endgame("KBNK", Position.BISHOP, Position.KNIGHT);
+
+    /**
+     * The endgames in the order they are generated: a pawn promotes into
+     * the endgames listed before it.
+     */
+    static final Endgame[] ALL = {KQK, KRK, KPK, KBNK};
+
+    final String name;
+    final int[] types;
+    final boolean pawns;
+    final int size;
+
+    private final int[][] kingTransforms;
+    private final int[] kingSlots;
+    private final int[] kingSquares;
+
+    private Endgame(String name, int... types) {
+        this.name = name;
+        this.types = types;
+        this.pawns = types[0] == Position.PAWN;
+        this.kingTransforms = pawns ? PAWN_TRANSFORMS : PAWNLESS_TRANSFORMS;
+        this.kingSlots = pawns ? PAWN_SLOTS : PAWNLESS_SLOTS;
+        this.kingSquares = pawns ? PAWN_KING_SQUARES : PAWNLESS_KING_SQUARES;
+        this.size = kingSquares.length * 2 << (6 * (types.length + 1));
+    }
+
+    /**
+     * Returns the number of squares listed for a position of this endgame.
+     */
+    int squareCount() {
+        return types.length + 2;
+    }
+
+    /**
+     * Returns the index of a position, in its canonical form.
+     *
+     * @param sideToMove {@link #STRONG} or {@link #WEAK}.
+     * @param squares The squares of the pieces, strong king first; not modified.
+     * @return The index, below {@link #size}.
+     */
+    int index(int sideToMove, int[] squares) {
+        return index(sideToMove, squares, squares.length);
+    }
+
+    /**
+     * Returns the index of a position whose squares fill the start of a
+     * longer buffer.
+     *
+     * @param sideToMove {@link #STRONG} or {@link #WEAK}.
+     * @param squares The squares of the pieces, strong king first; not modified.
+     * @param count The number of pieces, {@link #squareCount()}.
+     * @return The index, below {@link #size}.
+     */
+    int index(int sideToMove, int[] squares, int count) {
+        int best = Integer.MAX_VALUE;
+        for (int t : kingTransforms[squares[0]]) {
+            int[] transform = TRANSFORMS[t];
+            int index = kingSlots[transform[squares[0]]];
+            for (int i = 1; i < count; i++) {
+                index = index << 6 | transform[squares[i]];
+            }
+            best = Math.min(best, index << 1 | sideToMove);
+        }
+        return best;
+    }
+
+    /**
+     * Restores the squares of the position with a given index.
+     *
+     * @param index The index.
+     * @param squares Receives the squares, strong king first.
+     * @return The side to move.
+     */
+    int decode(int index, int[] squares) {
+        int sideToMove = index & 1;
+        index >>>= 1;
+        for (int i = squares.length - 1; i > 0; i--) {
+            squares[i] = index & 63;
+            index >>>= 6;
+        }
+        squares[0] = kingSquares[index];
+        return sideToMove;
+    }
+
+    /**
+     * Lists the symmetries that bring a king square into the allowed region.
+     */
+    private static int[] transformsInto(int square, int[] slots, int count) {
+        int[] found = new int[count];
+        int n = 0;
+        for (int t = 0; t < count; t++) {
+            if (slots[TRANSFORMS[t][square]] >= 0) {
+                found[n++] = t;
+            }
+        }
+        int[] result = new int[n];
+        System.arraycopy(found, 0, result, 0, n);
+        return result;
+    }
+}
@@ -0,0 +1,60 @@
+package chess.engine;
+
+import chess.Position;
+import chess.gameUtils.PieceSquareTables;
+
+/**
+ * Static evaluation of positions for the computer opponent.
+ *
+ * The score is material plus piece-square scores (see
+ * {@link PieceSquareTables}). A {@link Position} keeps both as running sums
+ * updated on every move and take-back, so evaluating a position only reads
+ * four counters.
+ */
+public final class Evaluator {
+
+    private Evaluator() {
+    }
+
+    /**
+     * Returns the value of a piece type.
+     *
+     * @param type Type index of the piece.
+     * @return Value in centipawns.
+     */
+    public static int pieceValue(int type) {
+        return PieceSquareTables.material(type);
+    }
+
+    /**
+     * Returns the material balance of a position, as shown to the player.
+     *
+     * @param position The position to evaluate.
+     * @return Positive values favor white, negative values favor black.
+     */
+    public static int materialBalance(Position position) {
+        return position.material(Position.WHITE) - position.material(Position.BLACK);
+    }
+
+    /**
+     * Evaluates a position from white's point of view.
+     *
+     * @param position The position to evaluate.
+     * @return Positive scores favor white, negative scores favor black.
+     */
+    public static int evaluate(Position position) {
+        return materialBalance(position)
+                + position.placement(Position.WHITE) - position.placement(Position.BLACK);
+    }
+
+    /**
+     * Evaluates a position from the point of view of the side to move.
+     *
+     * @param position The position to evaluate.
+     * @return Positive scores favor the side to move.
+     */
+    public static int evaluateForSideToMove(Position position) {
+        int score = evaluate(position);
+        return position.sideToMove() == Position.WHITE ? score : -score;
+    }
+}
@@ -0,0 +1,145 @@
+package chess.engine;
+
+import chess.Position;
+import chess.gameUtils.Move;
+import chess.gameUtils.MoveGenerator;
+import chess.gameUtils.PgnGame;
+import chess.gameUtils.San;
+import java.util.Locale;
+
+/**
+ * Annotates recorded games with the engine's evaluation of every move.
+ *
+ * Each position of the game is searched to a fixed depth once. The score
+ * of the position after a move, seen from white's side, becomes the
+ * comment of that move, and the difference between the best score and the
+ * score of the move played tells how much the move lost: moves that lose
+ * at least {@link #MISTAKE} centipawns are marked "?" and those that lose
+ * at least {@link #BLUNDER} are marked "??", with the better move named in
+ * the comment.
+ *
+ * An analyzer owns its search and transposition table and is not thread
+ * safe; analyzing games in parallel takes one analyzer per thread.
+ */
+public class GameAnalyzer {
+
+    public static final int MISTAKE = 100;
+    public static final int BLUNDER = 300;
+
+    private static final int NAG_MISTAKE = 2;
+    private static final int NAG_BLUNDER = 4;
+
+    /**
+     * Plies left free in the position's undo stack for the search itself.
+     */
+    private static final int SEARCH_HISTORY = 2 * Search.MAX_PLY;
+
+    private final TranspositionTable table;
+    private final Search search;
+    private final int depth;
+    private final int[] moveBuffer = new int[MoveGenerator.MAX_MOVES];
+    private int lastBestMove;
+    private long nodes;
+
+    /**
+     * Constructs an analyzer.
+     *
+     * @param depth Search depth in plies for every position.
+     * @param tableMegabytes Size of the analyzer's transposition table in MB.
+     */
+    public GameAnalyzer(int depth, int tableMegabytes) {
+        this.table = new TranspositionTable(tableMegabytes);
+        this.search = new Search(table);
+        this.depth = depth;
+    }
+
+    /**
+     * Adds an evaluation comment to every move of a game, and a "?" or "??"
+     * glyph to the moves that lose too much. The engine starts every game
+     * afresh, so the annotations do not depend on the games analyzed before.
+     * Games longer than the position's undo stack allows are only analyzed
+     * up to that point.
+     *
+     * @param game The game to annotate.
+     * @throws IllegalArgumentException If the game's "FEN" tag is not a valid FEN record.
+     */
+    public void annotate(PgnGame game) {
+        Position position = game.startPosition();
+        table.clear();
+        search.clearHistory();
+        int plies = Math.min(game.getMoveCount(), Position.MAX_HISTORY - SEARCH_HISTORY);
+        int[] scores = new int[plies + 1];
+        int[] bestMoves = new int[plies + 1];
+
+        for (int i = 0; i <= plies; i++) {
+            table.newSearch();
+            scores[i] = score(position, 0);
+            bestMoves[i] = lastBestMove;
+            if (i < plies) {
+                position.makeMove(game.getMove(i));
+            }
+        }
+
+        // Walk back through the game so each move is annotated from the position it was played in
+        for (int ply = plies - 1; ply >= 0; ply--) {
+            position.unmakeMove();
+            int sign = position.sideToMove() == Position.WHITE ? 1 : -1;
+            int played = -scores[ply + 1];
+            int loss = scores[ply] - played;
+            String comment = formatScore(sign * played);
+            if (loss >= MISTAKE && bestMoves[ply] != Move.NONE && bestMoves[ply] != game.getMove(ply)) {
+                game.setNag(ply, loss >= BLUNDER ? NAG_BLUNDER : NAG_MISTAKE);
+                comment += "; best " + San.toString(position, bestMoves[ply]) + " " + formatScore(sign * scores[ply]);
+            }
+            game.setComment(ply, comment);
+        }
+        game.setTag("Annotator", "chess.engine.GameAnalyzer, depth " + depth);
+    }
+
+    /**
+     * Returns the number of nodes searched by this analyzer so far.
+     *
+     * @return The node count.
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Scores a position from the side to move's point of view and leaves
+     * the best move in {@code lastBestMove}. Positions with a single legal
+     * move are scored through the forced reply, since the search does not
+     * score them.
+     */
+    private int score(Position position, int ply) {
+        int count = MoveGenerator.generateLegal(position, position.sideToMove(), moveBuffer, 0);
+        if (count == 0) {
+            lastBestMove = Move.NONE;
+            return position.inCheck() ? -Search.MATE : 0;
+        }
+        if (count == 1 && ply < Search.MAX_PLY) {
+            int forced = moveBuffer[0];
+            position.makeMove(forced);
+            int score = -score(position, ply + 1);
+            position.unmakeMove();
+            lastBestMove = forced;
+            // A mate seen through the forced move is one ply further away
+            return score > Search.MATE - Search.MAX_PLY ? score - 1 : score < Search.MAX_PLY - Search.MATE ? score + 1 : score;
+        }
+        lastBestMove = search.findBestMove(position, depth);
+        nodes += search.getNodes();
+        return search.getLastScore();
+    }
+
+    /**
+     * Formats a score from white's point of view in pawns, or as a mate
+     * distance in moves (e.g., "+0.35", "-1.20", "#3", "#-2").
+     */
+    private static String formatScore(int score) {
+        if (Math.abs(score) > Search.MATE - Search.MAX_PLY) {
+            int moves = (Search.MATE - Math.abs(score) + 1) / 2;
+            return score > 0 ? "#" + moves : "#-" + moves;
+        }
+        return String.format(Locale.ROOT, "%+.2f", score / 100.0);
+    }
+}
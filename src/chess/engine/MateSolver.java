@@ -0,0 +1,467 @@
+package chess.engine;
+
+import chess.ChallengeManager;
+import chess.Position;
+import chess.gameUtils.Fen;
+import chess.gameUtils.Move;
+import chess.gameUtils.MoveGenerator;
+import chess.gameUtils.San;
+import java.util.Arrays;
+import java.util.HashSet;
+import java.util.Set;
+import java.util.SplittableRandom;
+
+/**
+ * Proves forced mates with depth-first proof-number search (df-pn).
+ *
+ * Proof-number search treats "the side to move mates within N moves" as an
+ * AND/OR tree: the attacker needs one move that works, the defender must
+ * be refuted on every reply. Each node carries a proof number, the least
+ * number of leaves still to prove to show the mate, and a disproof number,
+ * the same for refuting it, and the search always expands the most
+ * promising node. Positions with few replies, such as checks, are proven
+ * first, which finds forced mates with far fewer nodes than alpha-beta.
+ * The depth-first variant keeps only the current path on the stack and
+ * remembers the numbers of other nodes in a hash table of its own, which
+ * also merges transpositions.
+ *
+ * Mate lengths are tried one after another, so the reported mate is the
+ * shortest. The solver is not thread safe.
+ */
+public class MateSolver {
+
+    /**
+     * Returned by {@link #solve} when there is no mate within the given number of moves.
+     */
+    public static final int NO_MATE = 0;
+
+    /**
+     * Returned by {@link #solve} when the node limit ran out before an answer was found.
+     */
+    public static final int UNKNOWN = -1;
+
+    private static final int INFINITY = 100000000;
+    private static final int MAX_PLIES = 63;
+    private static final long DEFAULT_NODE_LIMIT = 10000000;
+
+    /**
+     * Keys mixed into the position key for each number of plies left, since
+     * the same position can be a mate in two but not in one.
+     */
+    private static final long[] PLIES_KEYS = new long[MAX_PLIES + 1];
+
+    static {
+        SplittableRandom random = new SplittableRandom(0x6D61746553L);
+        for (int i = 0; i < PLIES_KEYS.length; i++) {
+            PLIES_KEYS[i] = random.nextLong();
+        }
+    }
+
+    private final ProofTable table;
+    private final int[][] moveBuffers = new int[MAX_PLIES + 1][MoveGenerator.MAX_MOVES];
+    private final long[][] keyBuffers = new long[MAX_PLIES + 1][MoveGenerator.MAX_MOVES];
+    private final boolean[][] checkBuffers = new boolean[MAX_PLIES + 1][MoveGenerator.MAX_MOVES];
+
+    private long nodeLimit = DEFAULT_NODE_LIMIT;
+    private long nodes;
+    private boolean aborted;
+    private int[] mateLine = new int[0];
+    private int proofSize;
+
+    /**
+     * Constructs a solver.
+     *
+     * @param tableMegabytes Size of the solver's proof table in MB.
+     */
+    public MateSolver(int tableMegabytes) {
+        this.table = new ProofTable(tableMegabytes);
+    }
+
+    /**
+     * Limits the number of nodes a single {@link #solve} call may expand.
+     *
+     * @param nodeLimit The node budget.
+     */
+    public void setNodeLimit(long nodeLimit) {
+        this.nodeLimit = nodeLimit;
+    }
+
+    /**
+     * Looks for the shortest forced mate by the side to move.
+     *
+     * @param position The position; it is restored before returning.
+     * @param maxMoves Longest mate to look for, in moves of the side to move (at most 32).
+     * @return The length of the shortest mate in moves, {@link #NO_MATE} if
+     *         there is none within {@code maxMoves}, or {@link #UNKNOWN} if
+     *         the node limit was reached first.
+     */
+    public int solve(Position position, int maxMoves) {
+        if (maxMoves < 1 || 2 * maxMoves - 1 > MAX_PLIES) {
+            throw new IllegalArgumentException("Mate length must be between 1 and " + (MAX_PLIES + 1) / 2 + ": " + maxMoves);
+        }
+        table.clear();
+        nodes = 0;
+        aborted = false;
+        mateLine = new int[0];
+        proofSize = 0;
+
+        for (int moves = 1; moves <= maxMoves; moves++) {
+            int plies = 2 * moves - 1;
+            if (!prove(position, plies, 0)) {
+                if (aborted) {
+                    return UNKNOWN;
+                }
+                continue;
+            }
+            int[] line = new int[plies];
+            mateLine = Arrays.copyOf(line, extractLine(position, plies, 0, line, 0));
+            proofSize = countProof(position, plies, 0, new HashSet<>());
+            return moves;
+        }
+        return NO_MATE;
+    }
+
+    /**
+     * Returns the mating line of the last successful {@link #solve}: the
+     * attacker's moves with the defender's longest resistance.
+     *
+     * @return The packed moves, empty if no mate was found.
+     */
+    public int[] getMateLine() {
+        return mateLine.clone();
+    }
+
+    /**
+     * Returns the number of distinct positions in the proof of the last
+     * mate found: every defence, and one winning attack against each.
+     *
+     * @return Positions in the proof tree, 0 if no mate was found.
+     */
+    public int getProofSize() {
+        return proofSize;
+    }
+
+    /**
+     * Returns the number of nodes expanded by the last {@link #solve}.
+     *
+     * @return Node count.
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Runs df-pn from a position until it is proven or disproven.
+     *
+     * @return True if the attacker mates within {@code plies}.
+     */
+    private boolean prove(Position position, int plies, int ply) {
+        long key = key(position, plies);
+        int slot = table.find(key);
+        if (slot < 0 || (table.pn(slot) != 0 && table.dn(slot) != 0)) {
+            search(position, plies, ply, INFINITY, INFINITY);
+            slot = table.find(key);
+        }
+        return slot >= 0 && table.pn(slot) == 0;
+    }
+
+    /**
+     * Expands a node until its proof number reaches {@code proofLimit} or
+     * its disproof number reaches {@code disproofLimit}, then stores both.
+     * Attacker nodes are at even plies from the root, defender nodes at odd.
+     */
+    private void search(Position position, int plies, int ply, int proofLimit, int disproofLimit) {
+        if (++nodes > nodeLimit) {
+            aborted = true;
+        }
+        if (aborted) {
+            return;
+        }
+        boolean attacker = (ply & 1) == 0;
+        long key = key(position, plies);
+        int[] moves = moveBuffers[ply];
+        int count = MoveGenerator.generateLegal(position, position.sideToMove(), moves, 0);
+        if (count == 0 || plies == 0) {
+            boolean mated = !attacker && count == 0 && position.inCheck();
+            table.store(key, mated ? 0 : INFINITY, mated ? INFINITY : 0, 1);
+            return;
+        }
+
+        long[] keys = keyBuffers[ply];
+        boolean[] checks = checkBuffers[ply];
+        for (int i = 0; i < count; i++) {
+            position.makeMove(moves[i]);
+            keys[i] = key(position, plies - 1);
+            checks[i] = position.inCheck();
+            position.unmakeMove();
+        }
+
+        long startNodes = nodes;
+        while (true) {
+            // Attacker nodes need one proven child and defender nodes all of them
+            int proof = attacker ? INFINITY : 0;
+            int disproof = attacker ? 0 : INFINITY;
+            int best = -1;
+            int bestNumber = INFINITY;
+            int secondNumber = INFINITY;
+            int bestProof = 0;
+            int bestDisproof = 0;
+            for (int i = 0; i < count; i++) {
+                int childProof;
+                int childDisproof;
+                if (attacker && plies == 1 && !checks[i]) {
+                    // Only a check can mate on the last move
+                    childProof = INFINITY;
+                    childDisproof = 0;
+                } else {
+                    int slot = table.find(keys[i]);
+                    childProof = slot >= 0 ? table.pn(slot) : attacker && !checks[i] ? 2 : 1;
+                    childDisproof = slot >= 0 ? table.dn(slot) : 1;
+                }
+                int number = attacker ? childProof : childDisproof;
+                if (attacker) {
+                    proof = Math.min(proof, childProof);
+                    disproof = Math.min(INFINITY, disproof + childDisproof);
+                } else {
+                    proof = Math.min(INFINITY, proof + childProof);
+                    disproof = Math.min(disproof, childDisproof);
+                }
+                if (number < bestNumber) {
+                    secondNumber = bestNumber;
+                    bestNumber = number;
+                    best = i;
+                    bestProof = childProof;
+                    bestDisproof = childDisproof;
+                } else if (number < secondNumber) {
+                    secondNumber = number;
+                }
+            }
+
+            if (proof >= proofLimit || disproof >= disproofLimit || aborted) {
+                table.store(key, proof, disproof, nodes - startNodes + 1);
+                return;
+            }
+
+            int childProofLimit;
+            int childDisproofLimit;
+            if (attacker) {
+                childProofLimit = Math.min(proofLimit, secondNumber + 1);
+                childDisproofLimit = disproofLimit - disproof + bestDisproof;
+            } else {
+                childProofLimit = proofLimit - proof + bestProof;
+                childDisproofLimit = Math.min(disproofLimit, secondNumber + 1);
+            }
+            position.makeMove(moves[best]);
+            search(position, plies - 1, ply + 1, childProofLimit, childDisproofLimit);
+            position.unmakeMove();
+        }
+    }
+
+    /**
+     * Follows a proven node down to the mate, taking the quickest mate for
+     * the attacker and the longest resistance for the defender.
+     *
+     * @return The index in {@code line} after the last move written.
+     */
+    private int extractLine(Position position, int plies, int ply, int[] line, int index) {
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        int count = MoveGenerator.generateLegal(position, position.sideToMove(), moves, 0);
+        if (count == 0 || plies == 0) {
+            return index;
+        }
+        boolean attacker = (ply & 1) == 0;
+        int chosen = Move.NONE;
+        int chosenPlies = attacker ? Integer.MAX_VALUE : -1;
+        for (int i = 0; i < count; i++) {
+            position.makeMove(moves[i]);
+            int needed = pliesToMate(position, plies - 1, ply + 1);
+            position.unmakeMove();
+            if (needed >= 0 && (attacker ? needed < chosenPlies : needed > chosenPlies)) {
+                chosen = moves[i];
+                chosenPlies = needed;
+            }
+        }
+        if (chosen == Move.NONE) {
+            return index;
+        }
+        line[index] = chosen;
+        position.makeMove(chosen);
+        int end = extractLine(position, chosenPlies, ply + 1, line, index + 1);
+        position.unmakeMove();
+        return end;
+    }
+
+    /**
+     * Returns the fewest plies, at most {@code plies}, in which a node is
+     * proven, or -1 if it is not.
+     */
+    private int pliesToMate(Position position, int plies, int ply) {
+        for (int p = plies & 1; p <= plies; p += 2) {
+            if (prove(position, p, ply)) {
+                return p;
+            }
+        }
+        return -1;
+    }
+
+    /**
+     * Counts the distinct positions of a proof: every reply at defender
+     * nodes, and one proven move at attacker nodes.
+     */
+    private int countProof(Position position, int plies, int ply, Set<Long> seen) {
+        if (!seen.add(key(position, plies))) {
+            return 0;
+        }
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        int count = MoveGenerator.generateLegal(position, position.sideToMove(), moves, 0);
+        if (count == 0 || plies == 0) {
+            return 1;
+        }
+        boolean attacker = (ply & 1) == 0;
+        int size = 1;
+        for (int i = 0; i < count; i++) {
+            position.makeMove(moves[i]);
+            boolean proven = prove(position, plies - 1, ply + 1);
+            if (proven) {
+                size += countProof(position, plies - 1, ply + 1, seen);
+            }
+            position.unmakeMove();
+            if (attacker && proven) {
+                break;
+            }
+        }
+        return size;
+    }
+
+    private static long key(Position position, int plies) {
+        return position.hashKey() ^ PLIES_KEYS[plies];
+    }
+
+    /**
+     * Formats a mating line in SAN with move numbers, e.g. "1. Qh5+ Ke7 2. Qe5#".
+     *
+     * @param position The position the line starts from; it is restored before returning.
+     * @param line The packed moves.
+     * @return The line as text.
+     */
+    public static String formatLine(Position position, int[] line) {
+        StringBuilder out = new StringBuilder();
+        for (int i = 0; i < line.length; i++) {
+            boolean white = position.sideToMove() == Position.WHITE;
+            if (white || i == 0) {
+                out.append(position.fullmoveNumber()).append(white ? ". " : "... ");
+            }
+            out.append(San.toString(position, line[i])).append(' ');
+            position.makeMove(line[i]);
+        }
+        for (int i = 0; i < line.length; i++) {
+            position.unmakeMove();
+        }
+        return out.toString().trim();
+    }
+
+    /**
+     * Solves a position, or every challenge of {@link ChallengeManager},
+     * and prints the mate found with its proof size.
+     *
+     * @param args The longest mate in moves, then a FEN or "--challenges".
+     */
+    public static void main(String[] args) {
+        if (args.length < 2) {
+            System.out.println("Usage: java chess.engine.MateSolver <max moves> <fen> | --challenges");
+            return;
+        }
+        int maxMoves = Integer.parseInt(args[0]);
+        MateSolver solver = new MateSolver(64);
+        if (args[1].equals("--challenges")) {
+            for (int number = 1; number <= 10; number++) {
+                Position position = ChallengeManager.createChallenge(number).getPosition();
+                System.out.print("Challenge " + number + ": ");
+                if (Long.bitCount(position.pieces(Position.WHITE, Position.KING)) != 1
+                        || Long.bitCount(position.pieces(Position.BLACK, Position.KING)) != 1) {
+                    System.out.println("no position (each side needs one king)");
+                } else {
+                    report(solver, position, maxMoves);
+                }
+            }
+            return;
+        }
+        StringBuilder fen = new StringBuilder();
+        for (int i = 1; i < args.length; i++) {
+            fen.append(fen.length() > 0 ? " " : "").append(args[i]);
+        }
+        Position position = new Position();
+        Fen.parse(fen, position);
+        report(solver, position, maxMoves);
+    }
+
+    private static void report(MateSolver solver, Position position, int maxMoves) {
+        long start = System.nanoTime();
+        int moves = solver.solve(position, maxMoves);
+        long millis = (System.nanoTime() - start) / 1000000;
+        String side = position.sideToMove() == Position.WHITE ? "White" : "Black";
+        if (moves == UNKNOWN) {
+            System.out.println("undecided, node limit reached");
+        } else if (moves == NO_MATE) {
+            System.out.println(side + " has no mate in " + maxMoves + (maxMoves == 1 ? " move" : " moves"));
+        } else {
+            System.out.println(side + " mates in " + moves + ": " + formatLine(position, solver.getMateLine()));
+            System.out.println("  Proof size: " + solver.getProofSize() + " positions");
+        }
+        System.out.println("  Nodes: " + solver.getNodes() + ", time: " + millis + " ms");
+    }
+
+    /**
+     * Hash table of proof and disproof numbers. A bucket holds two entries,
+     * and a new entry replaces the one that took the least work to compute.
+     */
+    private static final class ProofTable {
+        private final long[] keys;
+        private final int[] proofs;
+        private final int[] disproofs;
+        private final long[] work;
+        private final int bucketMask;
+
+        ProofTable(int megabytes) {
+            int entries = Integer.highestOneBit((int) Math.min(1 << 28, Math.max(2, (long) megabytes * 1024 * 1024 / 24)));
+            keys = new long[entries];
+            proofs = new int[entries];
+            disproofs = new int[entries];
+            work = new long[entries];
+            bucketMask = entries / 2 - 1;
+        }
+
+        int find(long key) {
+            int first = ((int) key & bucketMask) * 2;
+            if (keys[first] == key && work[first] != 0) return first;
+            if (keys[first + 1] == key && work[first + 1] != 0) return first + 1;
+            return -1;
+        }
+
+        int pn(int slot) {
+            return proofs[slot];
+        }
+
+        int dn(int slot) {
+            return disproofs[slot];
+        }
+
+        void store(long key, int proof, int disproof, long effort) {
+            int first = ((int) key & bucketMask) * 2;
+            int slot = keys[first] == key ? first
+                    : keys[first + 1] == key ? first + 1
+                    : work[first] <= work[first + 1] ? first : first + 1;
+            // Solved nodes are worth keeping whatever they cost
+            boolean solved = proof == 0 || disproof == 0;
+            keys[slot] = key;
+            proofs[slot] = proof;
+            disproofs[slot] = disproof;
+            work[slot] = solved ? effort + (1L << 40) : effort;
+        }
+
+        void clear() {
+            Arrays.fill(keys, 0L);
+            Arrays.fill(work, 0L);
+        }
+    }
+}
@@ -0,0 +1,350 @@
+package chess.engine;
+
+import chess.Position;
+import chess.gameUtils.AttackTables;
+import chess.gameUtils.Fen;
+import chess.gameUtils.Move;
+import chess.gameUtils.MoveGenerator;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Random;
+
+/**
+ * Opening book in the Polyglot {@code .bin} format.
+ *
+ * A Polyglot book is a file of 16-byte entries sorted by position key: the
+ * 64-bit key, the move, a weight and a learning field, all big-endian.
+ * The file is memory-mapped read-only and searched in place, so opening a
+ * book takes no time and no heap whatever its size, and lookups touch only
+ * the few pages they read. A book can be shared by several players.
+ *
+ * Polyglot keys are not the engine's {@link chess.gameUtils.Zobrist} keys:
+ * they are built from the 781 fixed random numbers published with the
+ * Polyglot format. Those numbers are not shipped with this project and are
+ * read from a file given when the book is opened, either as text holding
+ * the 781 values in hexadecimal (such as the "Random64" table of the
+ * format description) or as 6248 bytes of big-endian binary. The numbers
+ * are checked against the keys the format description publishes for a few
+ * positions, so a wrong or reordered file is reported when the book is
+ * opened instead of silently finding no moves.
+ */
+public class OpeningBook {
+
+    /**
+     * System property holding the path of the book file.
+     */
+    public static final String BOOK_PROPERTY = "chess.book";
+
+    /**
+     * System property holding the path of the Polyglot random number file.
+     */
+    public static final String KEYS_PROPERTY = "chess.book.keys";
+
+    private static final int ENTRY_SIZE = 16;
+    private static final int RANDOM_COUNT = 781;
+    private static final int CASTLING_OFFSET = 768;
+    private static final int EN_PASSANT_OFFSET = 772;
+    private static final int TURN_OFFSET = 780;
+
+    /**
+     * Positions with their keys from the Polyglot format description,
+     * covering every piece kind, castling, en passant and the side to move.
+     */
+    private static final String[] CHECK_FENS = {
+            Fen.START,
+            "rnbqkbnr/ppp1p1pp/8/3pPp2/8/8/PPPP1PPP/RNBQKBNR w KQkq f6 0 3",
+            "rnbqkbnr/p1pppppp/8/8/PpP4P/8/1P1PPPP1/RNBQKBNR b KQkq c3 0 3",
+    };
+    private static final long[] CHECK_KEYS = {0x463B96181691FC9CL, 0x22A48B5A8E47FF78L, 0x3C8123EA7B067637L};
+
+    /**
+     * Entries per mapped segment; a single mapping cannot exceed 2 GB.
+     */
+    private static final int SEGMENT_SHIFT = 26;
+    private static final int SEGMENT_MASK = (1 << SEGMENT_SHIFT) - 1;
+
+    private final MappedByteBuffer[] segments;
+    private final long entryCount;
+    private final long[] random;
+
+    /**
+     * Opens a Polyglot book.
+     *
+     * @param book The {@code .bin} book file.
+     * @param randomKeys The file with the 781 Polyglot random numbers.
+     * @throws IOException If a file cannot be read, has the wrong size or
+     *         does not hold the Polyglot random numbers in their order.
+     */
+    public OpeningBook(Path book, Path randomKeys) throws IOException {
+        this.random = readRandomKeys(randomKeys);
+        Position position = new Position();
+        for (int i = 0; i < CHECK_FENS.length; i++) {
+            Fen.parse(CHECK_FENS[i], position);
+            if (key(position) != CHECK_KEYS[i]) {
+                throw new IOException("Not the Polyglot random numbers (wrong key for " + CHECK_FENS[i] + "): " + randomKeys);
+            }
+        }
+        try (FileChannel channel = FileChannel.open(book, StandardOpenOption.READ)) {
+            long size = channel.size();
+            if (size % ENTRY_SIZE != 0) {
+                throw new IOException("Not a Polyglot book (size is not a multiple of 16): " + book);
+            }
+            entryCount = size / ENTRY_SIZE;
+            segments = new MappedByteBuffer[(int) ((entryCount + SEGMENT_MASK) >>> SEGMENT_SHIFT)];
+            for (int i = 0; i < segments.length; i++) {
+                long start = ((long) i << SEGMENT_SHIFT) * ENTRY_SIZE;
+                segments[i] = channel.map(FileChannel.MapMode.READ_ONLY, start, Math.min(size - start, (long) ENTRY_SIZE << SEGMENT_SHIFT));
+            }
+        }
+    }
+
+    /**
+     * Opens the book named by the {@value #BOOK_PROPERTY} and
+     * {@value #KEYS_PROPERTY} system properties, e.g.
+     * {@code java -Dchess.book=book.bin -Dchess.book.keys=random64.txt chess.Main}.
+     *
+     * @return The book, or null if no book is set or it cannot be opened.
+     */
+    public static OpeningBook fromSystemProperties() {
+        String book = System.getProperty(BOOK_PROPERTY);
+        String keys = System.getProperty(KEYS_PROPERTY);
+        if (book == null) {
+            return null;
+        }
+        if (keys == null) {
+            System.out.println("Could not open the opening book: " + KEYS_PROPERTY
+                    + " must name the file with the Polyglot random numbers");
+            return null;
+        }
+        try {
+            return new OpeningBook(Paths.get(book), Paths.get(keys));
+        } catch (IOException e) {
+            System.out.println("Could not open the opening book: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Returns the number of entries in the book.
+     *
+     * @return The entry count.
+     */
+    public long size() {
+        return entryCount;
+    }
+
+    /**
+     * Computes the Polyglot key of a position. The en passant file only
+     * counts when a pawn of the side to move can actually capture.
+     *
+     * @param position The position.
+     * @return The 64-bit Polyglot key.
+     */
+    public long key(Position position) {
+        long key = 0;
+        for (long occupied = position.occupied(); occupied != 0; occupied &= occupied - 1) {
+            int square = Long.numberOfTrailingZeros(occupied);
+            int kind = 2 * position.typeAt(square) + (position.colorAt(square) == Position.WHITE ? 1 : 0);
+            key ^= random[64 * kind + 8 * (7 - (square >>> 3)) + (square & 7)];
+        }
+
+        int rights = position.castlingRights();
+        if ((rights & Position.WHITE_KINGSIDE) != 0) key ^= random[CASTLING_OFFSET];
+        if ((rights & Position.WHITE_QUEENSIDE) != 0) key ^= random[CASTLING_OFFSET + 1];
+        if ((rights & Position.BLACK_KINGSIDE) != 0) key ^= random[CASTLING_OFFSET + 2];
+        if ((rights & Position.BLACK_QUEENSIDE) != 0) key ^= random[CASTLING_OFFSET + 3];
+
+        int color = position.sideToMove();
+        int enPassant = position.enPassantSquare();
+        if (enPassant != Position.EMPTY
+                && (AttackTables.pawnAttacks(color ^ 1, enPassant) & position.pieces(color, Position.PAWN)) != 0) {
+            key ^= random[EN_PASSANT_OFFSET + (enPassant & 7)];
+        }
+        if (color == Position.WHITE) {
+            key ^= random[TURN_OFFSET];
+        }
+        return key;
+    }
+
+    /**
+     * Looks up the book moves of a position. Entries whose move is not
+     * legal in the position are ignored.
+     *
+     * @param position The position; it is not modified.
+     * @param moves Buffer receiving the packed moves.
+     * @param weights Buffer receiving the weight of each move.
+     * @return The number of moves found.
+     */
+    public int lookup(Position position, int[] moves, int[] weights) {
+        long key = key(position);
+        int[] legal = null;
+        int legalCount = 0;
+        int count = 0;
+        for (long index = firstEntry(key); index < entryCount && entryKey(index) == key; index++) {
+            if (legal == null) {
+                legal = new int[MoveGenerator.MAX_MOVES];
+                legalCount = MoveGenerator.generateLegal(position, position.sideToMove(), legal, 0);
+            }
+            MappedByteBuffer segment = segments[(int) (index >>> SEGMENT_SHIFT)];
+            int offset = (int) (index & SEGMENT_MASK) * ENTRY_SIZE;
+            int move = toMove(position, segment.getShort(offset + 8) & 0xFFFF, legal, legalCount);
+            if (move != Move.NONE && count < moves.length) {
+                moves[count] = move;
+                weights[count++] = segment.getShort(offset + 10) & 0xFFFF;
+            }
+        }
+        return count;
+    }
+
+    /**
+     * Picks a book move at random, each move being chosen with a
+     * probability proportional to its weight.
+     *
+     * @param position The position; it is not modified.
+     * @param random The source of randomness.
+     * @return The packed move, or {@link Move#NONE} if the book has no move to play.
+     */
+    public int chooseMove(Position position, Random random) {
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        int[] weights = new int[MoveGenerator.MAX_MOVES];
+        int count = lookup(position, moves, weights);
+        int total = 0;
+        for (int i = 0; i < count; i++) {
+            total += weights[i];
+        }
+        if (total == 0) {
+            return Move.NONE;
+        }
+        int pick = random.nextInt(total);
+        for (int i = 0; ; i++) {
+            pick -= weights[i];
+            if (pick < 0) {
+                return moves[i];
+            }
+        }
+    }
+
+    /**
+     * Returns the index of the first entry whose key is not below the given
+     * key, comparing keys as unsigned numbers.
+     */
+    private long firstEntry(long key) {
+        long low = 0;
+        long high = entryCount;
+        while (low < high) {
+            long middle = (low + high) >>> 1;
+            if (Long.compareUnsigned(entryKey(middle), key) < 0) {
+                low = middle + 1;
+            } else {
+                high = middle;
+            }
+        }
+        return low;
+    }
+
+    private long entryKey(long index) {
+        return segments[(int) (index >>> SEGMENT_SHIFT)].getLong((int) (index & SEGMENT_MASK) * ENTRY_SIZE);
+    }
+
+    /**
+     * Converts a Polyglot move to the matching legal move. Polyglot writes
+     * castling as the king taking its own rook, and numbers promotion
+     * pieces from knight (1) to queen (4) like {@link Position}'s types.
+     */
+    private static int toMove(Position position, int bookMove, int[] legal, int legalCount) {
+        int to = 8 * (7 - ((bookMove >>> 3) & 7)) + (bookMove & 7);
+        int from = 8 * (7 - ((bookMove >>> 9) & 7)) + ((bookMove >>> 6) & 7);
+        int promotion = (bookMove >>> 12) & 7;
+
+        if (position.typeAt(from) == Position.KING && position.colorAt(to) == position.colorAt(from)
+                && position.typeAt(to) == Position.ROOK) {
+            to = to > from ? from + 2 : from - 2;
+        }
+        for (int i = 0; i < legalCount; i++) {
+            int move = legal[i];
+            if (Move.from(move) == from && Move.to(move) == to
+                    && (Move.isPromotion(move) ? Move.promotion(move) == promotion : promotion == 0)) {
+                return move;
+            }
+        }
+        return Move.NONE;
+    }
+
+    /**
+     * Reads the 781 Polyglot random numbers, either from a binary file of
+     * 6248 bytes or from text in which they appear as 16-digit hexadecimal
+     * numbers, optionally prefixed with "0x".
+     */
+    private static long[] readRandomKeys(Path path) throws IOException {
+        byte[] bytes = Files.readAllBytes(path);
+        long[] keys = new long[RANDOM_COUNT];
+        if (bytes.length == RANDOM_COUNT * 8) {
+            for (int i = 0; i < RANDOM_COUNT; i++) {
+                for (int b = 0; b < 8; b++) {
+                    keys[i] = (keys[i] << 8) | (bytes[i * 8 + b] & 0xFF);
+                }
+            }
+            return keys;
+        }
+
+        String text = new String(bytes, StandardCharsets.US_ASCII);
+        int count = 0;
+        for (int i = 0; i < text.length(); ) {
+            if (text.startsWith("0x", i) || text.startsWith("0X", i)) {
+                i += 2;
+            }
+            int start = i;
+            while (i < text.length() && Character.digit(text.charAt(i), 16) >= 0) {
+                i++;
+            }
+            if (i - start == 16) {
+                if (count == RANDOM_COUNT) {
+                    throw new IOException("More than " + RANDOM_COUNT + " random numbers in " + path);
+                }
+                keys[count++] = Long.parseUnsignedLong(text.substring(start, i), 16);
+            }
+            if (i == start) {
+                i++;
+            }
+        }
+        if (count != RANDOM_COUNT) {
+            throw new IOException("Expected " + RANDOM_COUNT + " random numbers in " + path + ", found " + count);
+        }
+        return keys;
+    }
+
+    /**
+     * Lists the book moves of a position with their weights.
+     *
+     * @param args The book file, the random number file and an optional FEN.
+     * @throws IOException If a file cannot be read.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 2) {
+            System.out.println("Usage: java chess.engine.OpeningBook <book.bin> <random64> [fen]");
+            return;
+        }
+        OpeningBook book = new OpeningBook(Paths.get(args[0]), Paths.get(args[1]));
+        StringBuilder fen = new StringBuilder();
+        for (int i = 2; i < args.length; i++) {
+            fen.append(fen.length() > 0 ? " " : "").append(args[i]);
+        }
+        Position position = new Position();
+        Fen.parse(fen.length() > 0 ? fen : Fen.START, position);
+
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        int[] weights = new int[MoveGenerator.MAX_MOVES];
+        int count = book.lookup(position, moves, weights);
+        System.out.println("Entries: " + book.size());
+        System.out.println(String.format("Key: %016x", book.key(position)));
+        for (int i = 0; i < count; i++) {
+            System.out.println(Move.toNotation(moves[i]) + " " + weights[i]);
+        }
+    }
+}
@@ -0,0 +1,158 @@
+package chess.engine;
+
+import chess.Position;
+
+import java.util.ArrayList;
+import java.util.List;
+import java.util.concurrent.ExecutionException;
+import java.util.concurrent.ExecutorService;
+import java.util.concurrent.Executors;
+import java.util.concurrent.Future;
+
+/**
+ * Multi-threaded search using the Lazy SMP scheme.
+ *
+ * Every thread runs its own {@link Search} from the same root on its own
+ * copy of the {@link Position}, with its own move buffers, killer and history
+ * tables. The only thing the threads share is the lock-free
+ * {@link TranspositionTable}, through which they pass each other results
+ * and best moves. Half of the helper threads start one ply deeper than the
+ * main thread so that the threads spread over different parts of the tree.
+ *
+ * The calling thread performs the main search and decides the move; when it
+ * finishes, the helpers are stopped.
+ */
+public class ParallelSearch {
+
+    private final Search[] searches;
+    private final ExecutorService helpers;
+
+    /**
+     * Constructs a parallel search with a given number of threads.
+     *
+     * @param table The transposition table shared by all threads.
+     * @param threads Number of search threads, including the calling thread.
+     */
+    public ParallelSearch(TranspositionTable table, int threads) {
+        if (threads < 1) {
+            throw new IllegalArgumentException("Thread count must be at least 1: " + threads);
+        }
+        searches = new Search[threads];
+        for (int i = 0; i < threads; i++) {
+            searches[i] = new Search(table);
+        }
+        helpers = threads > 1 ? Executors.newFixedThreadPool(threads - 1, runnable -> {
+            Thread thread = new Thread(runnable, "search-helper");
+            thread.setDaemon(true);
+            return thread;
+        }) : null;
+    }
+
+    /**
+     * Searches a position on all threads and returns the best move found by
+     * the main thread.
+     *
+     * @param position The position to search; it is not modified.
+     * @param maxDepth Maximum search depth in plies.
+     * @param timeLimitMillis Time budget in milliseconds, or 0 for no limit.
+     * @return The best move found, or 0 if there are no legal moves.
+     */
+    public int findBestMove(Position position, int maxDepth, long timeLimitMillis) {
+        List<Future<?>> running = new ArrayList<>(searches.length - 1);
+        for (int i = 1; i < searches.length; i++) {
+            Search helper = searches[i];
+            Position copy = new Position(position);
+            int firstDepth = 1 + (i & 1);
+            helper.reset();
+            running.add(helpers.submit(() -> helper.iterate(copy, firstDepth, maxDepth, 0)));
+        }
+
+        try {
+            return searches[0].findBestMove(new Position(position), maxDepth, timeLimitMillis);
+        } finally {
+            for (int i = 1; i < searches.length; i++) {
+                searches[i].stop();
+            }
+            awaitAll(running);
+        }
+    }
+
+    /**
+     * Stops a running search on all threads.
+     */
+    public void stop() {
+        for (Search search : searches) {
+            search.stop();
+        }
+    }
+
+    /**
+     * Lets every thread score endgame positions from tablebases.
+     *
+     * @param tablebases The tablebases, or null to always search.
+     */
+    public void setTablebases(Tablebases tablebases) {
+        for (Search search : searches) {
+            search.setTablebases(tablebases);
+        }
+    }
+
+    /**
+     * Returns the number of positions visited by all threads in the last search.
+     *
+     * @return Node count.
+     */
+    public long getNodes() {
+        long total = 0;
+        for (Search search : searches) {
+            total += search.getNodes();
+        }
+        return total;
+    }
+
+    /**
+     * Returns the number of search threads.
+     *
+     * @return Thread count.
+     */
+    public int getThreadCount() {
+        return searches.length;
+    }
+
+    /**
+     * Returns the search run by the calling thread, whose results are used.
+     *
+     * @return The main search.
+     */
+    public Search getMainSearch() {
+        return searches[0];
+    }
+
+    /**
+     * Releases the helper threads. The search must not be used afterwards.
+     */
+    public void shutdown() {
+        if (helpers != null) {
+            helpers.shutdownNow();
+        }
+    }
+
+    private static void awaitAll(List<Future<?>> running) {
+        boolean interrupted = false;
+        for (Future<?> future : running) {
+            while (true) {
+                try {
+                    future.get();
+                    break;
+                } catch (InterruptedException e) {
+                    interrupted = true;
+                } catch (ExecutionException e) {
+                    throw new IllegalStateException("Search thread failed", e.getCause());
+                }
+            }
+        }
+        if (interrupted) {
+            Thread.currentThread().interrupt();
+        }
+    }
+}
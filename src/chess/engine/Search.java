@@ -0,0 +1,437 @@
+package chess.engine;
+
+import chess.Position;
+import chess.gameUtils.Move;
+import chess.gameUtils.MoveGenerator;
+import java.util.Arrays;
+
+/**
+ * Iterative deepening negamax alpha-beta search over a {@link Position}.
+ *
+ * The search plays moves with {@link Position#makeMove(int)} and takes them
+ * back with {@link Position#unmakeMove()}, generates strictly legal moves into
+ * per-ply buffers allocated once, and resolves captures at the horizon with a
+ * quiescence search. Results are shared through a {@link TranspositionTable}.
+ *
+ * Depths are searched one after another until the depth or time limit is
+ * reached, and each iteration is ordered by what the previous ones learned:
+ * the hash move first, then captures by most valuable victim and least
+ * valuable attacker, then killer moves, then quiet moves by their history of
+ * causing cutoffs. Good ordering makes alpha-beta cut off early and keeps the
+ * number of nodes per depth low.
+ *
+ * With {@link Tablebases}, positions the tables cover are scored exactly as
+ * soon as the search reaches them, without searching further.
+ */
+public class Search {
+
+    public static final int INFINITY = 32000;
+    public static final int MATE = 31000;
+    public static final int MAX_PLY = 128;
+
+    private static final int HASH_MOVE_SCORE = 1 << 30;
+    private static final int CAPTURE_SCORE = 1 << 28;
+    private static final int FIRST_KILLER_SCORE = 1 << 27;
+    private static final int SECOND_KILLER_SCORE = FIRST_KILLER_SCORE - 1;
+    private static final int HISTORY_LIMIT = 1 << 20;
+
+    private static final int TIME_CHECK_INTERVAL = 1023;
+
+    private final TranspositionTable table;
+    private final int[][] moveBuffers = new int[MAX_PLY + 1][MoveGenerator.MAX_MOVES];
+    private final int[][] scoreBuffers = new int[MAX_PLY + 1][MoveGenerator.MAX_MOVES];
+    private final int[][] killers = new int[MAX_PLY + 1][2];
+    private final int[][] history = new int[2][64 * 64];
+    private final int[] tablebaseSquares = new int[Tablebases.MAX_PIECES];
+
+    private boolean moveOrdering = true;
+    private SearchListener listener;
+    private Tablebases tablebases;
+
+    private long nodes;
+    private long deadline;
+    private volatile boolean stopped;
+    private int rootBestMove;
+    private int lastScore;
+    private int completedDepth;
+
+    /**
+     * Constructs a search that stores its results in the given table.
+     *
+     * @param table The transposition table to use.
+     */
+    public Search(TranspositionTable table) {
+        this.table = table;
+    }
+
+    /**
+     * Searches a position to a fixed depth and returns the best move for the side to move.
+     *
+     * @param position The position to search; it is restored before returning.
+     * @param depth Search depth in plies.
+     * @return The best move found, or {@link Move#NONE} if there are no legal moves.
+     */
+    public int findBestMove(Position position, int depth) {
+        return findBestMove(position, depth, 0);
+    }
+
+    /**
+     * Searches a position with iterative deepening until either the depth
+     * limit is reached or the time runs out, and returns the best move of
+     * the deepest completed iteration.
+     *
+     * @param position The position to search; it is restored before returning.
+     * @param maxDepth Maximum search depth in plies.
+     * @param timeLimitMillis Time budget in milliseconds, or 0 for no limit.
+     * @return The best move found, or {@link Move#NONE} if there are no legal moves.
+     */
+    public int findBestMove(Position position, int maxDepth, long timeLimitMillis) {
+        stopped = false;
+        return iterate(position, 1, maxDepth, timeLimitMillis);
+    }
+
+    /**
+     * Runs the iterative deepening loop without clearing the stop flag, so
+     * that a {@link #stop()} issued before a helper thread gets to run is
+     * not lost.
+     */
+    int iterate(Position position, int firstDepth, int maxDepth, long timeLimitMillis) {
+        long start = System.currentTimeMillis();
+        deadline = timeLimitMillis > 0 ? start + timeLimitMillis : Long.MAX_VALUE;
+        nodes = 0;
+        completedDepth = 0;
+        prepareHeuristics();
+
+        int[] moves = moveBuffers[0];
+        int count = MoveGenerator.generateLegal(position, position.sideToMove(), moves, 0);
+        int bestMove = count > 0 ? moves[0] : Move.NONE;
+        if (count <= 1) {
+            return bestMove;
+        }
+
+        for (int depth = firstDepth; depth <= Math.min(maxDepth, MAX_PLY - 1); depth++) {
+            long nodesBefore = nodes;
+            rootBestMove = Move.NONE;
+            int score = negamax(position, depth, -INFINITY, INFINITY, 0);
+            if (stopped) {
+                break;
+            }
+
+            bestMove = rootBestMove;
+            lastScore = score;
+            completedDepth = depth;
+            long elapsed = System.currentTimeMillis() - start;
+            if (listener != null) {
+                listener.onIteration(depth, score, nodes - nodesBefore, elapsed, bestMove);
+            }
+
+            // A forced mate will not change with more depth, and a new iteration
+            // started after half the budget is unlikely to finish in time
+            if (Math.abs(score) > MATE - MAX_PLY || elapsed * 2 > deadline - start) {
+                break;
+            }
+        }
+        return bestMove;
+    }
+
+    /**
+     * Asks a running search to stop as soon as possible. The search then
+     * returns the best move of its last completed iteration.
+     */
+    public void stop() {
+        stopped = true;
+    }
+
+    /**
+     * Clears the stop flag ahead of a call to {@link #iterate}.
+     */
+    void reset() {
+        stopped = false;
+    }
+
+    /**
+     * Forgets the move ordering statistics gathered by earlier searches, so
+     * that the next search gives the same result whatever ran before it.
+     */
+    void clearHistory() {
+        for (int[] table : history) {
+            Arrays.fill(table, 0);
+        }
+    }
+
+    /**
+     * Enables or disables move ordering in the main search, e.g. to measure
+     * its effect on node counts. Captures at the horizon are always ordered.
+     *
+     * @param enabled False to search moves in generation order.
+     */
+    public void setMoveOrdering(boolean enabled) {
+        this.moveOrdering = enabled;
+    }
+
+    /**
+     * Registers a listener notified after every completed iteration.
+     *
+     * @param listener The listener, or null to remove it.
+     */
+    public void setListener(SearchListener listener) {
+        this.listener = listener;
+    }
+
+    /**
+     * Lets the search score endgame positions from tablebases.
+     *
+     * @param tablebases The tablebases, or null to always search.
+     */
+    public void setTablebases(Tablebases tablebases) {
+        this.tablebases = tablebases;
+    }
+
+    /**
+     * Returns the number of positions visited by the last search.
+     *
+     * @return Node count.
+     */
+    public long getNodes() {
+        return nodes;
+    }
+
+    /**
+     * Returns the score of the last completed iteration.
+     *
+     * @return Score from the side to move's point of view.
+     */
+    public int getLastScore() {
+        return lastScore;
+    }
+
+    /**
+     * Returns the deepest iteration completed by the last search.
+     *
+     * @return Depth in plies.
+     */
+    public int getCompletedDepth() {
+        return completedDepth;
+    }
+
+    private void prepareHeuristics() {
+        for (int[] pair : killers) {
+            pair[0] = Move.NONE;
+            pair[1] = Move.NONE;
+        }
+        // Keep what earlier searches learned, but let it fade
+        for (int[] table : history) {
+            for (int i = 0; i < table.length; i++) {
+                table[i] >>= 2;
+            }
+        }
+    }
+
+    private int negamax(Position position, int depth, int alpha, int beta, int ply) {
+        boolean root = ply == 0;
+        if (!root && (position.isRepetition() || position.halfmoveClock() >= 100)) {
+            return 0;
+        }
+        if (!root && tablebases != null && Long.bitCount(position.occupied()) <= Tablebases.MAX_PIECES) {
+            int score = tablebases.probe(position, tablebaseSquares);
+            if (score != Tablebases.UNKNOWN) {
+                nodes++;
+                return score > 0 ? score - ply : score < 0 ? score + ply : 0;
+            }
+        }
+        if (depth <= 0 || ply >= MAX_PLY) {
+            return quiesce(position, alpha, beta, ply);
+        }
+        if ((++nodes & TIME_CHECK_INTERVAL) == 0 && System.currentTimeMillis() > deadline) {
+            stopped = true;
+        }
+        if (stopped) {
+            return 0;
+        }
+
+        long key = position.hashKey();
+        long entry = table.probe(key);
+        int hashMove = Move.NONE;
+        if (entry != 0) {
+            hashMove = TranspositionTable.move(entry);
+            if (!root && TranspositionTable.depth(entry) >= depth) {
+                int score = fromTable(TranspositionTable.score(entry), ply);
+                int bound = TranspositionTable.bound(entry);
+                if (bound == TranspositionTable.BOUND_EXACT
+                        || (bound == TranspositionTable.BOUND_LOWER && score >= beta)
+                        || (bound == TranspositionTable.BOUND_UPPER && score <= alpha)) {
+                    return score;
+                }
+            }
+        }
+
+        int color = position.sideToMove();
+        int[] moves = moveBuffers[ply];
+        int[] scores = scoreBuffers[ply];
+        int count = MoveGenerator.generateLegal(position, color, moves, 0);
+        if (count == 0) {
+            return position.inCheck() ? -MATE + ply : 0;
+        }
+        scoreMoves(moves, scores, count, hashMove, ply, color, moveOrdering);
+
+        int originalAlpha = alpha;
+        int bestMove = Move.NONE;
+        int bestScore = -INFINITY;
+        for (int i = 0; i < count; i++) {
+            int move = pickMove(moves, scores, i, count);
+            position.makeMove(move);
+            int score = -negamax(position, depth - 1, -beta, -alpha, ply + 1);
+            position.unmakeMove();
+            if (stopped) {
+                return 0;
+            }
+
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = move;
+                if (root) {
+                    rootBestMove = move;
+                }
+            }
+            if (score > alpha) {
+                alpha = score;
+            }
+            if (alpha >= beta) {
+                if (!Move.isCapture(move) && !Move.isPromotion(move)) {
+                    rememberCutoff(move, depth, ply, color);
+                }
+                break;
+            }
+        }
+
+        int bound = bestScore >= beta ? TranspositionTable.BOUND_LOWER
+                : bestScore > originalAlpha ? TranspositionTable.BOUND_EXACT : TranspositionTable.BOUND_UPPER;
+        table.store(key, bestMove, toTable(bestScore, ply), depth, bound);
+        return bestScore;
+    }
+
+    private int quiesce(Position position, int alpha, int beta, int ply) {
+        nodes++;
+        if (ply >= MAX_PLY) {
+            return Evaluator.evaluateForSideToMove(position);
+        }
+        boolean inCheck = position.inCheck();
+        int color = position.sideToMove();
+        int[] moves = moveBuffers[ply];
+        int[] scores = scoreBuffers[ply];
+        int count;
+
+        if (inCheck) {
+            count = MoveGenerator.generateLegal(position, color, moves, 0);
+            if (count == 0) {
+                return -MATE + ply;
+            }
+        } else {
+            int standPat = Evaluator.evaluateForSideToMove(position);
+            if (standPat >= beta) {
+                return standPat;
+            }
+            if (standPat > alpha) {
+                alpha = standPat;
+            }
+            count = MoveGenerator.generateLegalCaptures(position, color, moves, 0);
+        }
+        scoreMoves(moves, scores, count, Move.NONE, ply, color, true);
+
+        for (int i = 0; i < count; i++) {
+            int move = pickMove(moves, scores, i, count);
+            position.makeMove(move);
+            int score = -quiesce(position, -beta, -alpha, ply + 1);
+            position.unmakeMove();
+
+            if (score >= beta) {
+                return score;
+            }
+            if (score > alpha) {
+                alpha = score;
+            }
+        }
+        return alpha;
+    }
+
+    /**
+     * Gives every move an ordering score: hash move, then captures by
+     * MVV-LVA, then killers, then quiet moves by history.
+     */
+    private void scoreMoves(int[] moves, int[] scores, int count, int hashMove, int ply, int color,
+                            boolean ordered) {
+        if (!ordered) {
+            for (int i = 0; i < count; i++) {
+                scores[i] = 0;
+            }
+            return;
+        }
+        for (int i = 0; i < count; i++) {
+            int move = moves[i];
+            if (move == hashMove) {
+                scores[i] = HASH_MOVE_SCORE;
+            } else if (Move.isCapture(move) || Move.isPromotion(move)) {
+                int victim = Move.isCapture(move) ? Evaluator.pieceValue(Move.captured(move)) : 0;
+                int promotion = Move.isPromotion(move) ? Evaluator.pieceValue(Move.promotion(move)) : 0;
+                scores[i] = CAPTURE_SCORE + (victim + promotion) * 8 - Move.piece(move);
+            } else if (move == killers[ply][0]) {
+                scores[i] = FIRST_KILLER_SCORE;
+            } else if (move == killers[ply][1]) {
+                scores[i] = SECOND_KILLER_SCORE;
+            } else {
+                scores[i] = history[color][Move.from(move) * 64 + Move.to(move)];
+            }
+        }
+    }
+
+    /**
+     * Swaps the highest scored of the remaining moves into slot {@code index}
+     * and returns it, so only as many moves are sorted as are searched.
+     */
+    private static int pickMove(int[] moves, int[] scores, int index, int count) {
+        int best = index;
+        for (int i = index + 1; i < count; i++) {
+            if (scores[i] > scores[best]) {
+                best = i;
+            }
+        }
+        int move = moves[best];
+        moves[best] = moves[index];
+        moves[index] = move;
+        int score = scores[best];
+        scores[best] = scores[index];
+        scores[index] = score;
+        return move;
+    }
+
+    private void rememberCutoff(int move, int depth, int ply, int color) {
+        if (killers[ply][0] != move) {
+            killers[ply][1] = killers[ply][0];
+            killers[ply][0] = move;
+        }
+
+        int[] table = history[color];
+        int index = Move.from(move) * 64 + Move.to(move);
+        table[index] += depth * depth;
+        if (table[index] > HISTORY_LIMIT) {
+            for (int i = 0; i < table.length; i++) {
+                table[i] >>= 1;
+            }
+        }
+    }
+
+    /**
+     * Converts a mate score to be relative to the stored node rather than the root.
+     */
+    private static int toTable(int score, int ply) {
+        if (score > MATE - MAX_PLY) return score + ply;
+        if (score < -MATE + MAX_PLY) return score - ply;
+        return score;
+    }
+
+    private static int fromTable(int score, int ply) {
+        if (score > MATE - MAX_PLY) return score - ply;
+        if (score < -MATE + MAX_PLY) return score + ply;
+        return score;
+    }
+}
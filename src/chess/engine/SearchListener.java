@@ -0,0 +1,18 @@
+package chess.engine;
+
+/**
+ * Receives progress reports from an iterative deepening {@link Search}.
+ */
+public interface SearchListener {
+
+    /**
+     * Called each time a search depth has been completed.
+     *
+     * @param depth The depth just completed, in plies.
+     * @param score Score of the best move from the side to move's point of view.
+     * @param nodes Positions visited at this depth.
+     * @param elapsedMillis Time since the search started.
+     * @param bestMove The best move found so far.
+     */
+    void onIteration(int depth, int score, long nodes, long elapsedMillis, int bestMove);
+}
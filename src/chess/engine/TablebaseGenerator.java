@@ -0,0 +1,444 @@
+package chess.engine;
+
+import chess.Position;
+import chess.gameUtils.AttackTables;
+import chess.gameUtils.SlidingAttacks;
+import java.io.BufferedOutputStream;
+import java.io.DataOutputStream;
+import java.io.IOException;
+import java.io.OutputStream;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.util.HashMap;
+import java.util.Map;
+import java.util.concurrent.ForkJoinPool;
+import java.util.concurrent.RecursiveTask;
+
+/**
+ * Builds the endgame tablebases by retrograde analysis.
+ *
+ * For every position of an endgame the generator finds the distance to
+ * mate in plies with perfect play, or that the position is a draw. It
+ * starts from the positions where the lone king is checkmated and works
+ * backwards one ply per pass: a position with the strong side to move is
+ * won in n plies if some move reaches a position lost in n - 1, found by
+ * taking back moves from those positions; a position with the lone king to
+ * move is lost in n plies once every one of its moves reaches a won
+ * position, the last of them found in the previous pass. Positions never
+ * reached this way are draws. Each pass is split over a fork-join pool;
+ * a pass only writes positions with one side to move and only reads those
+ * with the other, so the workers need no locking.
+ *
+ * The tables ignore the fifty-move rule and castling. A pawn promoting to
+ * a queen or a rook continues in the tables generated before, while minor
+ * piece promotions and captures by the lone king always draw.
+ *
+ * Usage: {@code java chess.engine.TablebaseGenerator <directory> [--threads <n>]}
+ */
+public class TablebaseGenerator {
+
+    private static final byte UNKNOWN = 0;
+    private static final byte ILLEGAL = -1;
+    private static final int CHUNK = 1 << 14;
+
+    private final ForkJoinPool pool;
+    private final Map<Endgame, byte[]> generated = new HashMap<>();
+
+    /**
+     * Constructs a generator.
+     *
+     * @param threads Number of worker threads.
+     */
+    public TablebaseGenerator(int threads) {
+        this.pool = new ForkJoinPool(threads);
+    }
+
+    /**
+     * Generates every endgame and writes one file per endgame.
+     *
+     * @param directory The directory to write to; it is created if needed.
+     * @throws IOException If a file cannot be written.
+     */
+    public void generateAll(Path directory) throws IOException {
+        Files.createDirectories(directory);
+        for (Endgame endgame : Endgame.ALL) {
+            long start = System.nanoTime();
+            byte[] table = generate(endgame);
+            long won = 0;
+            long lost = 0;
+            int longest = 0;
+            for (int i = 0; i < table.length; i++) {
+                if (table[i] > 0) {
+                    if ((i & 1) == Endgame.STRONG) won++; else lost++;
+                    longest = Math.max(longest, table[i] - 1);
+                }
+            }
+            int bits = write(endgame, table, Tablebases.file(directory, endgame));
+            System.out.println(String.format("%-5s %9d positions, %9d won, %9d lost, longest mate %2d moves, %d bits, %d ms",
+                    endgame.name, table.length, won, lost, (longest + 1) / 2, bits, (System.nanoTime() - start) / 1000000));
+        }
+    }
+
+    /**
+     * Releases the worker threads.
+     */
+    public void shutdown() {
+        pool.shutdown();
+    }
+
+    /**
+     * Solves one endgame. The endgames a pawn promotes into must have been
+     * generated first.
+     *
+     * @return One entry per index: 0 for a draw, -1 for an illegal index,
+     *         otherwise the distance to mate in plies plus one.
+     */
+    byte[] generate(Endgame endgame) {
+        byte[] table = new byte[endgame.size];
+        byte[] promotions = endgame.pawns ? new byte[endgame.size] : null;
+        int lastPromotion = run((from, to) -> initialize(endgame, table, promotions, from, to), endgame.size) > 0 ? maxOf(promotions) : 0;
+
+        for (int plies = 1; ; plies++) {
+            if (plies + 1 > Byte.MAX_VALUE) {
+                throw new IllegalStateException(endgame.name + ": mate distances do not fit in a byte");
+            }
+            int ply = plies;
+            long found = ply % 2 == 1
+                    ? run((from, to) -> strongPass(endgame, table, promotions, ply, from, to), endgame.size)
+                    : run((from, to) -> weakPass(endgame, table, ply, from, to), endgame.size);
+            if (found == 0 && plies >= lastPromotion && ply % 2 == 0) {
+                break;
+            }
+        }
+        generated.put(endgame, table);
+        return table;
+    }
+
+    /**
+     * Marks illegal and duplicate indices, checkmates, and for pawn
+     * endgames the mate distance reached by promoting.
+     *
+     * @return The number of positions where a promotion wins.
+     */
+    private long initialize(Endgame endgame, byte[] table, byte[] promotions, int from, int to) {
+        int[] squares = new int[endgame.squareCount()];
+        long promoting = 0;
+        for (int index = from; index < to; index++) {
+            int sideToMove = endgame.decode(index, squares);
+            if (!isLegal(endgame, squares, sideToMove) || endgame.index(sideToMove, squares) != index) {
+                table[index] = ILLEGAL;
+            } else if (sideToMove == Endgame.WEAK) {
+                if (weakMoves(endgame, squares) == 0 && (strongAttacks(endgame, squares, occupied(squares)) & Position.bit(squares[1])) != 0) {
+                    table[index] = 1;
+                }
+            } else if (promotions != null) {
+                promotions[index] = (byte) promotionValue(squares);
+                if (promotions[index] != 0) {
+                    promoting++;
+                }
+            }
+        }
+        return promoting;
+    }
+
+    /**
+     * Finds the positions with the strong side to move that are won in
+     * {@code plies}, by taking back strong moves from the positions lost in
+     * one ply less, and by promoting.
+     */
+    private long strongPass(Endgame endgame, byte[] table, byte[] promotions, int plies, int from, int to) {
+        int[] squares = new int[endgame.squareCount()];
+        byte code = (byte) (plies + 1);
+        long found = 0;
+        for (int index = from | Endgame.WEAK; index < to; index += 2) {
+            if (table[index] != plies) {
+                continue;
+            }
+            endgame.decode(index, squares);
+            long occupied = occupied(squares);
+            for (int piece = 0; piece < squares.length; piece++) {
+                if (piece == 1) {
+                    continue;
+                }
+                int square = squares[piece];
+                for (long origins = retractions(endgame, piece, square, occupied); origins != 0; origins &= origins - 1) {
+                    squares[piece] = Long.numberOfTrailingZeros(origins);
+                    int previous = endgame.index(Endgame.STRONG, squares);
+                    if (table[previous] == UNKNOWN) {
+                        table[previous] = code;
+                        found++;
+                    }
+                }
+                squares[piece] = square;
+            }
+        }
+        if (promotions != null) {
+            for (int index = from; index < to; index += 2) {
+                if (promotions[index] == code && table[index] == UNKNOWN) {
+                    table[index] = code;
+                    found++;
+                }
+            }
+        }
+        return found;
+    }
+
+    /**
+     * Finds the positions with the lone king to move that are lost in
+     * {@code plies}: those from which the king could have come to a
+     * position won in one ply less, and whose every move now loses.
+     */
+    private long weakPass(Endgame endgame, byte[] table, int plies, int from, int to) {
+        int[] squares = new int[endgame.squareCount()];
+        byte code = (byte) (plies + 1);
+        long found = 0;
+        for (int index = from; index < to; index += 2) {
+            if (table[index] != plies) {
+                continue;
+            }
+            endgame.decode(index, squares);
+            int king = squares[1];
+            for (long origins = AttackTables.kingAttacks(king) & ~occupied(squares); origins != 0; origins &= origins - 1) {
+                squares[1] = Long.numberOfTrailingZeros(origins);
+                int previous = endgame.index(Endgame.WEAK, squares);
+                if (table[previous] == UNKNOWN && allMovesLose(endgame, table, squares)) {
+                    table[previous] = code;
+                    found++;
+                }
+            }
+            squares[1] = king;
+        }
+        return found;
+    }
+
+    /**
+     * Checks that the lone king has a move and that every move reaches a
+     * position already known to be won for the strong side.
+     */
+    private boolean allMovesLose(Endgame endgame, byte[] table, int[] squares) {
+        int king = squares[1];
+        long strong = occupied(squares) & ~Position.bit(king);
+        long moves = AttackTables.kingAttacks(king) & ~strongAttacks(endgame, squares, strong);
+        if (moves == 0 || (moves & strong) != 0) {
+            return false;
+        }
+        boolean lost = true;
+        for (; moves != 0 && lost; moves &= moves - 1) {
+            squares[1] = Long.numberOfTrailingZeros(moves);
+            lost = table[endgame.index(Endgame.STRONG, squares)] > 0;
+        }
+        squares[1] = king;
+        return lost;
+    }
+
+    /**
+     * Returns the mate distance code reached by the best promotion of a pawn
+     * on the seventh rank, or 0 if promoting does not win.
+     */
+    private int promotionValue(int[] squares) {
+        int pawn = squares[2];
+        int target = pawn - 8;
+        if ((pawn >>> 3) != 1 || target == squares[0] || target == squares[1]) {
+            return 0;
+        }
+        int[] promoted = {squares[0], squares[1], target};
+        int best = 0;
+        for (Endgame next : new Endgame[]{Endgame.KQK, Endgame.KRK}) {
+            int child = generated.get(next)[next.index(Endgame.WEAK, promoted)];
+            if (child > 0 && (best == 0 || child + 1 < best)) {
+                best = child + 1;
+            }
+        }
+        return best;
+    }
+
+    /**
+     * Returns the squares a strong piece could have come from, for a piece
+     * that now stands on {@code square}.
+     */
+    private static long retractions(Endgame endgame, int piece, int square, long occupied) {
+        int type = piece == 0 ? Position.KING : endgame.types[piece - 2];
+        switch (type) {
+            case Position.PAWN:
+                long origins = 0;
+                int line = square >>> 3;
+                if (line <= 5 && (occupied & Position.bit(square + 8)) == 0) {
+                    origins |= Position.bit(square + 8);
+                    if (line == 4 && (occupied & Position.bit(square + 16)) == 0) {
+                        origins |= Position.bit(square + 16);
+                    }
+                }
+                return origins;
+            case Position.KNIGHT: return AttackTables.knightAttacks(square) & ~occupied;
+            case Position.BISHOP: return SlidingAttacks.bishopAttacks(square, occupied) & ~occupied;
+            case Position.ROOK: return SlidingAttacks.rookAttacks(square, occupied) & ~occupied;
+            case Position.QUEEN: return SlidingAttacks.queenAttacks(square, occupied) & ~occupied;
+            default: return AttackTables.kingAttacks(square) & ~occupied;
+        }
+    }
+
+    /**
+     * Returns the squares attacked by the strong side. Sliding attacks stop
+     * at the given occupancy, from which the lone king is left out when
+     * looking for its moves so it cannot hide behind itself.
+     */
+    private static long strongAttacks(Endgame endgame, int[] squares, long occupied) {
+        long attacks = AttackTables.kingAttacks(squares[0]);
+        for (int i = 2; i < squares.length; i++) {
+            int square = squares[i];
+            switch (endgame.types[i - 2]) {
+                case Position.PAWN: attacks |= AttackTables.pawnAttacks(Position.WHITE, square); break;
+                case Position.KNIGHT: attacks |= AttackTables.knightAttacks(square); break;
+                case Position.BISHOP: attacks |= SlidingAttacks.bishopAttacks(square, occupied); break;
+                case Position.ROOK: attacks |= SlidingAttacks.rookAttacks(square, occupied); break;
+                default: attacks |= SlidingAttacks.queenAttacks(square, occupied); break;
+            }
+        }
+        return attacks;
+    }
+
+    /**
+     * Counts the legal moves of the lone king, captures included.
+     */
+    private static int weakMoves(Endgame endgame, int[] squares) {
+        long occupied = occupied(squares) & ~Position.bit(squares[1]);
+        return Long.bitCount(AttackTables.kingAttacks(squares[1]) & ~strongAttacks(endgame, squares, occupied));
+    }
+
+    private static boolean isLegal(Endgame endgame, int[] squares, int sideToMove) {
+        if (Long.bitCount(occupied(squares)) != squares.length
+                || (AttackTables.kingAttacks(squares[0]) & Position.bit(squares[1])) != 0) {
+            return false;
+        }
+        for (int i = 2; i < squares.length; i++) {
+            int line = squares[i] >>> 3;
+            if (endgame.types[i - 2] == Position.PAWN && (line == 0 || line == 7)) {
+                return false;
+            }
+        }
+        // The side not to move cannot be in check
+        return sideToMove == Endgame.WEAK
+                || (strongAttacks(endgame, squares, occupied(squares)) & Position.bit(squares[1])) == 0;
+    }
+
+    private static long occupied(int[] squares) {
+        long occupied = 0;
+        for (int square : squares) {
+            occupied |= Position.bit(square);
+        }
+        return occupied;
+    }
+
+    private static int maxOf(byte[] values) {
+        int max = 0;
+        for (byte value : values) {
+            max = Math.max(max, value);
+        }
+        return max;
+    }
+
+    /**
+     * Writes a solved table packed to as few bits per entry as its longest
+     * mate needs. Illegal indices are stored as draws.
+     *
+     * @return The number of bits per entry.
+     */
+    private static int write(Endgame endgame, byte[] table, Path path) throws IOException {
+        int bits = 32 - Integer.numberOfLeadingZeros(Math.max(1, maxOf(table)));
+        try (OutputStream file = Files.newOutputStream(path);
+             DataOutputStream out = new DataOutputStream(new BufferedOutputStream(file, 1 << 16))) {
+            out.writeInt(Tablebases.MAGIC);
+            out.writeInt(bits);
+            out.writeLong(table.length);
+            long buffer = 0;
+            int buffered = 0;
+            for (byte entry : table) {
+                buffer = buffer << bits | Math.max(0, entry);
+                buffered += bits;
+                while (buffered >= 8) {
+                    buffered -= 8;
+                    out.write((int) (buffer >>> buffered));
+                }
+            }
+            if (buffered > 0) {
+                out.write((int) (buffer << (8 - buffered)));
+            }
+            // Lets readers fetch any entry with a single 8-byte read
+            out.write(new byte[Long.BYTES]);
+        }
+        return bits;
+    }
+
+    /**
+     * Runs one pass over the index range on the pool.
+     *
+     * @return The sum of the counts returned by the chunks.
+     */
+    private long run(RangeWork work, int size) {
+        return pool.invoke(new RangeTask(work, 0, size));
+    }
+
+    /**
+     * Work applied to a range of indices; ranges start at even indices.
+     */
+    private interface RangeWork {
+        long apply(int from, int to);
+    }
+
+    /**
+     * Splits an index range in halves until it is small enough to run.
+     */
+    private static final class RangeTask extends RecursiveTask<Long> {
+        private static final long serialVersionUID = 1L;
+
+        private final RangeWork work;
+        private final int from;
+        private final int to;
+
+        RangeTask(RangeWork work, int from, int to) {
+            this.work = work;
+            this.from = from;
+            this.to = to;
+        }
+
+        @Override
+        protected Long compute() {
+            if (to - from <= CHUNK) {
+                return work.apply(from, to);
+            }
+            int middle = (from + (to - from) / 2) & ~1;
+            RangeTask left = new RangeTask(work, from, middle);
+            left.fork();
+            long right = new RangeTask(work, middle, to).compute();
+            return left.join() + right;
+        }
+    }
+
+    /**
+     * Generates the tablebases from the command line.
+     *
+     * @param args The output directory, then options.
+     * @throws IOException If a file cannot be written.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length < 1) {
+            System.out.println("Usage: java chess.engine.TablebaseGenerator <directory> [--threads <n>]");
+            return;
+        }
+        int threads = Runtime.getRuntime().availableProcessors();
+        for (int i = 1; i < args.length; i++) {
+            if (args[i].equals("--threads")) {
+                threads = Integer.parseInt(args[++i]);
+            } else {
+                throw new IllegalArgumentException("Unknown option: " + args[i]);
+            }
+        }
+        TablebaseGenerator generator = new TablebaseGenerator(threads);
+        try {
+            generator.generateAll(Paths.get(args[0]));
+        } finally {
+            generator.shutdown();
+        }
+    }
+}
@@ -0,0 +1,220 @@
+package chess.engine;
+
+import chess.Position;
+import chess.gameUtils.Move;
+import chess.gameUtils.MoveGenerator;
+import java.io.IOException;
+import java.nio.MappedByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+
+/**
+ * Endgame tablebases giving the exact result of small endgames: king and
+ * queen, king and rook, king and pawn, and king, bishop and knight against
+ * a lone king.
+ *
+ * The tables are the files written by {@link TablebaseGenerator}, one per
+ * endgame, each holding the distance to mate of every position packed into
+ * a few bits. They are memory-mapped read-only, so opening them is instant
+ * and a probe reads a single entry in place; the tables are shared by every
+ * search thread. Positions with only kings, or kings and a single minor
+ * piece, are known draws without a table.
+ */
+public class Tablebases {
+
+    /**
+     * System property holding the directory of the tablebase files.
+     */
+    public static final String PATH_PROPERTY = "chess.tablebases";
+
+    /**
+     * Largest number of pieces, kings included, that the tables cover.
+     */
+    public static final int MAX_PIECES = 4;
+
+    /**
+     * Returned by {@link #probe(Position)} for positions the tables do not cover.
+     */
+    public static final int UNKNOWN = Integer.MIN_VALUE;
+
+    static final int MAGIC = 0x43544231;
+    private static final int HEADER_SIZE = 16;
+
+    private final MappedByteBuffer[] tables = new MappedByteBuffer[Endgame.ALL.length];
+    private final int[] bits = new int[Endgame.ALL.length];
+    private int loaded;
+
+    /**
+     * Opens the tablebase files found in a directory. Endgames whose file is
+     * missing are not covered.
+     *
+     * @param directory The directory holding the files.
+     * @throws IOException If a file cannot be read or is not a valid table.
+     */
+    public Tablebases(Path directory) throws IOException {
+        for (int i = 0; i < Endgame.ALL.length; i++) {
+            Path path = file(directory, Endgame.ALL[i]);
+            if (!Files.exists(path)) {
+                continue;
+            }
+            try (FileChannel channel = FileChannel.open(path, StandardOpenOption.READ)) {
+                MappedByteBuffer table = channel.map(FileChannel.MapMode.READ_ONLY, 0, channel.size());
+                if (channel.size() < HEADER_SIZE || table.getInt(0) != MAGIC || table.getLong(8) != Endgame.ALL[i].size
+                        || channel.size() < HEADER_SIZE + (Endgame.ALL[i].size * (long) table.getInt(4) + 7) / 8 + Long.BYTES) {
+                    throw new IOException("Not a valid " + Endgame.ALL[i].name + " table: " + path);
+                }
+                tables[i] = table;
+                bits[i] = table.getInt(4);
+                loaded++;
+            }
+        }
+    }
+
+    /**
+     * Opens the tablebases in the directory named by the
+     * {@value #PATH_PROPERTY} system property, e.g.
+     * {@code java -Dchess.tablebases=tb chess.Main}.
+     *
+     * @return The tablebases, or null if the property is not set or no table can be opened.
+     */
+    public static Tablebases fromSystemProperties() {
+        String directory = System.getProperty(PATH_PROPERTY);
+        if (directory == null) {
+            return null;
+        }
+        try {
+            Tablebases tablebases = new Tablebases(Paths.get(directory));
+            if (tablebases.loaded == 0) {
+                System.out.println("No tablebase files in " + directory);
+                return null;
+            }
+            return tablebases;
+        } catch (IOException e) {
+            System.out.println("Could not open the tablebases: " + e.getMessage());
+            return null;
+        }
+    }
+
+    /**
+     * Returns the file holding one endgame's table.
+     */
+    static Path file(Path directory, Endgame endgame) {
+        return directory.resolve(endgame.name + ".dtm");
+    }
+
+    /**
+     * Looks up the exact score of a position. Scores use the search's mate
+     * scale: {@link Search#MATE} minus the number of plies to mate when the
+     * side to move wins, its negation when it loses, and 0 for a draw.
+     *
+     * @param position The position; it is not modified.
+     * @return The score from the side to move's point of view, or {@link #UNKNOWN}.
+     */
+    public int probe(Position position) {
+        return probe(position, new int[MAX_PIECES]);
+    }
+
+    /**
+     * Looks up the exact score of a position without allocating, for callers
+     * such as the search that probe at many nodes. Each thread needs its own
+     * buffer, as the tables are shared.
+     *
+     * @param position The position; it is not modified.
+     * @param squares Scratch buffer of at least {@link #MAX_PIECES} entries.
+     * @return The score from the side to move's point of view, or {@link #UNKNOWN}.
+     */
+    public int probe(Position position, int[] squares) {
+        long occupied = position.occupied();
+        int count = Long.bitCount(occupied);
+        if (count > MAX_PIECES || position.castlingRights() != 0) {
+            return UNKNOWN;
+        }
+        int strong = position.pieceCount(Position.WHITE) >= position.pieceCount(Position.BLACK) ? Position.WHITE : Position.BLACK;
+        if (position.pieceCount(strong ^ 1) != 1) {
+            return UNKNOWN;
+        }
+        if (count == 2 || count == 3 && (position.pieces(strong, Position.KNIGHT) | position.pieces(strong, Position.BISHOP)) != 0) {
+            return 0;
+        }
+
+        for (int i = 0; i < Endgame.ALL.length; i++) {
+            Endgame endgame = Endgame.ALL[i];
+            if (tables[i] == null || endgame.squareCount() != count || !hasPieces(position, strong, endgame.types)) {
+                continue;
+            }
+            // Tables have the strong side as white, moving up the board
+            int mirror = strong == Position.WHITE ? 0 : 56;
+            squares[0] = position.kingSquare(strong) ^ mirror;
+            squares[1] = position.kingSquare(strong ^ 1) ^ mirror;
+            for (int j = 0; j < endgame.types.length; j++) {
+                squares[j + 2] = Long.numberOfTrailingZeros(position.pieces(strong, endgame.types[j])) ^ mirror;
+            }
+            int sideToMove = position.sideToMove() == strong ? Endgame.STRONG : Endgame.WEAK;
+            int entry = read(i, endgame.index(sideToMove, squares, count));
+            if (entry == 0) {
+                return 0;
+            }
+            int score = Search.MATE - (entry - 1);
+            return sideToMove == Endgame.STRONG ? score : -score;
+        }
+        return UNKNOWN;
+    }
+
+    /**
+     * Chooses the best move of a covered position: the quickest mate for
+     * the winning side, the slowest for the losing side, and a move that
+     * keeps the draw otherwise.
+     *
+     * @param position The position; it is restored before returning.
+     * @return The packed move, or {@link Move#NONE} if the position is not
+     *         covered or has no legal moves.
+     */
+    public int bestMove(Position position) {
+        if (probe(position) == UNKNOWN) {
+            return Move.NONE;
+        }
+        int[] moves = new int[MoveGenerator.MAX_MOVES];
+        int[] squares = new int[MAX_PIECES];
+        int count = MoveGenerator.generateLegal(position, position.sideToMove(), moves, 0);
+        int bestMove = Move.NONE;
+        int bestScore = -Search.INFINITY;
+        for (int i = 0; i < count; i++) {
+            position.makeMove(moves[i]);
+            int score = probe(position, squares);
+            position.unmakeMove();
+            if (score == UNKNOWN) {
+                continue;
+            }
+            // One ply further from the mate than the position after the move
+            score = score > 0 ? 1 - score : score < 0 ? -score - 1 : 0;
+            if (score > bestScore) {
+                bestScore = score;
+                bestMove = moves[i];
+            }
+        }
+        return bestMove;
+    }
+
+    private static boolean hasPieces(Position position, int color, int[] types) {
+        for (int type : types) {
+            if (Long.bitCount(position.pieces(color, type)) != 1) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    /**
+     * Reads one packed entry; the file's padding lets the last entries be
+     * read with a full 8-byte load too.
+     */
+    private int read(int table, int index) {
+        int width = bits[table];
+        long bit = (long) index * width;
+        long word = tables[table].getLong(HEADER_SIZE + (int) (bit >>> 3));
+        return (int) (word >>> (64 - width - (bit & 7))) & ((1 << width) - 1);
+    }
+}
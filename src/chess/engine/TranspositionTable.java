@@ -0,0 +1,183 @@
+package chess.engine;
+
+import java.util.Arrays;
+import java.util.concurrent.atomic.LongAdder;
+
+/**
+ * Fixed-size hash table remembering the results of analysed positions.
+ *
+ * Entries are stored in two flat {@code long[]} arrays: one holds the packed
+ * entry data (best move, score, depth, bound type and age) and the other the
+ * position key XORed with that data. A reader only accepts an entry when the
+ * two words XOR back to the key it is looking for, so entries torn by a
+ * concurrent writer are simply treated as misses. This lets any number of
+ * search threads share one table without locks.
+ *
+ * Slots are grouped in buckets of two. A new entry replaces the bucket slot
+ * holding the same key, or otherwise the slot that is shallowest and oldest.
+ */
+public class TranspositionTable {
+
+    public static final int BOUND_UPPER = 1;
+    public static final int BOUND_LOWER = 2;
+    public static final int BOUND_EXACT = 3;
+
+    private static final int BUCKET_SIZE = 2;
+
+    private final long[] keys;
+    private final long[] data;
+    private final int bucketMask;
+    private int age;
+
+    private final LongAdder probes = new LongAdder();
+    private final LongAdder hits = new LongAdder();
+
+    /**
+     * Constructs a table using about the given amount of memory.
+     *
+     * @param megabytes Table size in MB; rounded down to a power of two number of entries.
+     */
+    public TranspositionTable(int megabytes) {
+        long entries = Math.max(BUCKET_SIZE, (long) megabytes * 1024 * 1024 / 16);
+        int buckets = Integer.highestOneBit((int) Math.min(entries / BUCKET_SIZE, 1 << 29));
+        keys = new long[buckets * BUCKET_SIZE];
+        data = new long[buckets * BUCKET_SIZE];
+        bucketMask = buckets - 1;
+    }
+
+    /**
+     * Looks up a position.
+     *
+     * @param key Zobrist key of the position.
+     * @return The packed entry data, or 0 if the position is not stored.
+     */
+    public long probe(long key) {
+        probes.increment();
+        int first = ((int) key & bucketMask) * BUCKET_SIZE;
+        for (int slot = first; slot < first + BUCKET_SIZE; slot++) {
+            long entry = data[slot];
+            if ((keys[slot] ^ entry) == key && entry != 0) {
+                hits.increment();
+                return entry;
+            }
+        }
+        return 0L;
+    }
+
+    /**
+     * Stores the result of searching a position.
+     *
+     * @param key Zobrist key of the position.
+     * @param move Best move found, or 0 if none.
+     * @param score Score of the position, within the range of a short.
+     * @param depth Remaining search depth the score was obtained with.
+     * @param bound One of {@link #BOUND_UPPER}, {@link #BOUND_LOWER} or {@link #BOUND_EXACT}.
+     */
+    public void store(long key, int move, int score, int depth, int bound) {
+        int first = ((int) key & bucketMask) * BUCKET_SIZE;
+        int target = first;
+        int worst = Integer.MAX_VALUE;
+
+        for (int slot = first; slot < first + BUCKET_SIZE; slot++) {
+            long entry = data[slot];
+            if ((keys[slot] ^ entry) == key) {
+                // Keep the old best move and deeper results of the same search
+                if (move == 0) {
+                    move = move(entry);
+                }
+                if (bound != BOUND_EXACT && depth < depth(entry) && age(entry) == age) {
+                    return;
+                }
+                target = slot;
+                break;
+            }
+            int worth = depth(entry) - 8 * ((age - age(entry)) & 63);
+            if (entry == 0 || worth < worst) {
+                worst = entry == 0 ? Integer.MIN_VALUE : worth;
+                target = slot;
+            }
+        }
+
+        long entry = (move & 0x3FFFFFFL)
+                | ((long) bound << 26)
+                | ((long) Math.max(0, Math.min(depth, 255)) << 28)
+                | ((long) age << 36)
+                | ((long) (score & 0xFFFF) << 48);
+        data[target] = entry;
+        keys[target] = key ^ entry;
+    }
+
+    /**
+     * Marks the start of a new search, so entries from earlier searches
+     * become preferred candidates for replacement.
+     */
+    public void newSearch() {
+        age = (age + 1) & 63;
+    }
+
+    /**
+     * Removes every entry and resets the statistics.
+     */
+    public void clear() {
+        Arrays.fill(keys, 0L);
+        Arrays.fill(data, 0L);
+        probes.reset();
+        hits.reset();
+    }
+
+    /**
+     * Returns the share of lookups that found their position since the last clear.
+     *
+     * @return Hit rate between 0 and 1.
+     */
+    public double hitRate() {
+        long total = probes.sum();
+        return total == 0 ? 0.0 : (double) hits.sum() / total;
+    }
+
+    /**
+     * Returns how full the table is with entries from the current search,
+     * in permille, estimated from the first thousand slots.
+     *
+     * @return Fill level between 0 and 1000.
+     */
+    public int hashfull() {
+        int sample = Math.min(1000, data.length);
+        int used = 0;
+        for (int slot = 0; slot < sample; slot++) {
+            if (data[slot] != 0 && age(data[slot]) == age) {
+                used++;
+            }
+        }
+        return used * 1000 / sample;
+    }
+
+    /**
+     * Returns the number of entries the table can hold.
+     *
+     * @return Capacity in entries.
+     */
+    public int capacity() {
+        return data.length;
+    }
+
+    public static int move(long entry) {
+        return (int) (entry & 0x3FFFFFFL);
+    }
+
+    public static int bound(long entry) {
+        return (int) ((entry >>> 26) & 3);
+    }
+
+    public static int depth(long entry) {
+        return (int) ((entry >>> 28) & 255);
+    }
+
+    public static int score(long entry) {
+        return (short) (entry >>> 48);
+    }
+
+    private static int age(long entry) {
+        return (int) ((entry >>> 36) & 63);
+    }
+}
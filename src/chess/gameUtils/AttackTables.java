@@ -0,0 +1,107 @@
+package chess.gameUtils;
+
+import chess.Position;
+
+/**
+ * Precomputed move and attack masks for the leaping pieces.
+ *
+ * The tables are built once when the class is loaded and hold, for every
+ * square, the mask of all squares a knight or king standing there attacks,
+ * and per color the squares a pawn attacks or can be pushed to. Squares use
+ * the {@link Position} indexing, so "where can this piece go" is a single
+ * array lookup instead of 64 individual probes.
+ */
+public final class AttackTables {
+
+    private static final int[][] KNIGHT_DELTAS = {
+            {-2, -1}, {-2, 1}, {-1, -2}, {-1, 2}, {1, -2}, {1, 2}, {2, -1}, {2, 1}
+    };
+    private static final int[][] KING_DELTAS = {
+            {-1, -1}, {-1, 0}, {-1, 1}, {0, -1}, {0, 1}, {1, -1}, {1, 0}, {1, 1}
+    };
+
+    private static final long[] KNIGHT_ATTACKS = new long[64];
+    private static final long[] KING_ATTACKS = new long[64];
+    private static final long[][] PAWN_ATTACKS = new long[2][64];
+    private static final long[][] PAWN_PUSHES = new long[2][64];
+
+    static {
+        for (int square = 0; square < 64; square++) {
+            int line = square >>> 3;
+            int column = square & 7;
+
+            KNIGHT_ATTACKS[square] = leaperMask(line, column, KNIGHT_DELTAS);
+            KING_ATTACKS[square] = leaperMask(line, column, KING_DELTAS);
+
+            for (int color = Position.WHITE; color <= Position.BLACK; color++) {
+                int direction = color == Position.WHITE ? -1 : 1;
+                int startRow = color == Position.WHITE ? 6 : 1;
+
+                PAWN_ATTACKS[color][square] = leaperMask(line, column,
+                        new int[][] {{direction, -1}, {direction, 1}});
+                PAWN_PUSHES[color][square] = leaperMask(line, column, new int[][] {{direction, 0}});
+                if (line == startRow) {
+                    PAWN_PUSHES[color][square] |= leaperMask(line, column, new int[][] {{2 * direction, 0}});
+                }
+            }
+        }
+    }
+
+    private AttackTables() {
+    }
+
+    private static long leaperMask(int line, int column, int[][] deltas) {
+        long mask = 0L;
+        for (int[] delta : deltas) {
+            int newLine = line + delta[0];
+            int newColumn = column + delta[1];
+            if (newLine >= 0 && newLine < 8 && newColumn >= 0 && newColumn < 8) {
+                mask |= Position.bit(Position.square(newLine, newColumn));
+            }
+        }
+        return mask;
+    }
+
+    /**
+     * Returns the squares attacked by a knight.
+     *
+     * @param square The knight's square.
+     * @return Mask of attacked squares.
+     */
+    public static long knightAttacks(int square) {
+        return KNIGHT_ATTACKS[square];
+    }
+
+    /**
+     * Returns the squares attacked by a king.
+     *
+     * @param square The king's square.
+     * @return Mask of attacked squares.
+     */
+    public static long kingAttacks(int square) {
+        return KING_ATTACKS[square];
+    }
+
+    /**
+     * Returns the squares a pawn attacks diagonally.
+     *
+     * @param color Color index of the pawn.
+     * @param square The pawn's square.
+     * @return Mask of attacked squares.
+     */
+    public static long pawnAttacks(int color, int square) {
+        return PAWN_ATTACKS[color][square];
+    }
+
+    /**
+     * Returns the squares a pawn may be pushed to on an empty board,
+     * including the double step from its starting row.
+     *
+     * @param color Color index of the pawn.
+     * @param square The pawn's square.
+     * @return Mask of push targets.
+     */
+    public static long pawnPushes(int color, int square) {
+        return PAWN_PUSHES[color][square];
+    }
+}
@@ -0,0 +1,319 @@
+package chess.gameUtils;
+
+import chess.Position;
+import java.nio.ByteBuffer;
+
+/**
+ * Reads and writes positions in Forsyth-Edwards Notation (FEN).
+ *
+ * A FEN record has six space separated fields: piece placement from the
+ * eighth rank down, side to move, castling rights, en passant square,
+ * halfmove clock and fullmove number. The two counters may be omitted, in
+ * which case they default to 0 and 1. Records without exactly one king per
+ * side, or with an en passant square that no pawn could just have passed,
+ * are rejected.
+ *
+ * The parser walks the characters once, writing straight into a
+ * {@link Position}, without regular expressions, splitting or temporary
+ * strings, so large position suites can be loaded at millions of records
+ * per second. Input can be any {@link CharSequence} or a {@link ByteBuffer}
+ * of ASCII text holding one record per line.
+ */
+public final class Fen {
+
+    public static final String START = "rnbqkbnr/pppppppp/8/8/8/8/PPPPPPPP/RNBQKBNR w KQkq - 0 1";
+
+    private static final String PIECE_LETTERS = "PNBRQKpnbrqk";
+
+    /**
+     * Position each thread parses into, so that a record is only copied to
+     * the caller's position once it has been read in full.
+     */
+    private static final ThreadLocal<Position> SCRATCH = ThreadLocal.withInitial(Position::new);
+
+    private Fen() {
+    }
+
+    /**
+     * Replaces the contents of a position with a FEN record.
+     *
+     * @param fen The FEN text.
+     * @param position The position to fill; it is left unchanged if the record is invalid.
+     * @throws IllegalArgumentException If the text is not a valid FEN record.
+     */
+    public static void parse(CharSequence fen, Position position) {
+        Position scratch = SCRATCH.get();
+        int end = parse(fen, 0, fen.length(), scratch);
+        if (skipSpaces(fen, end, fen.length()) != fen.length()) {
+            throw error(fen, end, "unexpected trailing text");
+        }
+        position.copyFrom(scratch);
+    }
+
+    /**
+     * Replaces the contents of a position with the FEN record at the
+     * buffer's current position, and advances the buffer past the end of
+     * that line. Empty lines are skipped.
+     *
+     * @param buffer ASCII text with one FEN record per line.
+     * @param position The position to fill; it is left unchanged if the line is invalid.
+     * @return False if the buffer held no further record.
+     * @throws IllegalArgumentException If the line is not a valid FEN record.
+     */
+    public static boolean parse(ByteBuffer buffer, Position position) {
+        AsciiView line = new AsciiView(buffer);
+        while (buffer.hasRemaining()) {
+            int start = buffer.position();
+            int end = start;
+            while (end < buffer.limit() && buffer.get(end) != '\n') {
+                end++;
+            }
+            buffer.position(end < buffer.limit() ? end + 1 : end);
+            line.setLine(start, end);
+
+            int first = skipSpaces(line, start, end);
+            if (first == end) {
+                continue;
+            }
+            Position scratch = SCRATCH.get();
+            int stop = parse(line, first, end, scratch);
+            if (skipSpaces(line, stop, end) != end) {
+                throw error(line, stop, "unexpected trailing text");
+            }
+            position.copyFrom(scratch);
+            return true;
+        }
+        return false;
+    }
+
+    /**
+     * Parses one FEN record from a range of characters.
+     *
+     * @return The index just after the last field read.
+     */
+    private static int parse(CharSequence s, int index, int end, Position position) {
+        position.clear();
+        index = skipSpaces(s, index, end);
+
+        int line = 0;
+        int column = 0;
+        for (; index < end; index++) {
+            char c = s.charAt(index);
+            if (c == ' ' || c == '\t') {
+                break;
+            } else if (c == '/') {
+                if (column != 8 || ++line > 7) {
+                    throw error(s, index, "bad rank length");
+                }
+                column = 0;
+            } else if (c >= '1' && c <= '8') {
+                column += c - '0';
+                if (column > 8) {
+                    throw error(s, index, "rank overflows");
+                }
+            } else {
+                int code = PIECE_LETTERS.indexOf(c);
+                if (code < 0 || column > 7) {
+                    throw error(s, index, "unexpected character");
+                }
+                position.put(Position.square(line, column++), code / 6, code % 6);
+            }
+        }
+        if (line != 7 || column != 8) {
+            throw error(s, index, "incomplete piece placement");
+        }
+        if (Long.bitCount(position.pieces(Position.WHITE, Position.KING)) != 1
+                || Long.bitCount(position.pieces(Position.BLACK, Position.KING)) != 1) {
+            throw error(s, index, "each side needs exactly one king");
+        }
+
+        index = skipSpaces(s, index, end);
+        char side = index < end ? s.charAt(index++) : 0;
+        if (side != 'w' && side != 'b') {
+            throw error(s, index - 1, "side to move must be 'w' or 'b'");
+        }
+        position.setSideToMove(side == 'w' ? Position.WHITE : Position.BLACK);
+
+        index = skipSpaces(s, index, end);
+        int rights = 0;
+        if (index < end && s.charAt(index) == '-') {
+            index++;
+        } else {
+            for (; index < end && s.charAt(index) != ' '; index++) {
+                switch (s.charAt(index)) {
+                    case 'K': rights |= Position.WHITE_KINGSIDE; break;
+                    case 'Q': rights |= Position.WHITE_QUEENSIDE; break;
+                    case 'k': rights |= Position.BLACK_KINGSIDE; break;
+                    case 'q': rights |= Position.BLACK_QUEENSIDE; break;
+                    default: throw error(s, index, "bad castling rights");
+                }
+            }
+        }
+        position.setCastlingRights(rights);
+
+        index = skipSpaces(s, index, end);
+        if (index < end && s.charAt(index) == '-') {
+            index++;
+        } else if (index + 1 < end) {
+            char file = s.charAt(index);
+            char rank = s.charAt(index + 1);
+            boolean whiteToMove = position.sideToMove() == Position.WHITE;
+            if (file < 'a' || file > 'h' || rank != (whiteToMove ? '6' : '3')) {
+                throw error(s, index, "bad en passant square");
+            }
+            int square = Position.square('8' - rank, file - 'a');
+            int pawn = square + (whiteToMove ? 8 : -8);
+            if (position.isOccupied(square)
+                    || (position.pieces(position.sideToMove() ^ 1, Position.PAWN) & Position.bit(pawn)) == 0) {
+                throw error(s, index, "no pawn can be captured en passant");
+            }
+            position.setEnPassantSquare(square);
+            index += 2;
+        } else {
+            throw error(s, index, "missing en passant field");
+        }
+
+        int halfmoves = 0;
+        int fullmoves = 1;
+        int next = skipSpaces(s, index, end);
+        if (next < end && isDigit(s.charAt(next))) {
+            for (index = next; index < end && isDigit(s.charAt(index)); index++) {
+                halfmoves = halfmoves * 10 + s.charAt(index) - '0';
+            }
+            next = skipSpaces(s, index, end);
+            if (next < end && isDigit(s.charAt(next))) {
+                fullmoves = 0;
+                for (index = next; index < end && isDigit(s.charAt(index)); index++) {
+                    fullmoves = fullmoves * 10 + s.charAt(index) - '0';
+                }
+            }
+        }
+        position.setMoveCounters(halfmoves, Math.max(1, fullmoves));
+        return index;
+    }
+
+    /**
+     * Returns the FEN record of a position.
+     *
+     * @param position The position to describe.
+     * @return The FEN text.
+     */
+    public static String toString(Position position) {
+        StringBuilder out = new StringBuilder(90);
+        write(position, out);
+        return out.toString();
+    }
+
+    /**
+     * Appends the FEN record of a position to a builder.
+     *
+     * @param position The position to describe.
+     * @param out The builder to append to.
+     */
+    public static void write(Position position, StringBuilder out) {
+        for (int line = 0; line < 8; line++) {
+            int empty = 0;
+            for (int column = 0; column < 8; column++) {
+                int code = position.pieceAt(Position.square(line, column));
+                if (code == Position.EMPTY) {
+                    empty++;
+                    continue;
+                }
+                if (empty > 0) {
+                    out.append((char) ('0' + empty));
+                    empty = 0;
+                }
+                out.append(PIECE_LETTERS.charAt(code));
+            }
+            if (empty > 0) {
+                out.append((char) ('0' + empty));
+            }
+            if (line < 7) {
+                out.append('/');
+            }
+        }
+
+        out.append(position.sideToMove() == Position.WHITE ? " w " : " b ");
+
+        int rights = position.castlingRights();
+        if (rights == 0) {
+            out.append('-');
+        } else {
+            if ((rights & Position.WHITE_KINGSIDE) != 0) out.append('K');
+            if ((rights & Position.WHITE_QUEENSIDE) != 0) out.append('Q');
+            if ((rights & Position.BLACK_KINGSIDE) != 0) out.append('k');
+            if ((rights & Position.BLACK_QUEENSIDE) != 0) out.append('q');
+        }
+
+        out.append(' ');
+        int ep = position.enPassantSquare();
+        if (ep == Position.EMPTY) {
+            out.append('-');
+        } else {
+            out.append((char) ('a' + (ep & 7))).append((char) ('8' - (ep >>> 3)));
+        }
+
+        out.append(' ').append(position.halfmoveClock()).append(' ').append(position.fullmoveNumber());
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    private static int skipSpaces(CharSequence s, int index, int end) {
+        while (index < end && (s.charAt(index) == ' ' || s.charAt(index) == '\t' || s.charAt(index) == '\r')) {
+            index++;
+        }
+        return index;
+    }
+
+    private static IllegalArgumentException error(CharSequence s, int index, String reason) {
+        return new IllegalArgumentException("Invalid FEN at index " + index + " (" + reason + "): " + s);
+    }
+
+    /**
+     * Read-only view of the bytes of a buffer as characters, so that byte
+     * input goes through the same parser without being decoded first.
+     */
+    private static final class AsciiView implements CharSequence {
+        private final ByteBuffer buffer;
+        private int lineStart;
+        private int lineEnd;
+
+        AsciiView(ByteBuffer buffer) {
+            this.buffer = buffer;
+        }
+
+        void setLine(int start, int end) {
+            lineStart = start;
+            lineEnd = end;
+        }
+
+        @Override
+        public int length() {
+            return buffer.limit();
+        }
+
+        @Override
+        public char charAt(int index) {
+            return (char) (buffer.get(index) & 0xFF);
+        }
+
+        @Override
+        public CharSequence subSequence(int start, int end) {
+            StringBuilder copy = new StringBuilder(end - start);
+            for (int i = start; i < end; i++) {
+                copy.append(charAt(i));
+            }
+            return copy;
+        }
+
+        /**
+         * Returns the current line, for error messages.
+         */
+        @Override
+        public String toString() {
+            return subSequence(lineStart, lineEnd).toString();
+        }
+    }
+}
@@ -0,0 +1,117 @@
+package chess.gameUtils;
+
+import chess.Position;
+
+/**
+ * Packs and unpacks moves stored as plain {@code int} values.
+ *
+ * A move keeps its origin and destination squares, the moving piece type,
+ * the captured piece type, the promotion piece type and a set of flags in a
+ * single integer, so move lists are flat {@code int[]} buffers and generating
+ * moves never allocates objects.
+ *
+ * <pre>
+ * bits  0-5   origin square
+ * bits  6-11  destination square
+ * bits 12-14  moving piece type
+ * bits 15-17  captured piece type (only meaningful with {@link #CAPTURE})
+ * bits 18-20  promotion piece type (only meaningful with {@link #PROMOTION})
+ * bits 21-25  flags
+ * </pre>
+ */
+public final class Move {
+
+    public static final int NONE = 0;
+
+    public static final int CAPTURE = 1 << 21;
+    public static final int DOUBLE_PUSH = 1 << 22;
+    public static final int EN_PASSANT = 1 << 23;
+    public static final int CASTLING = 1 << 24;
+    public static final int PROMOTION = 1 << 25;
+
+    private Move() {
+    }
+
+    /**
+     * Builds a packed move.
+     *
+     * @param from Origin square.
+     * @param to Destination square.
+     * @param piece Type of the moving piece.
+     * @param captured Type of the captured piece, ignored unless flagged as capture.
+     * @param promotion Type the pawn promotes to, ignored unless flagged as promotion.
+     * @param flags Any combination of the flag constants.
+     * @return The packed move.
+     */
+    public static int of(int from, int to, int piece, int captured, int promotion, int flags) {
+        return from | (to << 6) | (piece << 12) | (captured << 15) | (promotion << 18) | flags;
+    }
+
+    public static int from(int move) {
+        return move & 63;
+    }
+
+    public static int to(int move) {
+        return (move >>> 6) & 63;
+    }
+
+    public static int piece(int move) {
+        return (move >>> 12) & 7;
+    }
+
+    public static int captured(int move) {
+        return (move >>> 15) & 7;
+    }
+
+    public static int promotion(int move) {
+        return (move >>> 18) & 7;
+    }
+
+    public static boolean isCapture(int move) {
+        return (move & CAPTURE) != 0;
+    }
+
+    public static boolean isPromotion(int move) {
+        return (move & PROMOTION) != 0;
+    }
+
+    /**
+     * Returns the algebraic name of a square (e.g., "e4").
+     *
+     * @param square The square index.
+     * @return The square name.
+     */
+    public static String squareName(int square) {
+        return (char) ('a' + (square & 7)) + "" + (8 - (square >>> 3));
+    }
+
+    /**
+     * Returns a move in long algebraic notation (e.g., "e2e4" or "e7e8q").
+     *
+     * @param move The packed move.
+     * @return The move notation.
+     */
+    public static String toNotation(int move) {
+        String notation = squareName(from(move)) + squareName(to(move));
+        if (isPromotion(move)) {
+            notation += "pnbrqk".charAt(promotion(move));
+        }
+        return notation;
+    }
+
+    /**
+     * Returns the piece type that a promotion letter stands for.
+     *
+     * @param letter One of 'n', 'b', 'r' or 'q' (case-insensitive).
+     * @return The piece type, or {@link Position#EMPTY} if the letter is not a promotion piece.
+     */
+    public static int promotionType(char letter) {
+        switch (Character.toLowerCase(letter)) {
+            case 'n': return Position.KNIGHT;
+            case 'b': return Position.BISHOP;
+            case 'r': return Position.ROOK;
+            case 'q': return Position.QUEEN;
+            default: return Position.EMPTY;
+        }
+    }
+}
@@ -0,0 +1,399 @@
+package chess.gameUtils;
+
+import chess.Position;
+
+/**
+ * Generates pseudo-legal and legal moves for a {@link Position}.
+ *
+ * Moves are written as packed integers (see {@link Move}) into a buffer
+ * supplied by the caller, so generation allocates nothing and the same
+ * buffer can be reused for every node of a search. Pseudo-legal moves follow
+ * the movement rules of each piece but may leave the mover's own king in check.
+ * Legal moves are produced directly from the checking and pinned pieces of the
+ * position, without playing any move on the board.
+ */
+public final class MoveGenerator {
+
+    /**
+     * Upper bound on the number of moves in any chess position, suitable
+     * for sizing move buffers.
+     */
+    public static final int MAX_MOVES = 256;
+
+    private static final int[] PROMOTIONS = {Position.QUEEN, Position.ROOK, Position.BISHOP, Position.KNIGHT};
+
+    private MoveGenerator() {
+    }
+
+    /**
+     * Writes every pseudo-legal move of one side into the buffer.
+     *
+     * @param position The position to generate moves for.
+     * @param color Color index of the side to move.
+     * @param moves Buffer receiving the packed moves.
+     * @param offset Index of the first free slot in the buffer.
+     * @return The index after the last move written.
+     */
+    public static int generate(Position position, int color, int[] moves, int offset) {
+        int count = generate(position, color, ~position.colorMask(color), false, moves, offset);
+        count = generateEnPassant(position, color, moves, count);
+        return generateCastling(position, color, moves, count);
+    }
+
+    /**
+     * Writes only the pseudo-legal captures and promotions of one side into the buffer.
+     *
+     * @param position The position to generate moves for.
+     * @param color Color index of the side to move.
+     * @param moves Buffer receiving the packed moves.
+     * @param offset Index of the first free slot in the buffer.
+     * @return The index after the last move written.
+     */
+    public static int generateCaptures(Position position, int color, int[] moves, int offset) {
+        int count = generate(position, color, position.colorMask(color ^ 1), true, moves, offset);
+        return generateEnPassant(position, color, moves, count);
+    }
+
+    /**
+     * Writes every legal move of one side into the buffer.
+     *
+     * When the king is in check only evasions are generated: king moves, and
+     * against a single checker also captures of the checker and interpositions.
+     * Pinned pieces only move along the line between their king and the pinner.
+     * En passant captures, which remove two pieces from a line at once, are
+     * verified individually. Without a king of the given color every pseudo-legal move is legal.
+     *
+     * @param position The position to generate moves for.
+     * @param color Color index of the side to move.
+     * @param moves Buffer receiving the packed moves.
+     * @param offset Index of the first free slot in the buffer.
+     * @return The index after the last move written.
+     */
+    public static int generateLegal(Position position, int color, int[] moves, int offset) {
+        return generateLegal(position, color, false, -1L, moves, offset);
+    }
+
+    /**
+     * Writes the legal moves of one side whose destination lies in a set of
+     * squares. Pieces that cannot reach the set cost next to nothing, so
+     * looking up the moves to one square, as when reading a move in
+     * algebraic notation, is much cheaper than generating every move.
+     *
+     * @param position The position to generate moves for.
+     * @param color Color index of the side to move.
+     * @param targets Mask of the destination squares wanted.
+     * @param moves Buffer receiving the packed moves.
+     * @param offset Index of the first free slot in the buffer.
+     * @return The index after the last move written.
+     */
+    public static int generateLegal(Position position, int color, long targets, int[] moves, int offset) {
+        return generateLegal(position, color, false, targets, moves, offset);
+    }
+
+    /**
+     * Writes the legal captures and promotions of one side into the buffer.
+     * While in check, promotions that do not capture are left out.
+     *
+     * @param position The position to generate moves for.
+     * @param color Color index of the side to move.
+     * @param moves Buffer receiving the packed moves.
+     * @param offset Index of the first free slot in the buffer.
+     * @return The index after the last move written.
+     */
+    public static int generateLegalCaptures(Position position, int color, int[] moves, int offset) {
+        return generateLegal(position, color, true, -1L, moves, offset);
+    }
+
+    private static int generateLegal(Position position, int color, boolean capturesOnly, long targetMask,
+                                     int[] moves, int offset) {
+        int king = position.kingSquare(color);
+        if (king == Position.EMPTY) {
+            int count = capturesOnly ? generateCaptures(position, color, moves, offset) : generate(position, color, moves, offset);
+            return targetMask == -1L ? count : keepTargets(targetMask, moves, offset, count);
+        }
+
+        int opponent = color ^ 1;
+        long own = position.colorMask(color);
+        long allowed = (capturesOnly ? position.colorMask(opponent) : ~own) & targetMask;
+        long occupied = position.occupied();
+        long checkers = position.attackersTo(king, opponent, occupied);
+
+        // The king may not step along the ray of a slider that checks it, so test with the king lifted off
+        int count = offset;
+        long withoutKing = occupied ^ Position.bit(king);
+        for (long destinations = AttackTables.kingAttacks(king) & allowed; destinations != 0; destinations &= destinations - 1) {
+            int to = Long.numberOfTrailingZeros(destinations);
+            if (position.attackersTo(to, opponent, withoutKing) == 0) {
+                count = addMoves(position, king, Position.KING, Position.bit(to), moves, count);
+            }
+        }
+
+        if (Long.bitCount(checkers) > 1) {
+            return count;
+        }
+
+        if (checkers == 0 && !capturesOnly) {
+            int castlingStart = count;
+            count = generateCastling(position, color, moves, count);
+            count = keepTargets(targetMask, moves, castlingStart, count);
+        }
+
+        int enPassantStart = count;
+        count = generateEnPassant(position, color, moves, count);
+        count = keepTargets(targetMask, moves, enPassantStart, count);
+        for (int i = enPassantStart; i < count; i++) {
+            int move = moves[i];
+            int captured = Move.to(move) + (color == Position.WHITE ? 8 : -8);
+            long after = (occupied ^ Position.bit(Move.from(move)) ^ Position.bit(captured)) | Position.bit(Move.to(move));
+            if ((position.attackersTo(king, opponent, after) & ~Position.bit(captured)) != 0) {
+                moves[i--] = moves[--count];
+            }
+        }
+
+        long targets = allowed;
+        if (checkers != 0) {
+            targets &= checkers | SlidingAttacks.between(king, Long.numberOfTrailingZeros(checkers));
+        }
+
+        int first = count;
+        count = generatePieces(position, color, targets, capturesOnly && checkers == 0, moves, count);
+
+        long pinned = pinnedPieces(position, color, king);
+        if (pinned == 0) {
+            return count;
+        }
+
+        int kept = first;
+        for (int i = first; i < count; i++) {
+            int move = moves[i];
+            int from = Move.from(move);
+            if ((pinned & Position.bit(from)) == 0 || (SlidingAttacks.line(king, from) & Position.bit(Move.to(move))) != 0) {
+                moves[kept++] = move;
+            }
+        }
+        return kept;
+    }
+
+    /**
+     * Checks whether one side has at least one legal move.
+     *
+     * @param position The position to test.
+     * @param color Color index of the side to move.
+     * @param moves Scratch buffer of at least {@link #MAX_MOVES} entries.
+     * @return True if a legal move exists.
+     */
+    public static boolean hasLegalMove(Position position, int color, int[] moves) {
+        return generateLegal(position, color, moves, 0) > 0;
+    }
+
+    /**
+     * Returns the pieces of one side that are pinned against their own king.
+     *
+     * @param position The position to inspect.
+     * @param color Color index of the pinned side.
+     * @param king Square of that side's king.
+     * @return Mask of pinned pieces.
+     */
+    public static long pinnedPieces(Position position, int color, int king) {
+        int opponent = color ^ 1;
+        long occupied = position.occupied();
+        long diagonal = position.pieces(opponent, Position.BISHOP) | position.pieces(opponent, Position.QUEEN);
+        long straight = position.pieces(opponent, Position.ROOK) | position.pieces(opponent, Position.QUEEN);
+        long snipers = (SlidingAttacks.bishopAttacks(king, 0L) & diagonal) | (SlidingAttacks.rookAttacks(king, 0L) & straight);
+
+        long pinned = 0L;
+        for (; snipers != 0; snipers &= snipers - 1) {
+            long blockers = SlidingAttacks.between(king, Long.numberOfTrailingZeros(snipers)) & occupied;
+            if (Long.bitCount(blockers) == 1) {
+                pinned |= blockers & position.colorMask(color);
+            }
+        }
+        return pinned;
+    }
+
+    /**
+     * Writes the pseudo-legal moves whose destination lies in {@code targets}.
+     */
+    private static int generate(Position position, int color, long targets, boolean quietPromotions, int[] moves, int offset) {
+        int count = generatePieces(position, color, targets, quietPromotions, moves, offset);
+
+        for (long kings = position.pieces(color, Position.KING); kings != 0; kings &= kings - 1) {
+            int from = Long.numberOfTrailingZeros(kings);
+            count = addMoves(position, from, Position.KING, AttackTables.kingAttacks(from) & targets, moves, count);
+        }
+
+        return count;
+    }
+
+    /**
+     * Writes the pseudo-legal moves of every piece but the king whose
+     * destination lies in {@code targets}. With {@code quietPromotions} set,
+     * pawn pushes that promote are generated even onto squares outside the
+     * mask, so that a capture-only generation still sees them.
+     */
+    private static int generatePieces(Position position, int color, long targets, boolean quietPromotions,
+                                      int[] moves, int offset) {
+        int count = offset;
+        long occupied = position.occupied();
+
+        count = generatePawnMoves(position, color, targets, quietPromotions, moves, count);
+
+        for (long knights = position.pieces(color, Position.KNIGHT); knights != 0; knights &= knights - 1) {
+            int from = Long.numberOfTrailingZeros(knights);
+            count = addMoves(position, from, Position.KNIGHT, AttackTables.knightAttacks(from) & targets, moves, count);
+        }
+        for (long bishops = position.pieces(color, Position.BISHOP); bishops != 0; bishops &= bishops - 1) {
+            int from = Long.numberOfTrailingZeros(bishops);
+            count = addMoves(position, from, Position.BISHOP, SlidingAttacks.bishopAttacks(from, occupied) & targets, moves, count);
+        }
+        for (long rooks = position.pieces(color, Position.ROOK); rooks != 0; rooks &= rooks - 1) {
+            int from = Long.numberOfTrailingZeros(rooks);
+            count = addMoves(position, from, Position.ROOK, SlidingAttacks.rookAttacks(from, occupied) & targets, moves, count);
+        }
+        for (long queens = position.pieces(color, Position.QUEEN); queens != 0; queens &= queens - 1) {
+            int from = Long.numberOfTrailingZeros(queens);
+            count = addMoves(position, from, Position.QUEEN, SlidingAttacks.queenAttacks(from, occupied) & targets, moves, count);
+        }
+
+        return count;
+    }
+
+    private static int generatePawnMoves(Position position, int color, long targets, boolean quietPromotions,
+                                         int[] moves, int count) {
+        long occupied = position.occupied();
+        long enemies = position.colorMask(color ^ 1);
+        int step = color == Position.WHITE ? -8 : 8;
+        int promotionRow = color == Position.WHITE ? 0 : 7;
+
+        for (long pawns = position.pieces(color, Position.PAWN); pawns != 0; pawns &= pawns - 1) {
+            int from = Long.numberOfTrailingZeros(pawns);
+            long pushes = AttackTables.pawnPushes(color, from) & ~occupied;
+
+            if (pushes != 0) {
+                int single = from + step;
+                if ((pushes & Position.bit(single)) != 0) {
+                    if ((single >>> 3) == promotionRow) {
+                        if (quietPromotions || (targets & Position.bit(single)) != 0) {
+                            count = addPromotions(from, single, Position.EMPTY, moves, count);
+                        }
+                    } else {
+                        if ((targets & Position.bit(single)) != 0) {
+                            moves[count++] = Move.of(from, single, Position.PAWN, 0, 0, 0);
+                        }
+                        int twice = single + step;
+                        if ((pushes & targets & Position.bit(twice)) != 0) {
+                            moves[count++] = Move.of(from, twice, Position.PAWN, 0, 0, Move.DOUBLE_PUSH);
+                        }
+                    }
+                }
+            }
+
+            for (long captures = AttackTables.pawnAttacks(color, from) & enemies; captures != 0; captures &= captures - 1) {
+                int to = Long.numberOfTrailingZeros(captures);
+                if ((targets & Position.bit(to)) == 0) {
+                    continue;
+                }
+                if ((to >>> 3) == promotionRow) {
+                    count = addPromotions(from, to, position.typeAt(to), moves, count);
+                } else {
+                    moves[count++] = Move.of(from, to, Position.PAWN, position.typeAt(to), 0, Move.CAPTURE);
+                }
+            }
+        }
+
+        return count;
+    }
+
+    private static int generateEnPassant(Position position, int color, int[] moves, int count) {
+        int target = position.enPassantSquare();
+        if (target == Position.EMPTY) {
+            return count;
+        }
+        long pawns = AttackTables.pawnAttacks(color ^ 1, target) & position.pieces(color, Position.PAWN);
+        for (; pawns != 0; pawns &= pawns - 1) {
+            int from = Long.numberOfTrailingZeros(pawns);
+            moves[count++] = Move.of(from, target, Position.PAWN, Position.PAWN, 0, Move.CAPTURE | Move.EN_PASSANT);
+        }
+        return count;
+    }
+
+    /**
+     * Writes the castling moves of one side. Castling requires the right,
+     * the king and rook on their original squares, free squares in between,
+     * and a king that is neither in check nor passes over an attacked square.
+     */
+    private static int generateCastling(Position position, int color, int[] moves, int count) {
+        int rights = position.castlingRights();
+        int kingside = color == Position.WHITE ? Position.WHITE_KINGSIDE : Position.BLACK_KINGSIDE;
+        int queenside = color == Position.WHITE ? Position.WHITE_QUEENSIDE : Position.BLACK_QUEENSIDE;
+        if ((rights & (kingside | queenside)) == 0) {
+            return count;
+        }
+
+        int king = Position.square(color == Position.WHITE ? 7 : 0, 4);
+        if ((position.pieces(color, Position.KING) & Position.bit(king)) == 0) {
+            return count;
+        }
+
+        int opponent = color ^ 1;
+        if (position.isAttacked(king, opponent)) {
+            return count;
+        }
+
+        long occupied = position.occupied();
+        long rooks = position.pieces(color, Position.ROOK);
+        if ((rights & kingside) != 0 && (rooks & Position.bit(king + 3)) != 0
+                && (occupied & SlidingAttacks.between(king, king + 3)) == 0
+                && !position.isAttacked(king + 1, opponent) && !position.isAttacked(king + 2, opponent)) {
+            moves[count++] = Move.of(king, king + 2, Position.KING, 0, 0, Move.CASTLING);
+        }
+        if ((rights & queenside) != 0 && (rooks & Position.bit(king - 4)) != 0
+                && (occupied & SlidingAttacks.between(king, king - 4)) == 0
+                && !position.isAttacked(king - 1, opponent) && !position.isAttacked(king - 2, opponent)) {
+            moves[count++] = Move.of(king, king - 2, Position.KING, 0, 0, Move.CASTLING);
+        }
+        return count;
+    }
+
+    private static int addPromotions(int from, int to, int captured, int[] moves, int count) {
+        int flags = Move.PROMOTION;
+        if (captured != Position.EMPTY) {
+            flags |= Move.CAPTURE;
+        } else {
+            captured = 0;
+        }
+        for (int promotion : PROMOTIONS) {
+            moves[count++] = Move.of(from, to, Position.PAWN, captured, promotion, flags);
+        }
+        return count;
+    }
+
+    /**
+     * Drops the moves in a range of the buffer whose destination is not in
+     * {@code targets}.
+     *
+     * @return The index after the last move kept.
+     */
+    private static int keepTargets(long targets, int[] moves, int start, int count) {
+        int kept = start;
+        for (int i = start; i < count; i++) {
+            if ((targets & Position.bit(Move.to(moves[i]))) != 0) {
+                moves[kept++] = moves[i];
+            }
+        }
+        return kept;
+    }
+
+    private static int addMoves(Position position, int from, int piece, long destinations, int[] moves, int count) {
+        for (; destinations != 0; destinations &= destinations - 1) {
+            int to = Long.numberOfTrailingZeros(destinations);
+            int captured = position.typeAt(to);
+            if (captured == Position.EMPTY) {
+                moves[count++] = Move.of(from, to, piece, 0, 0, 0);
+            } else {
+                moves[count++] = Move.of(from, to, piece, captured, 0, Move.CAPTURE);
+            }
+        }
+        return count;
+    }
+}
@@ -1,8 +1,10 @@
 package chess.gameUtils;
 
 import chess.Board;
-import chess.pieces.*;
+import chess.GamePort;
+import chess.Position;
 import chess.pieces.Piece;
+import java.util.regex.Pattern;
 
 /**
  * Validates chess moves and enforces rules regarding legal movement,
@@ -13,125 +15,82 @@ import chess.pieces.Piece;
  * support future rule enforcement for AI decision-making.
  */
 public class MoveValidator {
+
+    /**
+     * Format of a move typed by a player, compiled once for all games.
+     */
+    public static final Pattern MOVE_INPUT = Pattern.compile("[a-h][1-8] [a-h][1-8]");
+
     private Board board;
+    private final GamePort port;
+    private final int[] moveBuffer = new int[MoveGenerator.MAX_MOVES];
 
     public MoveValidator(Board board) {
+        this(board, GamePort.console());
+    }
+
+    /**
+     * Constructs a validator that reports rejected moves to a player.
+     *
+     * @param board The board the moves are played on.
+     * @param port Receives the messages about the moves.
+     */
+    public MoveValidator(Board board, GamePort port) {
         this.board = board;
+        this.port = port;
     }
 
     /**
      * Determines if the king of the specified color is currently in check.
      *
-     * @param color The color of the king ("white" or "black").
+     * @param color The color index of the king ({@link Position#WHITE} or {@link Position#BLACK}).
      * @return True if the king is in check, false otherwise.
      */
-    public boolean isKingInCheck(String color) {
-        int kingRow = -1, kingCol = -1;
-
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                Piece piece = board.getPiece(row, col);
-                if (piece instanceof King && piece.getColor().equals(color)) {
-                    kingRow = row;
-                    kingCol = col;
-                    break;
-                }
-            }
-        }
+    public boolean isKingInCheck(int color) {
+        Position position = board.getPosition();
+        int kingSquare = position.kingSquare(color);
 
-        if (kingRow == -1 || kingCol == -1) {
+        if (kingSquare == Position.EMPTY) {
             return false;
         }
 
-        String opponentColor = color.equals("white") ? "black" : "white";
-
-
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                Piece piece = board.getPiece(row, col);
-                if (piece != null && piece.getColor().equals(opponentColor)) {
-
-                    if (piece.validMovement(kingRow, kingCol)) {
-                        if (!(piece instanceof Knight) && board.hasObstacle(row, col, kingRow, kingCol)) {
-                            continue;
-                        }
-                        return true;
-                    }
-                }
-            }
-        }
-
-        return false;
+        return position.isAttacked(kingSquare, color ^ 1);
     }
 
     /**
-     * Simulates a move and checks whether it leaves the current player's king in check.
+     * Checks whether a move would leave the current player's king in check.
+     * The move is looked up among the legal moves of the position, so the
+     * board is never modified.
      *
-     * @param piece The piece to move.
+     * @param row The row of the piece to move.
+     * @param col The column of the piece to move.
      * @param newRow The destination row.
      * @param newCol The destination column.
      * @return True if the move would leave the king in check, false otherwise.
      */
-    public boolean moveLeavesKingInCheck(Piece piece, int newRow, int newCol) {
-        int oldRow = piece.getLine();
-        int oldCol = piece.getColumn();
-        Piece capturedPiece = board.getPiece(newRow, newCol);
-
-        board.setPiece(newRow, newCol, piece);
-        board.setPiece(oldRow, oldCol, null);
-        piece.setPosition(newRow, newCol);
-
-        boolean kingInCheck = isKingInCheck(piece.getColor());
-
-        board.setPiece(oldRow, oldCol, piece);
-        board.setPiece(newRow, newCol, capturedPiece);
-        piece.setPosition(oldRow, oldCol);
+    public boolean moveLeavesKingInCheck(int row, int col, int newRow, int newCol) {
+        int from = Position.square(row, col);
+        int to = Position.square(newRow, newCol);
+        int count = MoveGenerator.generateLegal(board.getPosition(), board.getPosition().colorAt(from), moveBuffer, 0);
+
+        for (int i = 0; i < count; i++) {
+            if (Move.from(moveBuffer[i]) == from && Move.to(moveBuffer[i]) == to) {
+                return false;
+            }
+        }
 
-        return kingInCheck;
+        return true;
     }
 
     /**
      * Checks whether the player of the given color has any legal moves
      * to escape check.
      *
-     * @param color The color of the player to test.
+     * @param color The color index of the player to test.
      * @return True if the player can escape check, false if checkmate.
      */
-    public boolean canEscapeCheck(String color) {
-        for (int row = 0; row < 8; row++) {
-            for (int col = 0; col < 8; col++) {
-                Piece piece = board.getPiece(row, col);
-
-                if (piece != null && piece.getColor().equals(color)) {
-
-                    for (int newRow = 0; newRow < 8; newRow++) {
-                        for (int newCol = 0; newCol < 8; newCol++) {
-
-                            if (!piece.validMovement(newRow, newCol)) {
-                                continue;
-                            }
-
-                            Piece capturedPiece = board.getPiece(newRow, newCol);
-                            board.setPiece(newRow, newCol, piece);
-                            board.setPiece(row, col, null);
-                            piece.setPosition(newRow, newCol);
-
-                            boolean stillInCheck = isKingInCheck(color);
-
-                            board.setPiece(row, col, piece);
-                            board.setPiece(newRow, newCol, capturedPiece);
-                            piece.setPosition(row, col);
-
-                            if (!stillInCheck) {
-                                return true;
-                            }
-                        }
-                    }
-                }
-            }
-        }
-
-        return false;
+    public boolean canEscapeCheck(int color) {
+        return MoveGenerator.hasLegalMove(board.getPosition(), color, moveBuffer);
     }
 
     /**
@@ -144,53 +103,74 @@ public class MoveValidator {
      * @return True if the move is valid and executed, false otherwise.
      */
     public boolean processMove(String input, boolean isWhiteTurn) {
-        if (!input.matches("[a-h][1-8] [a-h][1-8]")) {
-            System.out.println("Invalid input format. Please use notation like \"e2 e4\".");
+        if (!validateMove(input, isWhiteTurn)) {
+            return false;
+        }
+
+        boolean moveSuccessful = board.movePiece('8' - input.charAt(1), input.charAt(0) - 'a',
+                '8' - input.charAt(4), input.charAt(3) - 'a');
+        if (!moveSuccessful) {
+            port.println("Invalid move!");
             return false;
         }
 
-        String[] parts = input.split(" ");
-        String start = parts[0];
-        String end = parts[1];
+        reportCheck(isWhiteTurn ? Position.BLACK : Position.WHITE);
+        return true;
+    }
+
+    /**
+     * Validates a move entered by the player without playing it, telling
+     * the player why it is rejected. Verifies the move format, the piece
+     * color, legality of movement, and whether the move puts the king in check.
+     *
+     * @param input The move command in algebraic notation (e.g., "e2 e4").
+     * @param isWhiteTurn True if it's white's turn, false if black's.
+     * @return True if the move is valid, false otherwise.
+     */
+    public boolean validateMove(String input, boolean isWhiteTurn) {
+        if (!MOVE_INPUT.matcher(input).matches()) {
+            port.println("Invalid input format. Please use notation like \"e2 e4\".");
+            return false;
+        }
 
-        int startRow = 8 - Character.getNumericValue(start.charAt(1));
-        int startCol = start.charAt(0) - 'a';
-        int endRow = 8 - Character.getNumericValue(end.charAt(1));
-        int endCol = end.charAt(0) - 'a';
+        int startRow = '8' - input.charAt(1);
+        int startCol = input.charAt(0) - 'a';
+        int endRow = '8' - input.charAt(4);
+        int endCol = input.charAt(3) - 'a';
 
         Piece piece = board.getPiece(startRow, startCol);
 
         if (piece == null) {
-            System.out.println("No piece found at the selected position.");
+            port.println("No piece found at the selected position.");
             return false;
         }
 
-        if ((isWhiteTurn && !piece.getColor().equals("white")) || (!isWhiteTurn && !piece.getColor().equals("black"))) {
-            System.out.println("It's the other player's turn.");
+        if (piece.isWhite() != isWhiteTurn) {
+            port.println("It's the other player's turn.");
             return false;
         }
 
-        if (!piece.validMovement(endRow, endCol)) {
-            System.out.println("Invalid move!");
+        if (!piece.validMovement(board, startRow, startCol, endRow, endCol)) {
+            port.println("Invalid move!");
             return false;
         }
 
-        if (moveLeavesKingInCheck(piece, endRow, endCol)) {
-            System.out.println("Illegal move: this would put your king in check.");
+        if (moveLeavesKingInCheck(startRow, startCol, endRow, endCol)) {
+            port.println("Illegal move: this would put your king in check.");
             return false;
         }
 
-        boolean moveSuccessful = board.movePiece(startRow, startCol, endRow, endCol);
-        if (!moveSuccessful) {
-            System.out.println("Invalid move!");
-            return false;
-        }
+        return true;
+    }
 
-        String opponentColor = isWhiteTurn ? "black" : "white";
-        if (isKingInCheck(opponentColor)) {
-            System.out.println("The " + (isWhiteTurn ? "Black" : "White") + " king is in check!");
+    /**
+     * Tells the player when the king of the given color is in check.
+     *
+     * @param color The color index of the king that may be in check.
+     */
+    public void reportCheck(int color) {
+        if (isKingInCheck(color)) {
+            port.println("The " + (color == Position.BLACK ? "Black" : "White") + " king is in check!");
         }
-
-        return true;
     }
-}
\ No newline at end of file
+}
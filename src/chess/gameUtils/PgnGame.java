@@ -0,0 +1,202 @@
+package chess.gameUtils;
+
+import chess.Position;
+import java.util.Arrays;
+import java.util.Collections;
+import java.util.LinkedHashMap;
+import java.util.Map;
+
+/**
+ * Represents one game of a PGN file: its tag pairs and the moves played.
+ *
+ * Moves are kept as packed integers (see {@link Move}) in the order they
+ * were played from the starting position, which is the standard one unless
+ * the game has a "FEN" tag. The result is kept in the "Result" tag. A move
+ * can carry a comment and a numeric annotation glyph (NAG), such as 2 for
+ * "?" or 4 for "??", which are written after it in PGN.
+ */
+public class PgnGame {
+
+    public static final String WHITE_WINS = "1-0";
+    public static final String BLACK_WINS = "0-1";
+    public static final String DRAW = "1/2-1/2";
+    public static final String UNFINISHED = "*";
+
+    private final Map<String, String> tags = new LinkedHashMap<>();
+    private int[] moves = new int[128];
+    private int moveCount;
+    private String[] comments;
+    private int[] nags;
+
+    /**
+     * Constructs an empty game from the standard starting position.
+     */
+    public PgnGame() {
+    }
+
+    /**
+     * Constructs an empty game from a given starting position.
+     *
+     * @param startFen FEN record of the starting position.
+     */
+    public PgnGame(String startFen) {
+        if (!Fen.START.equals(startFen)) {
+            tags.put("SetUp", "1");
+            tags.put("FEN", startFen);
+        }
+    }
+
+    /**
+     * Returns the value of a tag.
+     *
+     * @param name The tag name.
+     * @return The value, or null if the game has no such tag.
+     */
+    public String getTag(String name) {
+        return tags.get(name);
+    }
+
+    /**
+     * Sets the value of a tag, keeping the order in which tags were first set.
+     *
+     * @param name The tag name.
+     * @param value The value.
+     */
+    public void setTag(String name, String value) {
+        tags.put(name, value);
+    }
+
+    /**
+     * Returns all tags in the order they were set.
+     *
+     * @return A read-only view of the tags.
+     */
+    public Map<String, String> getTags() {
+        return Collections.unmodifiableMap(tags);
+    }
+
+    /**
+     * Returns the result of the game.
+     *
+     * @return One of the result constants.
+     */
+    public String getResult() {
+        String result = tags.get("Result");
+        return result != null ? result : UNFINISHED;
+    }
+
+    /**
+     * Sets the result of the game.
+     *
+     * @param result One of the result constants.
+     */
+    public void setResult(String result) {
+        tags.put("Result", result);
+    }
+
+    /**
+     * Returns the FEN record of the starting position.
+     *
+     * @return The "FEN" tag, or the standard starting position.
+     */
+    public String getStartFen() {
+        String fen = tags.get("FEN");
+        return fen != null ? fen : Fen.START;
+    }
+
+    /**
+     * Creates a new position set to the starting position of the game.
+     *
+     * @return The starting position.
+     * @throws IllegalArgumentException If the "FEN" tag is not a valid FEN record.
+     */
+    public Position startPosition() {
+        Position position = new Position();
+        Fen.parse(getStartFen(), position);
+        return position;
+    }
+
+    /**
+     * Appends a move to the game.
+     *
+     * @param move The packed move, legal after the moves already added.
+     */
+    public void addMove(int move) {
+        if (moveCount == moves.length) {
+            moves = Arrays.copyOf(moves, moveCount * 2);
+            if (comments != null) {
+                comments = Arrays.copyOf(comments, moves.length);
+                nags = Arrays.copyOf(nags, moves.length);
+            }
+        }
+        moves[moveCount++] = move;
+    }
+
+    /**
+     * Returns the number of moves (plies) in the game.
+     *
+     * @return The number of moves.
+     */
+    public int getMoveCount() {
+        return moveCount;
+    }
+
+    /**
+     * Returns one of the moves of the game.
+     *
+     * @param index Ply index, 0 being the first move played.
+     * @return The packed move.
+     */
+    public int getMove(int index) {
+        return moves[index];
+    }
+
+    /**
+     * Returns the comment written after a move.
+     *
+     * @param index Ply index of the move.
+     * @return The comment, or null if the move has none.
+     */
+    public String getComment(int index) {
+        return comments != null ? comments[index] : null;
+    }
+
+    /**
+     * Sets the comment written after a move.
+     *
+     * @param index Ply index of the move.
+     * @param comment The comment, without braces, or null for none.
+     */
+    public void setComment(int index, String comment) {
+        prepareAnnotations();
+        comments[index] = comment;
+    }
+
+    /**
+     * Returns the numeric annotation glyph of a move.
+     *
+     * @param index Ply index of the move.
+     * @return The glyph number, or 0 if the move has none.
+     */
+    public int getNag(int index) {
+        return nags != null ? nags[index] : 0;
+    }
+
+    /**
+     * Sets the numeric annotation glyph of a move.
+     *
+     * @param index Ply index of the move.
+     * @param nag The glyph number (e.g., 2 for "?", 4 for "??"), or 0 for none.
+     */
+    public void setNag(int index, int nag) {
+        prepareAnnotations();
+        nags[index] = nag;
+    }
+
+    private void prepareAnnotations() {
+        if (comments == null) {
+            comments = new String[moves.length];
+            nags = new int[moves.length];
+        }
+    }
+}
@@ -0,0 +1,359 @@
+package chess.gameUtils;
+
+import chess.Position;
+import java.io.Closeable;
+import java.io.IOException;
+import java.nio.ByteBuffer;
+import java.nio.channels.FileChannel;
+import java.nio.channels.ReadableByteChannel;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Path;
+import java.nio.file.Paths;
+import java.nio.file.StandardOpenOption;
+import java.util.Arrays;
+
+/**
+ * Reads the games of a PGN file one at a time.
+ *
+ * The file is read through a channel into a fixed-size buffer and scanned
+ * byte by byte, so memory use does not depend on the size of the file:
+ * only the game being read is kept. Tags are decoded as UTF-8; in the
+ * movetext, move numbers, comments, variations, annotation glyphs and
+ * escape lines are skipped, and every move is decoded from SAN against the
+ * position reached so far.
+ *
+ * A game whose movetext holds an illegal move or whose "FEN" tag is
+ * invalid is read to its end and reported with an
+ * {@link IllegalArgumentException}, after which the next game can be read.
+ */
+public class PgnReader implements Closeable {
+
+    private static final int BUFFER_SIZE = 1 << 16;
+
+    /**
+     * Characters that end a movetext token: whitespace and PGN punctuation.
+     */
+    private static final boolean[] TOKEN_END = new boolean[256];
+
+    static {
+        for (int c = 0; c <= ' '; c++) {
+            TOKEN_END[c] = true;
+        }
+        for (char c : "{}()[];$\"".toCharArray()) {
+            TOKEN_END[c] = true;
+        }
+    }
+
+    private final ReadableByteChannel channel;
+    private final ByteBuffer buffer = ByteBuffer.allocateDirect(BUFFER_SIZE);
+    private final StringBuilder token = new StringBuilder(32);
+    private byte[] text = new byte[64];
+    private final Position position = new Position();
+    private final int[] moveBuffer = new int[MoveGenerator.MAX_MOVES];
+    private boolean endOfInput;
+    private long gameNumber;
+
+    /**
+     * Opens a PGN file for reading.
+     *
+     * @param path The file to read.
+     * @throws IOException If the file cannot be opened.
+     */
+    public PgnReader(Path path) throws IOException {
+        this(FileChannel.open(path, StandardOpenOption.READ));
+    }
+
+    /**
+     * Constructs a reader over a channel of PGN text.
+     *
+     * @param channel The channel to read; it is closed with the reader.
+     */
+    public PgnReader(ReadableByteChannel channel) {
+        this.channel = channel;
+        buffer.flip();
+    }
+
+    /**
+     * Reads the next game.
+     *
+     * @return The game, or null at the end of the input.
+     * @throws IOException If reading fails.
+     * @throws IllegalArgumentException If the game holds an illegal move or
+     *         an invalid "FEN" tag; the reader is left at the next game.
+     */
+    public PgnGame next() throws IOException {
+        PgnGame game = null;
+        boolean movetext = false;
+        String error = null;
+        String termination = null;
+
+        while (termination == null) {
+            int c = skipWhitespace();
+            if (c < 0 || (c == '[' && movetext)) {
+                break;
+            }
+            read();
+            if (c == '{') {
+                skipPast('}');
+                continue;
+            } else if (c == ';' || c == '%') {
+                skipPast('\n');
+                continue;
+            }
+
+            if (game == null) {
+                game = new PgnGame();
+            }
+            if (c == '[') {
+                readTag(game);
+                continue;
+            }
+            if (!movetext) {
+                movetext = true;
+                try {
+                    Fen.parse(game.getStartFen(), position);
+                } catch (IllegalArgumentException e) {
+                    error = e.getMessage();
+                }
+            }
+
+            switch (c) {
+                case '(':
+                    skipVariation();
+                    continue;
+                case ')':
+                    continue;
+                case '*':
+                    termination = PgnGame.UNFINISHED;
+                    continue;
+                default:
+                    break;
+            }
+
+            readToken(c);
+            if (c == '$') {
+                continue;
+            }
+            if (isResult(token)) {
+                termination = token.toString();
+                continue;
+            }
+
+            int start = 0;
+            while (start < token.length() && (isDigit(token.charAt(start)) || token.charAt(start) == '.')) {
+                start++;
+            }
+            if (start == token.length() || error != null || contentEquals(token, "e.p.")) {
+                continue;
+            }
+            int move = San.parse(position, token, start, token.length(), moveBuffer);
+            if (move == Move.NONE) {
+                error = "illegal move '" + token.substring(start) + "' at ply " + (game.getMoveCount() + 1);
+                continue;
+            }
+            San.play(position, move);
+            game.addMove(move);
+        }
+
+        if (game == null) {
+            return null;
+        }
+        gameNumber++;
+        if (termination != null && game.getTag("Result") == null) {
+            game.setResult(termination);
+        }
+        if (error != null) {
+            throw new IllegalArgumentException("Invalid PGN game " + gameNumber + ": " + error);
+        }
+        return game;
+    }
+
+    /**
+     * Returns the number of games read so far, including invalid ones.
+     *
+     * @return The game count.
+     */
+    public long getGameCount() {
+        return gameNumber;
+    }
+
+    /**
+     * Closes the underlying channel.
+     *
+     * @throws IOException If closing fails.
+     */
+    @Override
+    public void close() throws IOException {
+        channel.close();
+    }
+
+    /**
+     * Reads a tag pair after its opening bracket. Malformed tags are skipped.
+     */
+    private void readTag(PgnGame game) throws IOException {
+        token.setLength(0);
+        int c = skipWhitespace();
+        while (c > ' ' && c != '"' && c != ']') {
+            token.append((char) read());
+            c = peek();
+        }
+        if (skipWhitespace() != '"') {
+            skipPast(']');
+            return;
+        }
+        read();
+
+        int length = 0;
+        for (c = read(); c >= 0 && c != '"'; c = read()) {
+            if (c == '\\') {
+                c = read();
+            }
+            if (length == text.length) {
+                text = Arrays.copyOf(text, length * 2);
+            }
+            text[length++] = (byte) c;
+        }
+        skipPast(']');
+        game.setTag(token.toString(), new String(text, 0, length, StandardCharsets.UTF_8));
+    }
+
+    /**
+     * Reads a movetext token whose first character has been consumed.
+     */
+    private void readToken(int first) throws IOException {
+        token.setLength(0);
+        token.append((char) first);
+        for (int c = peek(); c >= 0 && !TOKEN_END[c]; c = peek()) {
+            token.append((char) read());
+        }
+    }
+
+    private void skipVariation() throws IOException {
+        int depth = 1;
+        while (depth > 0) {
+            int c = read();
+            if (c < 0) {
+                return;
+            } else if (c == '(') {
+                depth++;
+            } else if (c == ')') {
+                depth--;
+            } else if (c == '{') {
+                skipPast('}');
+            } else if (c == ';') {
+                skipPast('\n');
+            }
+        }
+    }
+
+    private void skipPast(int end) throws IOException {
+        int c;
+        do {
+            c = read();
+        } while (c >= 0 && c != end);
+    }
+
+    /**
+     * Skips whitespace and returns the next character without consuming it.
+     */
+    private int skipWhitespace() throws IOException {
+        int c = peek();
+        while (c >= 0 && c <= ' ') {
+            read();
+            c = peek();
+        }
+        return c;
+    }
+
+    private int peek() throws IOException {
+        if (!buffer.hasRemaining() && !fill()) {
+            return -1;
+        }
+        return buffer.get(buffer.position()) & 0xFF;
+    }
+
+    private int read() throws IOException {
+        if (!buffer.hasRemaining() && !fill()) {
+            return -1;
+        }
+        return buffer.get() & 0xFF;
+    }
+
+    private boolean fill() throws IOException {
+        if (endOfInput) {
+            return false;
+        }
+        buffer.clear();
+        int count;
+        do {
+            count = channel.read(buffer);
+        } while (count == 0);
+        buffer.flip();
+        if (count < 0) {
+            endOfInput = true;
+            return false;
+        }
+        return true;
+    }
+
+    private static boolean isResult(CharSequence s) {
+        return contentEquals(s, PgnGame.WHITE_WINS) || contentEquals(s, PgnGame.BLACK_WINS)
+                || contentEquals(s, PgnGame.DRAW) || contentEquals(s, PgnGame.UNFINISHED);
+    }
+
+    private static boolean contentEquals(CharSequence s, String text) {
+        if (s.length() != text.length()) {
+            return false;
+        }
+        for (int i = 0; i < text.length(); i++) {
+            if (s.charAt(i) != text.charAt(i)) {
+                return false;
+            }
+        }
+        return true;
+    }
+
+    private static boolean isDigit(char c) {
+        return c >= '0' && c <= '9';
+    }
+
+    /**
+     * Reads every game of a PGN file and prints the counts and speed.
+     *
+     * @param args The path of the PGN file.
+     * @throws IOException If the file cannot be read.
+     */
+    public static void main(String[] args) throws IOException {
+        if (args.length == 0) {
+            System.out.println("Usage: java chess.gameUtils.PgnReader <file.pgn>");
+            return;
+        }
+
+        long start = System.nanoTime();
+        long games = 0;
+        long plies = 0;
+        long errors = 0;
+        try (PgnReader reader = new PgnReader(Paths.get(args[0]))) {
+            while (true) {
+                try {
+                    PgnGame game = reader.next();
+                    if (game == null) {
+                        break;
+                    }
+                    games++;
+                    plies += game.getMoveCount();
+                } catch (IllegalArgumentException e) {
+                    errors++;
+                    System.out.println(e.getMessage());
+                }
+            }
+        }
+        long elapsed = Math.max(1, System.nanoTime() - start);
+
+        System.out.println("Games: " + games);
+        System.out.println("Plies: " + plies);
+        System.out.println("Invalid games: " + errors);
+        System.out.println("Time: " + elapsed / 1000000 + " ms");
+        System.out.println("Games/second: " + games * 1000000000L / elapsed);
+    }
+}
@@ -0,0 +1,171 @@
+package chess.gameUtils;
+
+import chess.Position;
+import java.io.Closeable;
+import java.io.Flushable;
+import java.io.IOException;
+import java.io.Writer;
+import java.nio.charset.StandardCharsets;
+import java.nio.file.Files;
+import java.nio.file.Path;
+import java.nio.file.StandardOpenOption;
+import java.util.Map;
+
+/**
+ * Writes games in PGN export format.
+ *
+ * Each game starts with the seven standard tags (Event, Site, Date, Round,
+ * White, Black, Result), filled with "?" when unknown, followed by its other
+ * tags. The moves are written in SAN with move numbers, annotation glyphs
+ * and comments, wrapped to 79 columns, and end with the result.
+ */
+public class PgnWriter implements Closeable, Flushable {
+
+    private static final String[] SEVEN_TAG_ROSTER = {"Event", "Site", "Date", "Round", "White", "Black", "Result"};
+    private static final int LINE_LENGTH = 79;
+
+    private final Writer out;
+    private final StringBuilder text = new StringBuilder(4096);
+    private final int[] moveBuffer = new int[MoveGenerator.MAX_MOVES];
+
+    /**
+     * Opens a PGN file for writing, in UTF-8.
+     *
+     * @param path The file to write.
+     * @param append True to add games after those already in the file,
+     *               false to replace its contents.
+     * @throws IOException If the file cannot be opened.
+     */
+    public PgnWriter(Path path, boolean append) throws IOException {
+        this(Files.newBufferedWriter(path, StandardCharsets.UTF_8, StandardOpenOption.CREATE,
+                StandardOpenOption.WRITE, append ? StandardOpenOption.APPEND : StandardOpenOption.TRUNCATE_EXISTING));
+    }
+
+    /**
+     * Constructs a PGN writer over a character stream.
+     *
+     * @param out The stream to write to; it is closed with the writer.
+     */
+    public PgnWriter(Writer out) {
+        this.out = out;
+    }
+
+    /**
+     * Writes one game, followed by an empty line.
+     *
+     * @param game The game to write.
+     * @throws IOException If writing fails.
+     */
+    public void write(PgnGame game) throws IOException {
+        text.setLength(0);
+        format(game, moveBuffer, text);
+        out.append(text);
+    }
+
+    @Override
+    public void flush() throws IOException {
+        out.flush();
+    }
+
+    @Override
+    public void close() throws IOException {
+        out.close();
+    }
+
+    /**
+     * Returns a game in PGN export format.
+     *
+     * @param game The game to format.
+     * @return The PGN text, ending with an empty line.
+     */
+    public static String toString(PgnGame game) {
+        StringBuilder out = new StringBuilder(1024);
+        format(game, new int[MoveGenerator.MAX_MOVES], out);
+        return out.toString();
+    }
+
+    private static void format(PgnGame game, int[] moves, StringBuilder out) {
+        for (String name : SEVEN_TAG_ROSTER) {
+            String value = name.equals("Result") ? game.getResult() : game.getTag(name);
+            appendTag(out, name, value != null ? value : name.equals("Date") ? "????.??.??" : "?");
+        }
+        for (Map.Entry<String, String> tag : game.getTags().entrySet()) {
+            if (!isRosterTag(tag.getKey())) {
+                appendTag(out, tag.getKey(), tag.getValue());
+            }
+        }
+        out.append('\n');
+
+        Position position = game.startPosition();
+        int lineStart = out.length();
+        boolean needsNumber = true;
+        for (int i = 0; i < game.getMoveCount(); i++) {
+            int tokenStart = out.length();
+            if (tokenStart > lineStart) {
+                out.append(' ');
+            }
+            boolean white = position.sideToMove() == Position.WHITE;
+            if (white || needsNumber) {
+                out.append(position.fullmoveNumber()).append(white ? ". " : "... ");
+            }
+            int move = game.getMove(i);
+            San.write(position, move, moves, out);
+            San.play(position, move);
+            lineStart = wrap(out, lineStart, tokenStart);
+
+            if (game.getNag(i) != 0) {
+                tokenStart = out.length();
+                out.append(" $").append(game.getNag(i));
+                lineStart = wrap(out, lineStart, tokenStart);
+            }
+            if (game.getComment(i) != null) {
+                tokenStart = out.length();
+                out.append(" {").append(game.getComment(i).replace('}', ')')).append('}');
+                lineStart = wrap(out, lineStart, tokenStart);
+            }
+            needsNumber = game.getComment(i) != null;
+        }
+
+        int tokenStart = out.length();
+        if (tokenStart > lineStart) {
+            out.append(' ');
+        }
+        out.append(game.getResult());
+        wrap(out, lineStart, tokenStart);
+        out.append("\n\n");
+    }
+
+    /**
+     * Moves the token just appended to a new line if it made the line too long.
+     *
+     * @return The index where the current line starts.
+     */
+    private static int wrap(StringBuilder out, int lineStart, int tokenStart) {
+        if (out.length() - lineStart <= LINE_LENGTH || tokenStart == lineStart) {
+            return lineStart;
+        }
+        out.setCharAt(tokenStart, '\n');
+        return tokenStart + 1;
+    }
+
+    private static boolean isRosterTag(String name) {
+        for (String roster : SEVEN_TAG_ROSTER) {
+            if (roster.equals(name)) {
+                return true;
+            }
+        }
+        return false;
+    }
+
+    private static void appendTag(StringBuilder out, String name, String value) {
+        out.append('[').append(name).append(" \"");
+        for (int i = 0; i < value.length(); i++) {
+            char c = value.charAt(i);
+            if (c == '"' || c == '\\') {
+                out.append('\\');
+            }
+            out.append(c);
+        }
+        out.append("\"]\n");
+    }
+}
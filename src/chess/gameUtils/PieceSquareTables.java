@@ -0,0 +1,126 @@
+package chess.gameUtils;
+
+/**
+ * Piece values and piece-square tables used to score positions.
+ *
+ * The material value of a piece is fixed, while its placement score depends
+ * on the square it stands on: knights are worth more in the center, pawns
+ * more as they advance, the king more behind its pawns. The tables below are
+ * laid out like the board seen from white's side, with the eighth row first,
+ * which matches the square indices of {@link chess.Position}; black pieces
+ * use the same tables mirrored vertically.
+ *
+ * Since every score is a sum over pieces, a position can keep running totals
+ * that are updated whenever a piece is placed or removed.
+ */
+public final class PieceSquareTables {
+
+    /**
+     * Value of each piece type in centipawns. Kings are never captured and
+     * are not counted.
+     */
+    private static final int[] MATERIAL = {100, 320, 330, 500, 900, 0};
+
+    private static final int[][] TABLES = {
+        { // Pawn
+             0,  0,  0,  0,  0,  0,  0,  0,
+            50, 50, 50, 50, 50, 50, 50, 50,
+            10, 10, 20, 30, 30, 20, 10, 10,
+             5,  5, 10, 25, 25, 10,  5,  5,
+             0,  0,  0, 20, 20,  0,  0,  0,
+             5, -5,-10,  0,  0,-10, -5,  5,
+             5, 10, 10,-20,-20, 10, 10,  5,
+             0,  0,  0,  0,  0,  0,  0,  0
+        },
+        { // Knight
+           -50,-40,-30,-30,-30,-30,-40,-50,
+           -40,-20,  0,  0,  0,  0,-20,-40,
+           -30,  0, 10, 15, 15, 10,  0,-30,
+           -30,  5, 15, 20, 20, 15,  5,-30,
+           -30,  0, 15, 20, 20, 15,  0,-30,
+           -30,  5, 10, 15, 15, 10,  5,-30,
+           -40,-20,  0,  5,  5,  0,-20,-40,
+           -50,-40,-30,-30,-30,-30,-40,-50
+        },
+        { // Bishop
+           -20,-10,-10,-10,-10,-10,-10,-20,
+           -10,  0,  0,  0,  0,  0,  0,-10,
+           -10,  0,  5, 10, 10,  5,  0,-10,
+           -10,  5,  5, 10, 10,  5,  5,-10,
+           -10,  0, 10, 10, 10, 10,  0,-10,
+           -10, 10, 10, 10, 10, 10, 10,-10,
+           -10,  5,  0,  0,  0,  0,  5,-10,
+           -20,-10,-10,-10,-10,-10,-10,-20
+        },
+        { // Rook
+             0,  0,  0,  0,  0,  0,  0,  0,
+             5, 10, 10, 10, 10, 10, 10,  5,
+            -5,  0,  0,  0,  0,  0,  0, -5,
+            -5,  0,  0,  0,  0,  0,  0, -5,
+            -5,  0,  0,  0,  0,  0,  0, -5,
+            -5,  0,  0,  0,  0,  0,  0, -5,
+            -5,  0,  0,  0,  0,  0,  0, -5,
+             0,  0,  0,  5,  5,  0,  0,  0
+        },
+        { // Queen
+           -20,-10,-10, -5, -5,-10,-10,-20,
+           -10,  0,  0,  0,  0,  0,  0,-10,
+           -10,  0,  5,  5,  5,  5,  0,-10,
+            -5,  0,  5,  5,  5,  5,  0, -5,
+             0,  0,  5,  5,  5,  5,  0, -5,
+           -10,  5,  5,  5,  5,  5,  0,-10,
+           -10,  0,  5,  0,  0,  0,  0,-10,
+           -20,-10,-10, -5, -5,-10,-10,-20
+        },
+        { // King
+           -30,-40,-40,-50,-50,-40,-40,-30,
+           -30,-40,-40,-50,-50,-40,-40,-30,
+           -30,-40,-40,-50,-50,-40,-40,-30,
+           -30,-40,-40,-50,-50,-40,-40,-30,
+           -20,-30,-30,-40,-40,-30,-30,-20,
+           -10,-20,-20,-20,-20,-20,-20,-10,
+            20, 20,  0,  0,  0,  0, 20, 20,
+            20, 30, 10,  0,  0, 10, 30, 20
+        }
+    };
+
+    /**
+     * The tables above for both colors, indexed by {@code piece code * 64 + square}.
+     */
+    private static final int[] PLACEMENT = new int[12 * 64];
+
+    static {
+        for (int type = 0; type < 6; type++) {
+            for (int square = 0; square < 64; square++) {
+                PLACEMENT[type << 6 | square] = TABLES[type][square];
+                PLACEMENT[(6 + type) << 6 | square] = TABLES[type][square ^ 56];
+            }
+        }
+    }
+
+    private PieceSquareTables() {
+    }
+
+    /**
+     * Returns the material value of a piece type.
+     *
+     * @param type Type index of the piece.
+     * @return Value in centipawns.
+     */
+    public static int material(int type) {
+        return MATERIAL[type];
+    }
+
+    /**
+     * Returns the placement score of a piece standing on a square, from the
+     * point of view of the piece's own color.
+     *
+     * @param color Color index of the piece.
+     * @param type Type index of the piece.
+     * @param square The square index.
+     * @return Placement score in centipawns.
+     */
+    public static int placement(int color, int type, int square) {
+        return PLACEMENT[(color * 6 + type) << 6 | square];
+    }
+}
@@ -0,0 +1,223 @@
+package chess.gameUtils;
+
+import chess.Position;
+
+/**
+ * Converts moves to and from Standard Algebraic Notation (SAN), the move
+ * format of PGN files (e.g., "Nf3", "exd5", "O-O", "e8=Q+").
+ *
+ * SAN only names the piece and the destination, adding the origin file or
+ * rank when two pieces of the same type could go there, so both directions
+ * need the legal moves of the position the move is played from.
+ */
+public final class San {
+
+    private static final String PIECE_LETTERS = "PNBRQK";
+
+    private San() {
+    }
+
+    /**
+     * Returns the SAN of a legal move.
+     *
+     * @param position The position before the move; it is left unchanged.
+     * @param move The packed move.
+     * @return The move in SAN, with a check or mate suffix.
+     */
+    public static String toString(Position position, int move) {
+        StringBuilder out = new StringBuilder(8);
+        write(position, move, new int[MoveGenerator.MAX_MOVES], out);
+        return out.toString();
+    }
+
+    /**
+     * Appends the SAN of a legal move to a builder.
+     *
+     * @param position The position before the move; it is left unchanged.
+     * @param move The packed move.
+     * @param moves Scratch buffer of at least {@link MoveGenerator#MAX_MOVES} entries.
+     * @param out The builder to append to.
+     */
+    public static void write(Position position, int move, int[] moves, StringBuilder out) {
+        int from = Move.from(move);
+        int to = Move.to(move);
+        int piece = Move.piece(move);
+
+        if ((move & Move.CASTLING) != 0) {
+            out.append(to > from ? "O-O" : "O-O-O");
+        } else if (piece == Position.PAWN) {
+            if (Move.isCapture(move)) {
+                out.append((char) ('a' + (from & 7))).append('x');
+            }
+            appendSquare(out, to);
+            if (Move.isPromotion(move)) {
+                out.append('=').append(PIECE_LETTERS.charAt(Move.promotion(move)));
+            }
+        } else {
+            out.append(PIECE_LETTERS.charAt(piece));
+            boolean ambiguous = false;
+            boolean sameFile = false;
+            boolean sameRank = false;
+            int count = MoveGenerator.generateLegal(position, position.sideToMove(), Position.bit(to), moves, 0);
+            for (int i = 0; i < count; i++) {
+                int other = moves[i];
+                if (Move.piece(other) == piece && Move.to(other) == to && Move.from(other) != from) {
+                    ambiguous = true;
+                    sameFile |= (Move.from(other) & 7) == (from & 7);
+                    sameRank |= (Move.from(other) >>> 3) == (from >>> 3);
+                }
+            }
+            if (ambiguous && (!sameFile || sameRank)) {
+                out.append((char) ('a' + (from & 7)));
+            }
+            if (ambiguous && sameFile) {
+                out.append((char) ('8' - (from >>> 3)));
+            }
+            if (Move.isCapture(move)) {
+                out.append('x');
+            }
+            appendSquare(out, to);
+        }
+
+        play(position, move);
+        if (position.inCheck()) {
+            out.append(MoveGenerator.hasLegalMove(position, position.sideToMove(), moves) ? '+' : '#');
+        }
+        position.unmakeMove();
+    }
+
+    /**
+     * Finds the legal move a SAN string stands for.
+     *
+     * @param position The position the move is played from.
+     * @param san The move in SAN.
+     * @return The packed move.
+     * @throws IllegalArgumentException If the text is not a legal, unambiguous move.
+     */
+    public static int parse(Position position, CharSequence san) {
+        int move = parse(position, san, 0, san.length(), new int[MoveGenerator.MAX_MOVES]);
+        if (move == Move.NONE) {
+            throw new IllegalArgumentException("Illegal or ambiguous move: " + san);
+        }
+        return move;
+    }
+
+    /**
+     * Finds the legal move a range of characters stands for. Check, mate and
+     * annotation suffixes ("+", "#", "!", "?") are ignored, castling may be
+     * written with zeros, and the "=" before a promotion piece is optional.
+     *
+     * @param position The position the move is played from.
+     * @param s Text holding the move.
+     * @param start Index of the first character of the move.
+     * @param end Index just after the last character of the move.
+     * @param moves Scratch buffer of at least {@link MoveGenerator#MAX_MOVES} entries.
+     * @return The packed move, or {@link Move#NONE} if the text is not a legal, unambiguous move.
+     */
+    public static int parse(Position position, CharSequence s, int start, int end, int[] moves) {
+        while (end > start && "+#!?".indexOf(s.charAt(end - 1)) >= 0) {
+            end--;
+        }
+        if (end - start < 2) {
+            return Move.NONE;
+        }
+
+        char first = s.charAt(start);
+        if (first == 'O' || first == '0') {
+            int length = end - start;
+            if (length != 3 && length != 5) {
+                return Move.NONE;
+            }
+            int count = MoveGenerator.generateLegal(position, position.sideToMove(), moves, 0);
+            for (int i = 0; i < count; i++) {
+                int move = moves[i];
+                if ((move & Move.CASTLING) != 0 && (Move.to(move) > Move.from(move)) == (length == 3)) {
+                    return move;
+                }
+            }
+            return Move.NONE;
+        }
+
+        int piece = Position.PAWN;
+        if (first >= 'B' && first <= 'R') {
+            piece = PIECE_LETTERS.indexOf(first);
+            if (piece <= Position.PAWN) {
+                return Move.NONE;
+            }
+            start++;
+        }
+
+        int promotion = Position.EMPTY;
+        char last = s.charAt(end - 1);
+        if (last >= 'B' && last <= 'R' || last >= 'b' && last <= 'r' && s.charAt(end - 2) == '=') {
+            promotion = Move.promotionType(last);
+            if (promotion == Position.EMPTY) {
+                return Move.NONE;
+            }
+            end--;
+            if (s.charAt(end - 1) == '=') {
+                end--;
+            }
+        }
+
+        if (end - start < 2) {
+            return Move.NONE;
+        }
+        char file = s.charAt(end - 2);
+        char rank = s.charAt(end - 1);
+        if (file < 'a' || file > 'h' || rank < '1' || rank > '8') {
+            return Move.NONE;
+        }
+        int to = Position.square('8' - rank, file - 'a');
+
+        int fromFile = -1;
+        int fromLine = -1;
+        for (int i = start; i < end - 2; i++) {
+            char c = s.charAt(i);
+            if (c >= 'a' && c <= 'h') {
+                fromFile = c - 'a';
+            } else if (c >= '1' && c <= '8') {
+                fromLine = '8' - c;
+            } else if (c != 'x' && c != ':' && c != '-') {
+                return Move.NONE;
+            }
+        }
+
+        int count = MoveGenerator.generateLegal(position, position.sideToMove(), Position.bit(to), moves, 0);
+        int found = Move.NONE;
+        for (int i = 0; i < count; i++) {
+            int move = moves[i];
+            int from = Move.from(move);
+            if (Move.to(move) != to || Move.piece(move) != piece
+                    || (Move.isPromotion(move) ? Move.promotion(move) != promotion : promotion != Position.EMPTY)
+                    || (fromFile >= 0 && (from & 7) != fromFile)
+                    || (fromLine >= 0 && (from >>> 3) != fromLine)) {
+                continue;
+            }
+            if (found != Move.NONE) {
+                return Move.NONE;
+            }
+            found = move;
+        }
+        return found;
+    }
+
+    /**
+     * Plays a move on a position that is used to walk through a whole game.
+     * When the undo stack is about to overflow, it is dropped by reloading
+     * the position from its own FEN, so games of any length can be replayed.
+     *
+     * @param position The position to play on.
+     * @param move The packed move.
+     */
+    static void play(Position position, int move) {
+        if (position.historySize() >= Position.MAX_HISTORY - 1) {
+            Fen.parse(Fen.toString(position), position);
+        }
+        position.makeMove(move);
+    }
+
+    private static void appendSquare(StringBuilder out, int square) {
+        out.append((char) ('a' + (square & 7))).append((char) ('8' - (square >>> 3)));
+    }
+}
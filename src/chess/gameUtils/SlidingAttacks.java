@@ -0,0 +1,235 @@
+package chess.gameUtils;
+
+import chess.Position;
+
+/**
+ * Constant-time attack sets for rooks, bishops and queens using magic bitboards.
+ *
+ * For every square the relevant blockers of a slider (its rays without the
+ * board edge) are hashed with a magic multiplier into a slot of a precomputed
+ * attack table. The magic numbers are searched with a fixed-seed generator
+ * when the class is loaded, so the tables are identical on every run and
+ * never need to be shipped with the code. Squares use the {@link Position}
+ * indexing.
+ */
+public final class SlidingAttacks {
+
+    private static final int[][] ROOK_DIRECTIONS = {{-1, 0}, {1, 0}, {0, -1}, {0, 1}};
+    private static final int[][] BISHOP_DIRECTIONS = {{-1, -1}, {-1, 1}, {1, -1}, {1, 1}};
+
+    private static final long[] ROOK_MASKS = new long[64];
+    private static final long[] ROOK_MAGICS = new long[64];
+    private static final int[] ROOK_SHIFTS = new int[64];
+    private static final long[][] ROOK_TABLE = new long[64][];
+
+    private static final long[] BISHOP_MASKS = new long[64];
+    private static final long[] BISHOP_MAGICS = new long[64];
+    private static final int[] BISHOP_SHIFTS = new int[64];
+    private static final long[][] BISHOP_TABLE = new long[64][];
+
+    private static final long[][] BETWEEN = new long[64][64];
+    private static final long[][] LINE = new long[64][64];
+
+    private static long seed = 0x2545F4914F6CDD1DL;
+
+    static {
+        for (int square = 0; square < 64; square++) {
+            ROOK_MASKS[square] = relevantMask(square, ROOK_DIRECTIONS);
+            ROOK_TABLE[square] = buildTable(square, ROOK_DIRECTIONS, ROOK_MASKS[square], ROOK_MAGICS, ROOK_SHIFTS);
+
+            BISHOP_MASKS[square] = relevantMask(square, BISHOP_DIRECTIONS);
+            BISHOP_TABLE[square] = buildTable(square, BISHOP_DIRECTIONS, BISHOP_MASKS[square], BISHOP_MAGICS, BISHOP_SHIFTS);
+        }
+
+        for (int from = 0; from < 64; from++) {
+            for (int to = 0; to < 64; to++) {
+                BETWEEN[from][to] = betweenMask(from, to);
+                LINE[from][to] = lineMask(from, to);
+            }
+        }
+    }
+
+    private SlidingAttacks() {
+    }
+
+    /**
+     * Returns the squares attacked by a rook.
+     *
+     * @param square The rook's square.
+     * @param occupied Mask of all occupied squares.
+     * @return Mask of attacked squares, including the first blocker on each ray.
+     */
+    public static long rookAttacks(int square, long occupied) {
+        int index = (int) (((occupied & ROOK_MASKS[square]) * ROOK_MAGICS[square]) >>> ROOK_SHIFTS[square]);
+        return ROOK_TABLE[square][index];
+    }
+
+    /**
+     * Returns the squares attacked by a bishop.
+     *
+     * @param square The bishop's square.
+     * @param occupied Mask of all occupied squares.
+     * @return Mask of attacked squares, including the first blocker on each ray.
+     */
+    public static long bishopAttacks(int square, long occupied) {
+        int index = (int) (((occupied & BISHOP_MASKS[square]) * BISHOP_MAGICS[square]) >>> BISHOP_SHIFTS[square]);
+        return BISHOP_TABLE[square][index];
+    }
+
+    /**
+     * Returns the squares attacked by a queen.
+     *
+     * @param square The queen's square.
+     * @param occupied Mask of all occupied squares.
+     * @return Mask of attacked squares, including the first blocker on each ray.
+     */
+    public static long queenAttacks(int square, long occupied) {
+        return rookAttacks(square, occupied) | bishopAttacks(square, occupied);
+    }
+
+    /**
+     * Returns the squares strictly between two squares on a shared rank,
+     * file or diagonal.
+     *
+     * @param from First square.
+     * @param to Second square.
+     * @return Mask of the squares in between, or 0 if the squares are not aligned.
+     */
+    public static long between(int from, int to) {
+        return BETWEEN[from][to];
+    }
+
+    /**
+     * Returns the full rank, file or diagonal running through two squares.
+     *
+     * @param from First square.
+     * @param to Second square.
+     * @return Mask of the whole line including both squares, or 0 if the squares are not aligned.
+     */
+    public static long line(int from, int to) {
+        return LINE[from][to];
+    }
+
+    private static long relevantMask(int square, int[][] directions) {
+        long mask = 0L;
+        for (int[] direction : directions) {
+            int line = (square >>> 3) + direction[0];
+            int column = (square & 7) + direction[1];
+            // The last square of each ray never blocks anything behind it
+            while (inside(line + direction[0], column + direction[1])) {
+                mask |= Position.bit(Position.square(line, column));
+                line += direction[0];
+                column += direction[1];
+            }
+        }
+        return mask;
+    }
+
+    private static long slowAttacks(int square, long occupied, int[][] directions) {
+        long attacks = 0L;
+        for (int[] direction : directions) {
+            int line = (square >>> 3) + direction[0];
+            int column = (square & 7) + direction[1];
+            while (inside(line, column)) {
+                long target = Position.bit(Position.square(line, column));
+                attacks |= target;
+                if ((occupied & target) != 0) {
+                    break;
+                }
+                line += direction[0];
+                column += direction[1];
+            }
+        }
+        return attacks;
+    }
+
+    private static long[] buildTable(int square, int[][] directions, long mask, long[] magics, int[] shifts) {
+        int bits = Long.bitCount(mask);
+        int size = 1 << bits;
+        long[] occupancies = new long[size];
+        long[] attacks = new long[size];
+
+        // Enumerate every subset of the mask (carry-rippler)
+        long subset = 0L;
+        for (int i = 0; i < size; i++) {
+            occupancies[i] = subset;
+            attacks[i] = slowAttacks(square, subset, directions);
+            subset = (subset - mask) & mask;
+        }
+
+        long[] table = new long[size];
+        int[] epoch = new int[size];
+        int attempt = 0;
+        while (true) {
+            long magic = nextRandom() & nextRandom() & nextRandom();
+            if (Long.bitCount((mask * magic) & 0xFF00000000000000L) < 6) {
+                continue;
+            }
+            attempt++;
+
+            boolean collision = false;
+            for (int i = 0; i < size && !collision; i++) {
+                int index = (int) ((occupancies[i] * magic) >>> (64 - bits));
+                if (epoch[index] != attempt) {
+                    epoch[index] = attempt;
+                    table[index] = attacks[i];
+                } else if (table[index] != attacks[i]) {
+                    collision = true;
+                }
+            }
+
+            if (!collision) {
+                magics[square] = magic;
+                shifts[square] = 64 - bits;
+                return table;
+            }
+        }
+    }
+
+    private static long betweenMask(int from, int to) {
+        int lineStep = Integer.signum((to >>> 3) - (from >>> 3));
+        int columnStep = Integer.signum((to & 7) - (from & 7));
+        int lineDiff = Math.abs((to >>> 3) - (from >>> 3));
+        int columnDiff = Math.abs((to & 7) - (from & 7));
+
+        if (from == to || (lineDiff != 0 && columnDiff != 0 && lineDiff != columnDiff)) {
+            return 0L;
+        }
+
+        long mask = 0L;
+        int line = (from >>> 3) + lineStep;
+        int column = (from & 7) + columnStep;
+        while (Position.square(line, column) != to) {
+            mask |= Position.bit(Position.square(line, column));
+            line += lineStep;
+            column += columnStep;
+        }
+        return mask;
+    }
+
+    private static long lineMask(int from, int to) {
+        if (from == to) {
+            return 0L;
+        }
+        long fromBit = Position.bit(from);
+        long toBit = Position.bit(to);
+        if ((rookAttacks(from, 0L) & toBit) != 0) {
+            return (rookAttacks(from, 0L) & rookAttacks(to, 0L)) | fromBit | toBit;
+        }
+        if ((bishopAttacks(from, 0L) & toBit) != 0) {
+            return (bishopAttacks(from, 0L) & bishopAttacks(to, 0L)) | fromBit | toBit;
+        }
+        return 0L;
+    }
+
+    private static boolean inside(int line, int column) {
+        return line >= 0 && line < 8 && column >= 0 && column < 8;
+    }
+
+    private static long nextRandom() {
+        seed ^= seed >>> 12;
+        seed ^= seed << 25;
+        seed ^= seed >>> 27;
+        return seed * 0x2545F4914F6CDD1DL;
+    }
+}
@@ -0,0 +1,87 @@
+package chess.gameUtils;
+
+/**
+ * Random keys used to build 64-bit Zobrist hashes of positions.
+ *
+ * A position's key is the XOR of one key per piece on its square, one key
+ * for the current castling rights, one for the en passant file (if any) and
+ * one when black is to move. Since XOR is its own inverse, keys can be
+ * updated incrementally whenever a piece is placed or removed. The keys come
+ * from a fixed seed so hashes are stable across runs.
+ */
+public final class Zobrist {
+
+    private static final long[] PIECE_KEYS = new long[12 * 64];
+    private static final long[] CASTLING_KEYS = new long[16];
+    private static final long[] EN_PASSANT_KEYS = new long[8];
+    private static final long SIDE_KEY;
+
+    private static long seed = 0x9E3779B97F4A7C15L;
+
+    static {
+        for (int code = 0; code < 12; code++) {
+            for (int square = 0; square < 64; square++) {
+                PIECE_KEYS[code << 6 | square] = nextRandom();
+            }
+        }
+        for (int rights = 0; rights < 16; rights++) {
+            CASTLING_KEYS[rights] = nextRandom();
+        }
+        for (int file = 0; file < 8; file++) {
+            EN_PASSANT_KEYS[file] = nextRandom();
+        }
+        SIDE_KEY = nextRandom();
+    }
+
+    private Zobrist() {
+    }
+
+    /**
+     * Returns the key of a piece standing on a square.
+     *
+     * @param color Color index of the piece.
+     * @param type Type index of the piece.
+     * @param square The square index.
+     * @return The piece-square key.
+     */
+    public static long piece(int color, int type, int square) {
+        return PIECE_KEYS[(color * 6 + type) << 6 | square];
+    }
+
+    /**
+     * Returns the key of a set of castling rights.
+     *
+     * @param rights Castling rights bit set.
+     * @return The castling key.
+     */
+    public static long castling(int rights) {
+        return CASTLING_KEYS[rights];
+    }
+
+    /**
+     * Returns the key of an en passant target square, which depends only on its file.
+     *
+     * @param square The en passant square.
+     * @return The en passant key.
+     */
+    public static long enPassant(int square) {
+        return EN_PASSANT_KEYS[square & 7];
+    }
+
+    /**
+     * Returns the key toggled when black is to move.
+     *
+     * @return The side-to-move key.
+     */
+    public static long side() {
+        return SIDE_KEY;
+    }
+
+    private static long nextRandom() {
+        // SplitMix64
+        long z = (seed += 0x9E3779B97F4A7C15L);
+        z = (z ^ (z >>> 30)) * 0xBF58476D1CE4E5B9L;
+        z = (z ^ (z >>> 27)) * 0x94D049BB133111EBL;
+        return z ^ (z >>> 31);
+    }
+}
@@ -1,7 +1,8 @@
 package chess.pieces;
 
 import chess.Board;
-import java.util.Objects;
+import chess.Position;
+import chess.gameUtils.SlidingAttacks;
 
 /**
  * Represents a Bishop chess piece.
@@ -12,15 +13,13 @@ import java.util.Objects;
 public class Bishop extends Piece {
 
     /**
-     * Constructs a Bishop with a specific color, position, and board reference.
+     * Constructs the bishop of the given color. Instances are shared; use
+     * {@link Piece#of(int, int)} to obtain one.
      *
-     * @param color The color of the bishop ("white" or "black").
-     * @param line The starting row of the bishop.
-     * @param column The starting column of the bishop.
-     * @param board The board the bishop belongs to.
+     * @param color Color index of the bishop.
      */
-    public Bishop(String color, int line, int column, Board board) {
-        super(color, line, column, board);
+    Bishop(int color) {
+        super(color, Position.BISHOP);
     }
 
     /**
@@ -28,32 +27,30 @@ public class Bishop extends Piece {
      * Validates that the movement is diagonal, the path is clear,
      * and the destination is either empty or occupied by an opponent.
      *
+     * @param board The board the bishop stands on.
+     * @param line Current row of the bishop.
+     * @param column Current column of the bishop.
      * @param newLine Destination row.
      * @param newColumn Destination column.
      * @return True if the move is valid, false otherwise.
      */
     @Override
-    public boolean validMovement(int newLine, int newColumn) {
+    public boolean validMovement(Board board, int line, int column, int newLine, int newColumn) {
         if (newLine < 0 || newLine >= 8 || newColumn < 0 || newColumn >= 8) {
             return false;
         }
-        if (Math.abs(this.line - newLine) == Math.abs(this.column - newColumn)) {
-            if (!board.hasObstacle(this.line, this.column, newLine, newColumn)) {
-                if (!board.isOccupied(newLine, newColumn) || board.isOpponent(newLine, newColumn, this.color)) {
-                    return true;
-                }
+        long targets = SlidingAttacks.bishopAttacks(Position.square(line, column), board.getPosition().occupied());
+
+        if ((targets & Position.bit(Position.square(newLine, newColumn))) != 0) {
+            if (!board.isOccupied(newLine, newColumn) || board.isOpponent(newLine, newColumn, this.color)) {
+                return true;
             }
         }
         return false;
     }
 
-    /**
-     * Returns the string representation of the bishop using a Unicode symbol.
-     *
-     * @return A Unicode bishop symbol colored based on the piece's color.
-     */
     @Override
-    public String toString() {
-        return (Objects.equals(this.color, "white") ? BLUE + "\u2657" : RED + "\u2657");
+    char outlineSymbol() {
+        return '\u2657';
     }
 }
\ No newline at end of file
@@ -1,7 +1,8 @@
 package chess.pieces;
 
 import chess.Board;
-import java.util.Objects;
+import chess.Position;
+import chess.gameUtils.AttackTables;
 
 /**
  * Represents the King chess piece.
@@ -12,15 +13,13 @@ import java.util.Objects;
 public class King extends Piece {
 
     /**
-     * Constructs a King with the specified color, position, and board.
+     * Constructs the king of the given color. Instances are shared; use
+     * {@link Piece#of(int, int)} to obtain one.
      *
-     * @param color The color of the king ("white" or "black").
-     * @param line The initial row position.
-     * @param column The initial column position.
-     * @param board The board the king belongs to.
+     * @param color Color index of the king.
      */
-    public King(String color, int line, int column, Board board) {
-        super(color, line, column, board);
+    King(int color) {
+        super(color, Position.KING);
     }
 
     /**
@@ -29,19 +28,21 @@ public class King extends Piece {
      * stay in the same place, exceed the board limits, or move into an occupied
      * space by a friendly piece.
      *
+     * @param board The board the king stands on.
+     * @param line Current row of the king.
+     * @param column Current column of the king.
      * @param newLine Destination row.
      * @param newColumn Destination column.
      * @return True if the move is valid, false otherwise.
      */
     @Override
-    public boolean validMovement(int newLine, int newColumn) {
+    public boolean validMovement(Board board, int line, int column, int newLine, int newColumn) {
         if (newLine < 0 || newLine >= 8 || newColumn < 0 || newColumn >= 8) {
             return false;
         }
-        int lineDiff = Math.abs(this.line - newLine);
-        int columnDiff = Math.abs(this.column - newColumn);
+        long targets = AttackTables.kingAttacks(Position.square(line, column));
 
-        if ((lineDiff <= 1 && columnDiff <= 1) && !(lineDiff == 0 && columnDiff == 0)) {
+        if ((targets & Position.bit(Position.square(newLine, newColumn))) != 0) {
             if (!board.isOccupied(newLine, newColumn) || board.isOpponent(newLine, newColumn, this.color)) {
                 return true;
             }
@@ -49,14 +50,9 @@ public class King extends Piece {
         return false;
     }
 
-    /**
-     * Returns the string representation of the king using a Unicode symbol.
-     *
-     * @return A string with the colored Unicode king symbol.
-     */
     @Override
-    public String toString() {
-        return (Objects.equals(this.color, "white") ? BLUE + "\u2654" : RED + "\u2654");
+    char outlineSymbol() {
+        return '\u2654';
     }
 
 }
\ No newline at end of file
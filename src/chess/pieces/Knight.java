@@ -1,7 +1,8 @@
 package chess.pieces;
 
 import chess.Board;
-import java.util.Objects;
+import chess.Position;
+import chess.gameUtils.AttackTables;
 
 /**
  * Represents the Knight chess piece.
@@ -12,34 +13,34 @@ import java.util.Objects;
 public class Knight extends Piece {
 
     /**
-     * Constructs a Knight with the specified color, position, and board.
+     * Constructs the knight of the given color. Instances are shared; use
+     * {@link Piece#of(int, int)} to obtain one.
      *
-     * @param color The color of the knight ("white" or "black").
-     * @param line The initial row position.
-     * @param column The initial column position.
-     * @param board The board the knight belongs to.
+     * @param color Color index of the knight.
      */
-    public Knight(String color, int line, int column, Board board) {
-        super(color, line, column, board);
+    Knight(int color) {
+        super(color, Position.KNIGHT);
     }
 
     /**
      * Validates the movement of the knight.
      * The knight moves in an L-shape and can jump over other pieces.
      *
+     * @param board The board the knight stands on.
+     * @param line Current row of the knight.
+     * @param column Current column of the knight.
      * @param newLine The target row.
      * @param newColumn The target column.
      * @return True if the move is valid, false otherwise.
      */
     @Override
-    public boolean validMovement(int newLine, int newColumn) {
+    public boolean validMovement(Board board, int line, int column, int newLine, int newColumn) {
         if (newLine < 0 || newLine >= 8 || newColumn < 0 || newColumn >= 8) {
             return false;
         }
-        int lineDiff = Math.abs(this.line - newLine);
-        int columnDiff = Math.abs(this.column - newColumn);
+        long targets = AttackTables.knightAttacks(Position.square(line, column));
 
-        if ((lineDiff == 2 && columnDiff == 1) || (lineDiff == 1 && columnDiff == 2)) {
+        if ((targets & Position.bit(Position.square(newLine, newColumn))) != 0) {
             if (!board.isOccupied(newLine, newColumn) || board.isOpponent(newLine, newColumn, this.color)) {
                 return true;
             }
@@ -47,13 +48,8 @@ public class Knight extends Piece {
         return false;
     }
 
-    /**
-     * Returns a string representation of the knight using a Unicode symbol.
-     *
-     * @return A colored Unicode knight symbol based on the piece's color.
-     */
     @Override
-    public String toString() {
-        return (Objects.equals(this.color, "white") ? BLUE + "\u2658" : RED + "\u2658");
+    char outlineSymbol() {
+        return '\u2658';
     }
 }
\ No newline at end of file
@@ -1,6 +1,7 @@
 package chess.pieces;
 import chess.Board;
-import java.util.Objects;
+import chess.Position;
+import chess.gameUtils.AttackTables;
 
 /**
  * Represents the Pawn chess piece.
@@ -12,15 +13,13 @@ import java.util.Objects;
 public class Pawn extends Piece {
 
     /**
-     * Constructs a Pawn with the specified color, position, and board.
+     * Constructs the pawn of the given color. Instances are shared; use
+     * {@link Piece#of(int, int)} to obtain one.
      *
-     * @param color The color of the pawn ("white" or "black").
-     * @param line The starting row.
-     * @param column The starting column.
-     * @param board The board to which the pawn belongs.
+     * @param color Color index of the pawn.
      */
-    public Pawn(String color, int line, int column, Board board) {
-        super(color, line, column,board);
+    Pawn(int color) {
+        super(color, Position.PAWN);
     }
 
     /**
@@ -28,42 +27,39 @@ public class Pawn extends Piece {
      * Pawns can move forward one square if unblocked, or two squares from their initial
      * position. They capture diagonally one square forward.
      *
+     * @param board The board the pawn stands on.
+     * @param line Current row of the pawn.
+     * @param column Current column of the pawn.
      * @param newLine Destination row.
      * @param newColumn Destination column.
      * @return True if the movement is valid according to pawn rules, false otherwise.
      */
     @Override
-    public boolean validMovement(int newLine, int newColumn) {
+    public boolean validMovement(Board board, int line, int column, int newLine, int newColumn) {
         if (newLine < 0 || newLine >= 8 || newColumn < 0 || newColumn >= 8) {
             return false;
         }
-        int lineDiff = newLine - this.line;
-        int columnDiff = Math.abs(this.column - newColumn);
-        int direction = (Objects.equals(this.color, "white")) ? -1 : 1;
-        int startRow = (Objects.equals(this.color, "white")) ? 6 : 1;
+        int square = Position.square(line, column);
+        long target = Position.bit(Position.square(newLine, newColumn));
+        int direction = (color == Position.WHITE) ? -1 : 1;
 
-        if (lineDiff == direction && columnDiff == 0 && !board.isOccupied(newLine, newColumn)) {
-            return true;
-        }
-        if (this.line == startRow && columnDiff == 0 && lineDiff == 2 * direction &&
-                !board.isOccupied(newLine, newColumn) && !board.isOccupied(this.line + direction, this.column)) {
-            return true;
+        if ((AttackTables.pawnAttacks(color, square) & target) != 0) {
+            return board.isOpponent(newLine, newColumn, this.color);
         }
 
-        if (lineDiff == direction && columnDiff == 1 && board.isOpponent(newLine, newColumn, this.color)) {
-            return true;
+        if ((AttackTables.pawnPushes(color, square) & target) != 0) {
+            if (board.isOccupied(newLine, newColumn)) {
+                return false;
+            }
+            // Double step from the starting row also needs the square in between free
+            return newLine - line == direction || !board.isOccupied(line + direction, column);
         }
 
         return false;
     }
 
-    /**
-     * Returns the string representation of the pawn using a Unicode symbol.
-     *
-     * @return A colored Unicode pawn symbol depending on the piece color.
-     */
     @Override
-    public String toString() {
-        return (Objects.equals(this.color, "white") ? BLUE + "\u2659" : RED + "\u2659");
+    char outlineSymbol() {
+        return '\u2659';
     }
 }
\ No newline at end of file
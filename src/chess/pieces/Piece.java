@@ -1,68 +1,119 @@
 package chess.pieces;
 import chess.Board;
+import chess.Position;
 
 /**
  * Abstract base class for chess pieces.
  *
- * This class defines common attributes and methods shared by all pieces,
- * including position, color, and the game board reference. Subclasses must
- * implement the movement validation logic.
+ * Pieces are stateless flyweights: there is exactly one instance per color
+ * and type, obtained with {@link #of(int, int)} or {@link #fromCode(int)}.
+ * A piece only knows its byte-coded color and type (the constants of
+ * {@link Position}); where it stands is kept by the board, which stores
+ * nothing but piece codes. Subclasses implement the movement rules for a
+ * piece standing on a given square of a given board.
  */
 public abstract class Piece {
 
     final String RED = "\u001B[31m";
     final String BLUE = "\u001B[34m";
 
-    protected String color;
-    protected int line;
-    protected int column;
-    protected Board board;
+    private static final Piece[] PIECES = new Piece[12];
+
+    static {
+        for (int color = Position.WHITE; color <= Position.BLACK; color++) {
+            PIECES[color * 6 + Position.PAWN] = new Pawn(color);
+            PIECES[color * 6 + Position.KNIGHT] = new Knight(color);
+            PIECES[color * 6 + Position.BISHOP] = new Bishop(color);
+            PIECES[color * 6 + Position.ROOK] = new Rook(color);
+            PIECES[color * 6 + Position.QUEEN] = new Queen(color);
+            PIECES[color * 6 + Position.KING] = new King(color);
+        }
+    }
+
+    protected final byte color;
+    protected final byte type;
+
+    /**
+     * Constructs the piece of a given color and type.
+     *
+     * @param color Color index ({@link Position#WHITE} or {@link Position#BLACK}).
+     * @param type Type index of the piece.
+     */
+    Piece(int color, int type) {
+        this.color = (byte) color;
+        this.type = (byte) type;
+    }
+
+    /**
+     * Returns the piece of a given color and type.
+     *
+     * @param color Color index ({@link Position#WHITE} or {@link Position#BLACK}).
+     * @param type Type index of the piece.
+     * @return The shared piece instance.
+     */
+    public static Piece of(int color, int type) {
+        return PIECES[color * 6 + type];
+    }
 
     /**
-     * Constructs a Piece with specified color, position, and board.
+     * Returns the piece for a piece code as stored by {@link Position}.
      *
-     * @param color The color of the piece ("white" or "black").
-     * @param line The row position of the piece.
-     * @param column The column position of the piece.
-     * @param board The board the piece belongs to.
+     * @param code The piece code ({@code color * 6 + type}), or {@link Position#EMPTY}.
+     * @return The shared piece instance, or null for an empty square.
      */
-    public Piece(String color, int line, int column,Board board) {
-        this.color = color;
-        this.line = line;
-        this.column = column;
-        this.board = board;
+    public static Piece fromCode(int code) {
+        return code == Position.EMPTY ? null : PIECES[code];
     }
 
-    public String getColor() {
+    public byte getColor() {
         return color;
     }
 
-    public int getLine() {
-        return line;
+    public byte getType() {
+        return type;
     }
 
-    public int getColumn() {
-        return column;
+    public boolean isWhite() {
+        return color == Position.WHITE;
     }
 
     /**
-     * Updates the position of the piece on the board.
+     * Returns the Unicode chess symbol of this piece, in its own color.
      *
-     * @param line New row position.
-     * @param column New column position.
+     * @return The symbol of the white or black piece.
      */
-    public void setPosition(int line, int column) {
-        this.line = line;
-        this.column = column;
+    public char getSymbol() {
+        return (char) (outlineSymbol() + (isWhite() ? 0 : 6));
     }
 
     /**
-     * Checks if a move to the specified position is valid for the piece.
-     * The actual validation is implemented by each specific piece subclass.
+     * Checks if a move of this piece from one square to another is valid on
+     * the given board. The actual validation is implemented by each specific
+     * piece subclass.
      *
-     * @param novaLinha Destination row.
-     * @param novaColuna Destination column.
+     * @param board The board the piece stands on.
+     * @param line Current row of the piece.
+     * @param column Current column of the piece.
+     * @param newLine Destination row.
+     * @param newColumn Destination column.
      * @return True if the move is valid, false otherwise.
      */
-    public abstract boolean validMovement(int novaLinha, int novaColuna);
-}
\ No newline at end of file
+    public abstract boolean validMovement(Board board, int line, int column, int newLine, int newColumn);
+
+    /**
+     * Returns the outlined (white) Unicode symbol of this piece type.
+     *
+     * @return The Unicode symbol.
+     */
+    abstract char outlineSymbol();
+
+    /**
+     * Returns the outlined Unicode symbol of the piece, colored for the terminal.
+     *
+     * @return The colored symbol.
+     */
+    @Override
+    public String toString() {
+        return (isWhite() ? BLUE : RED) + outlineSymbol();
+    }
+}
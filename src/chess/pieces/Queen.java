@@ -1,7 +1,8 @@
 package chess.pieces;
 
 import chess.Board;
-import java.util.Objects;
+import chess.Position;
+import chess.gameUtils.SlidingAttacks;
 
 /**
  * Represents the Queen chess piece.
@@ -13,52 +14,44 @@ import java.util.Objects;
 public class Queen extends Piece {
 
     /**
-     * Constructs a Queen with the specified color, position, and board.
+     * Constructs the queen of the given color. Instances are shared; use
+     * {@link Piece#of(int, int)} to obtain one.
      *
-     * @param color The color of the queen ("white" or "black").
-     * @param line The starting row.
-     * @param column The starting column.
-     * @param board The board the queen belongs to.
+     * @param color Color index of the queen.
      */
-    public Queen(String color, int line, int column, Board board) {
-        super(color, line, column, board);
+    Queen(int color) {
+        super(color, Position.QUEEN);
     }
 
     /**
      * Validates the queen's movement.
-     * The queen moves diagonally, vertically, or horizontally with no obstacles in between.
+     * The queen moves diagonally, vertically, or horizontally with no obstacles in between,
+     * and the destination must be either empty or occupied by an opponent.
      *
+     * @param board The board the queen stands on.
+     * @param line Current row of the queen.
+     * @param column Current column of the queen.
      * @param newLine The target row.
      * @param newColumn The target column.
      * @return True if the movement is valid, false otherwise.
      */
     @Override
-    public boolean validMovement(int newLine, int newColumn) {
+    public boolean validMovement(Board board, int line, int column, int newLine, int newColumn) {
         if (newLine < 0 || newLine >= 8 || newColumn < 0 || newColumn >= 8) {
             return false;
         }
-        int lineDiff = Math.abs(this.line - newLine);
-        int columnDiff = Math.abs(this.column - newColumn);
+        long targets = SlidingAttacks.queenAttacks(Position.square(line, column), board.getPosition().occupied());
 
-        if (lineDiff == columnDiff || this.line == newLine || this.column == newColumn) {
-            if (!board.hasObstacle(this.line, this.column, newLine, newColumn)) {
+        if ((targets & Position.bit(Position.square(newLine, newColumn))) != 0) {
+            if (!board.isOccupied(newLine, newColumn) || board.isOpponent(newLine, newColumn, this.color)) {
                 return true;
             }
         }
         return false;
     }
 
-    /**
-     * Returns a string representation of the queen using a Unicode symbol.
-     *
-     * @return A Unicode queen symbol with color coding.
-     */
     @Override
-    public String toString() {
-        return (Objects.equals(this.color, "white") ? BLUE +  "\u2655" : RED + "\u2655");
-    }
-
-    public static void main(String[] args) {
-
+    char outlineSymbol() {
+        return '\u2655';
     }
 }
\ No newline at end of file
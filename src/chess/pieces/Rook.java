@@ -1,7 +1,8 @@
 package chess.pieces;
 
 import chess.Board;
-import java.util.Objects;
+import chess.Position;
+import chess.gameUtils.SlidingAttacks;
 
 /**
  * Represents a Rook chess piece.
@@ -13,15 +14,13 @@ import java.util.Objects;
 public class Rook extends Piece {
 
     /**
-     * Constructs a Rook with the specified color, position, and board.
+     * Constructs the rook of the given color. Instances are shared; use
+     * {@link Piece#of(int, int)} to obtain one.
      *
-     * @param color The color of the piece ("white" or "black").
-     * @param line The initial row position.
-     * @param column The initial column position.
-     * @param board The game board the piece belongs to.
+     * @param color Color index of the rook.
      */
-    public Rook(String color, int line, int column, Board board) {
-        super(color, line, column, board);
+    Rook(int color) {
+        super(color, Position.ROOK);
     }
 
     /**
@@ -29,32 +28,30 @@ public class Rook extends Piece {
      * The move is valid if it is in a straight line (horizontal or vertical),
      * the path is not blocked, and the destination is either empty or occupied by an opponent.
      *
+     * @param board The board the rook stands on.
+     * @param line Current row of the rook.
+     * @param column Current column of the rook.
      * @param newLine Destination row.
      * @param newColumn Destination column.
      * @return True if the move is valid, false otherwise.
      */
     @Override
-    public boolean validMovement(int newLine, int newColumn) {
+    public boolean validMovement(Board board, int line, int column, int newLine, int newColumn) {
         if (newLine < 0 || newLine >= 8 || newColumn < 0 || newColumn >= 8) {
             return false;
         }
-        if (this.line == newLine || this.column == newColumn) {
-            if (!board.hasObstacle(this.line, this.column, newLine, newColumn)) {
-                if (!board.isOccupied(newLine, newColumn) || board.isOpponent(newLine, newColumn, this.color)) {
-                    return true;
-                }
+        long targets = SlidingAttacks.rookAttacks(Position.square(line, column), board.getPosition().occupied());
+
+        if ((targets & Position.bit(Position.square(newLine, newColumn))) != 0) {
+            if (!board.isOccupied(newLine, newColumn) || board.isOpponent(newLine, newColumn, this.color)) {
+                return true;
             }
         }
         return false;
     }
 
-    /**
-     * Returns a string representation of the rook using a Unicode symbol.
-     *
-     * @return A string containing the Unicode rook symbol, colored by piece.
-     */
     @Override
-    public String toString() {
-        return (Objects.equals(this.color, "white") ? BLUE + "\u2656" : RED +"\u2656");
+    char outlineSymbol() {
+        return '\u2656';
     }
 }
\ No newline at end of file